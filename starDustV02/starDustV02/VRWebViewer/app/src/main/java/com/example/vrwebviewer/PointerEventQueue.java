@@ -0,0 +1,137 @@
+// POINTER EVENT QUEUE - Frame-coalesced mouse event injection
+// Features: move merging, ordered down/up, one script per display frame
+package com.example.vrwebviewer;
+
+import android.view.Choreographer;
+import android.webkit.WebView;
+
+/**
+ * Collects synthetic mouse events from touch drags and the BLE controller and
+ * hands them to the WebView as a single script per vsync. Consecutive moves are
+ * merged into the latest position; every other event keeps its place in line.
+ * Main thread only.
+ */
+public class PointerEventQueue implements Choreographer.FrameCallback {
+    
+    public static final String MOUSE_DOWN = "mousedown";
+    public static final String MOUSE_MOVE = "mousemove";
+    public static final String MOUSE_UP = "mouseup";
+    public static final String CLICK = "click";
+    
+    // A stuck frame must not grow the queue without bound
+    private static final int MAX_PENDING = 32;
+    
+    private static final String DISPATCH_FN = "(function(q){"
+            + "for (var i = 0; i < q.length; i += 3) {"
+            + "  var x = q[i + 1], y = q[i + 2];"
+            + "  var element = document.elementFromPoint(x, y);"
+            + "  if (element) {"
+            + "    element.dispatchEvent(new MouseEvent(q[i], { clientX: x, clientY: y, bubbles: true }));"
+            + "  }"
+            + "}"
+            + "})([";
+    
+    private final WebView webView;
+    private final String[] types = new String[MAX_PENDING];
+    private final float[] xs = new float[MAX_PENDING];
+    private final float[] ys = new float[MAX_PENDING];
+    private final StringBuilder script = new StringBuilder(256);
+    private int pending = 0;
+    private boolean frameScheduled = false;
+    
+    private long eventsReceived = 0;
+    private long eventsDispatched = 0;
+    private long scriptsFlushed = 0;
+    
+    public PointerEventQueue(WebView webView) {
+        this.webView = webView;
+    }
+    
+    public void enqueue(String type, float x, float y) {
+        eventsReceived++;
+        
+        int last = pending - 1;
+        if (MOUSE_MOVE.equals(type) && last >= 0 && MOUSE_MOVE.equals(types[last])) {
+            xs[last] = x;
+            ys[last] = y;
+        } else {
+            if (pending == MAX_PENDING) {
+                dropOldestMove();
+            }
+            if (pending == MAX_PENDING) {
+                // Nothing left to merge away, so send what we have now
+                flush();
+            }
+            types[pending] = type;
+            xs[pending] = x;
+            ys[pending] = y;
+            pending++;
+        }
+        
+        if (!frameScheduled) {
+            frameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+    
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        flush();
+    }
+    
+    public void flush() {
+        if (pending == 0) {
+            return;
+        }
+        
+        script.setLength(0);
+        script.append(DISPATCH_FN);
+        for (int i = 0; i < pending; i++) {
+            if (i > 0) {
+                script.append(',');
+            }
+            script.append('\'').append(types[i]).append("',")
+                    .append(xs[i]).append(',').append(ys[i]);
+        }
+        script.append("]);");
+        
+        eventsDispatched += pending;
+        scriptsFlushed++;
+        pending = 0;
+        webView.evaluateJavascript(script.toString(), null);
+    }
+    
+    // Pending events are dropped; use when the page goes away
+    public void clear() {
+        pending = 0;
+        if (frameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(this);
+            frameScheduled = false;
+        }
+    }
+    
+    private void dropOldestMove() {
+        for (int i = 0; i < pending; i++) {
+            if (MOUSE_MOVE.equals(types[i])) {
+                System.arraycopy(types, i + 1, types, i, pending - i - 1);
+                System.arraycopy(xs, i + 1, xs, i, pending - i - 1);
+                System.arraycopy(ys, i + 1, ys, i, pending - i - 1);
+                pending--;
+                return;
+            }
+        }
+    }
+    
+    public long getEventsReceived() {
+        return eventsReceived;
+    }
+    
+    public long getEventsDispatched() {
+        return eventsDispatched;
+    }
+    
+    public long getScriptsFlushed() {
+        return scriptsFlushed;
+    }
+}
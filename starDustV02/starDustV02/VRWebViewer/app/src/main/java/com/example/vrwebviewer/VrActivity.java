@@ -49,6 +49,7 @@ public class VrActivity extends AppCompatActivity implements BleManager.BleListe
     private float lastTouchX = 0;
     private float lastTouchY = 0;
     private boolean isDragging = false;
+    private PointerEventQueue pointerQueue;
     
     // BLE control
     private BleManager bleManager;
@@ -108,6 +109,8 @@ public class VrActivity extends AppCompatActivity implements BleManager.BleListe
         hiddenWebView.getSettings().setLoadWithOverviewMode(true);
         hiddenWebView.getSettings().setUseWideViewPort(true);
         
+        pointerQueue = new PointerEventQueue(hiddenWebView);
+        
         hiddenWebView.setWebViewClient(new WebViewClient() {
             @Override
             public void onPageFinished(WebView view, String url) {
@@ -120,4 +123,244 @@ public class VrActivity extends AppCompatActivity implements BleManager.BleListe
     }
     
     private void setupCapture() {
-        captureHandler = new Handler(Looper.getMainLooper());\n        backgroundExecutor = Executors.newSingleThreadExecutor();\n        \n        // Pre-allocate bitmap for capture\n        captureBitmap = Bitmap.createBitmap(DEFAULT_CAPTURE_WIDTH, DEFAULT_CAPTURE_HEIGHT, Bitmap.Config.RGB_565);\n        captureCanvas = new Canvas(captureBitmap);\n    }\n    \n    private void setupBle() {\n        if (bleEnabled) {\n            bleManager = new BleManager(this, this);\n            bleManager.startScanning();\n        }\n    }\n    \n    private void startCapture() {\n        if (isCapturing) return;\n        isCapturing = true;\n        \n        Runnable captureRunnable = new Runnable() {\n            @Override\n            public void run() {\n                if (!isCapturing) return;\n                \n                captureWebView();\n                \n                // Schedule next capture\n                long delay = 1000 / captureFps;\n                captureHandler.postDelayed(this, delay);\n            }\n        };\n        \n        captureHandler.post(captureRunnable);\n    }\n    \n    private void captureWebView() {\n        if (hiddenWebView == null || captureBitmap == null) return;\n        \n        try {\n            // Capture on UI thread\n            hiddenWebView.draw(captureCanvas);\n            \n            // Process on background thread\n            backgroundExecutor.execute(() -> {\n                try {\n                    // Create scaled copies for each eye\n                    Bitmap leftBitmap = Bitmap.createScaledBitmap(captureBitmap, \n                        leftEyeView.getWidth(), leftEyeView.getHeight(), false);\n                    Bitmap rightBitmap = Bitmap.createScaledBitmap(captureBitmap, \n                        rightEyeView.getWidth(), rightEyeView.getHeight(), false);\n                    \n                    // Update UI on main thread\n                    runOnUiThread(() -> {\n                        leftEyeView.setImageBitmap(leftBitmap);\n                        rightEyeView.setImageBitmap(rightBitmap);\n                        updateDebugInfo();\n                    });\n                } catch (Exception e) {\n                    Log.e(TAG, "Error processing capture", e);\n                }\n            });\n        } catch (Exception e) {\n            Log.e(TAG, "Error capturing WebView", e);\n        }\n    }\n    \n    private boolean handleTouch(View view, MotionEvent event) {\n        float x = event.getX();\n        float y = event.getY();\n        \n        // Map touch coordinates to WebView coordinates\n        float webX = (x / view.getWidth()) * hiddenWebView.getWidth();\n        float webY = (y / view.getHeight()) * hiddenWebView.getHeight();\n        \n        switch (event.getAction()) {\n            case MotionEvent.ACTION_DOWN:\n                isDragging = true;\n                lastTouchX = webX;\n                lastTouchY = webY;\n                injectMouseEvent("mousedown", webX, webY);\n                break;\n                \n            case MotionEvent.ACTION_MOVE:\n                if (isDragging) {\n                    injectMouseEvent("mousemove", webX, webY);\n                    lastTouchX = webX;\n                    lastTouchY = webY;\n                }\n                break;\n                \n            case MotionEvent.ACTION_UP:\n            case MotionEvent.ACTION_CANCEL:\n                if (isDragging) {\n                    injectMouseEvent("mouseup", webX, webY);\n                    isDragging = false;\n                }\n                break;\n        }\n        \n        return true;\n    }\n    \n    private void injectMouseEvent(String eventType, float x, float y) {\n        String script = String.format(\n            "var element = document.elementFromPoint(%f, %f); " +\n            "if (element) { " +\n            "  var event = new MouseEvent('%s', { " +\n            "    clientX: %f, clientY: %f, bubbles: true " +\n            "  }); " +\n            "  element.dispatchEvent(event); " +\n            "}", \n            x, y, eventType, x, y\n        );\n        \n        hiddenWebView.evaluateJavascript(script, null);\n    }\n    \n    private void toggleFullscreen() {\n        View decorView = getWindow().getDecorView();\n        \n        if (!isFullscreen) {\n            // Enter fullscreen\n            decorView.setSystemUiVisibility(\n                View.SYSTEM_UI_FLAG_FULLSCREEN |\n                View.SYSTEM_UI_FLAG_HIDE_NAVIGATION |\n                View.SYSTEM_UI_FLAG_IMMERSIVE_STICKY\n            );\n            findViewById(R.id.vr_controls).setVisibility(View.GONE);\n            isFullscreen = true;\n        } else {\n            // Exit fullscreen\n            decorView.setSystemUiVisibility(View.SYSTEM_UI_FLAG_VISIBLE);\n            findViewById(R.id.vr_controls).setVisibility(View.VISIBLE);\n            isFullscreen = false;\n        }\n    }\n    \n    private void updateDebugInfo() {\n        frameCount++;\n        long currentTime = System.currentTimeMillis();\n        \n        if (currentTime - lastCaptureTime >= 1000) {\n            float actualFps = frameCount * 1000.0f / (currentTime - lastCaptureTime);\n            String debugText = String.format("FPS: %.1f | BLE: %s", \n                actualFps, bleEnabled && bleManager != null && bleManager.isConnected() ? "ON" : "OFF");\n            debugOverlay.setText(debugText);\n            \n            frameCount = 0;\n            lastCaptureTime = currentTime;\n        }\n    }\n    \n    // BLE Listener implementation\n    @Override\n    public void onBleConnected() {\n        runOnUiThread(() -> {\n            Toast.makeText(this, "BLE Gyro Connected", Toast.LENGTH_SHORT).show();\n        });\n    }\n    \n    @Override\n    public void onBleDisconnected() {\n        runOnUiThread(() -> {\n            Toast.makeText(this, "BLE Gyro Disconnected", Toast.LENGTH_SHORT).show();\n        });\n    }\n    \n    @Override\n    public void onGyroData(float gx, float gy, float gz) {\n        // Convert gyro data to mouse movement\n        float deltaX = gx * gyroSensitivity;\n        float deltaY = gy * gyroSensitivity;\n        \n        // Apply deadzone\n        if (Math.abs(deltaX) < 0.01f) deltaX = 0;\n        if (Math.abs(deltaY) < 0.01f) deltaY = 0;\n        \n        if (deltaX != 0 || deltaY != 0) {\n            // Simulate mouse movement at center of screen\n            float centerX = hiddenWebView.getWidth() / 2.0f + deltaX;\n            float centerY = hiddenWebView.getHeight() / 2.0f + deltaY;\n            \n            injectMouseEvent("mousemove", centerX, centerY);\n        }\n    }\n    \n    @Override\n    public void onButtonData(boolean left, boolean right, boolean up, boolean down) {\n        // Handle button presses from BLE device\n        if (left || right || up || down) {\n            float centerX = hiddenWebView.getWidth() / 2.0f;\n            float centerY = hiddenWebView.getHeight() / 2.0f;\n            injectMouseEvent("click", centerX, centerY);\n        }\n    }\n    \n    @Override\n    protected void onPause() {\n        super.onPause();\n        isCapturing = false;\n        if (bleManager != null) {\n            bleManager.disconnect();\n        }\n    }\n    \n    @Override\n    protected void onResume() {\n        super.onResume();\n        if (hiddenWebView != null) {\n            startCapture();\n        }\n        if (bleEnabled && bleManager != null) {\n            bleManager.startScanning();\n        }\n    }\n    \n    @Override\n    protected void onDestroy() {\n        isCapturing = false;\n        \n        if (captureHandler != null) {\n            captureHandler.removeCallbacksAndMessages(null);\n        }\n        \n        if (backgroundExecutor != null) {\n            backgroundExecutor.shutdown();\n        }\n        \n        if (bleManager != null) {\n            bleManager.disconnect();\n        }\n        \n        if (hiddenWebView != null) {\n            hiddenWebView.destroy();\n        }\n        \n        if (captureBitmap != null && !captureBitmap.isRecycled()) {\n            captureBitmap.recycle();\n        }\n        \n        super.onDestroy();\n    }\n}
\ No newline at end of file
+        captureHandler = new Handler(Looper.getMainLooper());
+        backgroundExecutor = Executors.newSingleThreadExecutor();
+        
+        // Pre-allocate bitmap for capture
+        captureBitmap = Bitmap.createBitmap(DEFAULT_CAPTURE_WIDTH, DEFAULT_CAPTURE_HEIGHT, Bitmap.Config.RGB_565);
+        captureCanvas = new Canvas(captureBitmap);
+    }
+    
+    private void setupBle() {
+        if (bleEnabled) {
+            bleManager = new BleManager(this, this);
+            bleManager.startScanning();
+        }
+    }
+    
+    private void startCapture() {
+        if (isCapturing) return;
+        isCapturing = true;
+        
+        Runnable captureRunnable = new Runnable() {
+            @Override
+            public void run() {
+                if (!isCapturing) return;
+                
+                captureWebView();
+                
+                // Schedule next capture
+                long delay = 1000 / captureFps;
+                captureHandler.postDelayed(this, delay);
+            }
+        };
+        
+        captureHandler.post(captureRunnable);
+    }
+    
+    private void captureWebView() {
+        if (hiddenWebView == null || captureBitmap == null) return;
+        
+        try {
+            // Capture on UI thread
+            hiddenWebView.draw(captureCanvas);
+            
+            // Process on background thread
+            backgroundExecutor.execute(() -> {
+                try {
+                    // Create scaled copies for each eye
+                    Bitmap leftBitmap = Bitmap.createScaledBitmap(captureBitmap, 
+                        leftEyeView.getWidth(), leftEyeView.getHeight(), false);
+                    Bitmap rightBitmap = Bitmap.createScaledBitmap(captureBitmap, 
+                        rightEyeView.getWidth(), rightEyeView.getHeight(), false);
+                    
+                    // Update UI on main thread
+                    runOnUiThread(() -> {
+                        leftEyeView.setImageBitmap(leftBitmap);
+                        rightEyeView.setImageBitmap(rightBitmap);
+                        updateDebugInfo();
+                    });
+                } catch (Exception e) {
+                    Log.e(TAG, "Error processing capture", e);
+                }
+            });
+        } catch (Exception e) {
+            Log.e(TAG, "Error capturing WebView", e);
+        }
+    }
+    
+    private boolean handleTouch(View view, MotionEvent event) {
+        float x = event.getX();
+        float y = event.getY();
+        
+        // Map touch coordinates to WebView coordinates
+        float webX = (x / view.getWidth()) * hiddenWebView.getWidth();
+        float webY = (y / view.getHeight()) * hiddenWebView.getHeight();
+        
+        switch (event.getAction()) {
+            case MotionEvent.ACTION_DOWN:
+                isDragging = true;
+                lastTouchX = webX;
+                lastTouchY = webY;
+                injectMouseEvent("mousedown", webX, webY);
+                break;
+                
+            case MotionEvent.ACTION_MOVE:
+                if (isDragging) {
+                    injectMouseEvent("mousemove", webX, webY);
+                    lastTouchX = webX;
+                    lastTouchY = webY;
+                }
+                break;
+                
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                if (isDragging) {
+                    injectMouseEvent("mouseup", webX, webY);
+                    isDragging = false;
+                }
+                break;
+        }
+        
+        return true;
+    }
+    
+    private void injectMouseEvent(String eventType, float x, float y) {
+        // Coalesced and sent on the next frame
+        pointerQueue.enqueue(eventType, x, y);
+    }
+    
+    private void toggleFullscreen() {
+        View decorView = getWindow().getDecorView();
+        
+        if (!isFullscreen) {
+            // Enter fullscreen
+            decorView.setSystemUiVisibility(
+                View.SYSTEM_UI_FLAG_FULLSCREEN |
+                View.SYSTEM_UI_FLAG_HIDE_NAVIGATION |
+                View.SYSTEM_UI_FLAG_IMMERSIVE_STICKY
+            );
+            findViewById(R.id.vr_controls).setVisibility(View.GONE);
+            isFullscreen = true;
+        } else {
+            // Exit fullscreen
+            decorView.setSystemUiVisibility(View.SYSTEM_UI_FLAG_VISIBLE);
+            findViewById(R.id.vr_controls).setVisibility(View.VISIBLE);
+            isFullscreen = false;
+        }
+    }
+    
+    private void updateDebugInfo() {
+        frameCount++;
+        long currentTime = System.currentTimeMillis();
+        
+        if (currentTime - lastCaptureTime >= 1000) {
+            float actualFps = frameCount * 1000.0f / (currentTime - lastCaptureTime);
+            String debugText = String.format("FPS: %.1f | BLE: %s | Input: %d/%d", 
+                actualFps, bleEnabled && bleManager != null && bleManager.isConnected() ? "ON" : "OFF",
+                pointerQueue.getEventsDispatched(), pointerQueue.getEventsReceived());
+            debugOverlay.setText(debugText);
+            
+            frameCount = 0;
+            lastCaptureTime = currentTime;
+        }
+    }
+    
+    // BLE Listener implementation
+    @Override
+    public void onBleConnected() {
+        runOnUiThread(() -> {
+            Toast.makeText(this, "BLE Gyro Connected", Toast.LENGTH_SHORT).show();
+        });
+    }
+    
+    @Override
+    public void onBleDisconnected() {
+        runOnUiThread(() -> {
+            Toast.makeText(this, "BLE Gyro Disconnected", Toast.LENGTH_SHORT).show();
+        });
+    }
+    
+    @Override
+    public void onGyroData(float gx, float gy, float gz) {
+        // Convert gyro data to mouse movement
+        float deltaX = gx * gyroSensitivity;
+        float deltaY = gy * gyroSensitivity;
+        
+        // Apply deadzone
+        if (Math.abs(deltaX) < 0.01f) deltaX = 0;
+        if (Math.abs(deltaY) < 0.01f) deltaY = 0;
+        
+        if (deltaX != 0 || deltaY != 0) {
+            // Simulate mouse movement at center of screen
+            float centerX = hiddenWebView.getWidth() / 2.0f + deltaX;
+            float centerY = hiddenWebView.getHeight() / 2.0f + deltaY;
+            
+            injectMouseEvent("mousemove", centerX, centerY);
+        }
+    }
+    
+    @Override
+    public void onButtonData(boolean left, boolean right, boolean up, boolean down) {
+        // Handle button presses from BLE device
+        if (left || right || up || down) {
+            float centerX = hiddenWebView.getWidth() / 2.0f;
+            float centerY = hiddenWebView.getHeight() / 2.0f;
+            injectMouseEvent("click", centerX, centerY);
+        }
+    }
+    
+    @Override
+    protected void onPause() {
+        super.onPause();
+        isCapturing = false;
+        if (pointerQueue != null) {
+            pointerQueue.flush();
+        }
+        if (bleManager != null) {
+            bleManager.disconnect();
+        }
+    }
+    
+    @Override
+    protected void onResume() {
+        super.onResume();
+        if (hiddenWebView != null) {
+            startCapture();
+        }
+        if (bleEnabled && bleManager != null) {
+            bleManager.startScanning();
+        }
+    }
+    
+    @Override
+    protected void onDestroy() {
+        isCapturing = false;
+        
+        if (captureHandler != null) {
+            captureHandler.removeCallbacksAndMessages(null);
+        }
+        
+        if (backgroundExecutor != null) {
+            backgroundExecutor.shutdown();
+        }
+        
+        if (bleManager != null) {
+            bleManager.disconnect();
+        }
+        
+        if (pointerQueue != null) {
+            pointerQueue.clear();
+        }
+        
+        if (hiddenWebView != null) {
+            hiddenWebView.destroy();
+        }
+        
+        if (captureBitmap != null && !captureBitmap.isRecycled()) {
+            captureBitmap.recycle();
+        }
+        
+        super.onDestroy();
+    }
+}
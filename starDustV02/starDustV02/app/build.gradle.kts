@@ -1,3 +1,7 @@
+import java.util.Properties
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
 plugins {
     alias(libs.plugins.android.application)
 }
@@ -41,4 +45,84 @@ dependencies {
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
-}
\ No newline at end of file
+}
+
+// Offline snapshots: each mirrored site under snapshots/<site>/ (see snapshots/README.md)
+// is zipped into assets/snapshots/<site>.zip with the snapshot.properties manifest that
+// OfflineSnapshots installs. Sites that haven't been mirrored are skipped.
+abstract class PackageSnapshotsTask : DefaultTask() {
+    @get:InputDirectory
+    @get:Optional
+    abstract val sourceDir: DirectoryProperty
+
+    // site -> live URL the snapshot copies
+    @get:Input
+    abstract val sites: MapProperty<String, String>
+
+    @get:Input
+    abstract val snapshotVersion: Property<Int>
+
+    @get:OutputDirectory
+    abstract val outputDir: DirectoryProperty
+
+    @TaskAction
+    fun pack() {
+        val out = outputDir.get().asFile.resolve("snapshots")
+        out.deleteRecursively()
+        out.mkdirs()
+        val root = sourceDir.orNull?.asFile ?: return
+        sites.get().forEach { (site, live) ->
+            val siteDir = root.resolve(site)
+            if (!siteDir.isDirectory) {
+                logger.lifecycle("No mirrored snapshot for $site, skipping")
+                return@forEach
+            }
+            // A snapshot.properties in the mirror may set entry and update; site and version are ours
+            val manifest = Properties()
+            val overrides = siteDir.resolve("snapshot.properties")
+            if (overrides.isFile) {
+                overrides.inputStream().use { manifest.load(it) }
+            }
+            manifest.setProperty("site", site)
+            manifest.setProperty("version", snapshotVersion.get().toString())
+            if (manifest.getProperty("live") == null) {
+                manifest.setProperty("live", live)
+            }
+            ZipOutputStream(out.resolve("$site.zip").outputStream()).use { zip ->
+                zip.putNextEntry(ZipEntry("snapshot.properties"))
+                manifest.store(zip, null)
+                zip.closeEntry()
+                siteDir.walkTopDown()
+                    .filter { it.isFile && it != overrides }
+                    .sortedBy { it.invariantSeparatorsPath }
+                    .forEach { file ->
+                        zip.putNextEntry(ZipEntry(file.relativeTo(siteDir).invariantSeparatorsPath))
+                        file.inputStream().use { it.copyTo(zip) }
+                        zip.closeEntry()
+                    }
+            }
+        }
+    }
+}
+
+val packageSnapshots = tasks.register<PackageSnapshotsTask>("packageSnapshots") {
+    val mirrored = layout.projectDirectory.dir("snapshots")
+    if (mirrored.asFile.isDirectory) {
+        sourceDir.set(mirrored)
+    }
+    // Same live URLs as VrActivity.destinationUrl()
+    sites.set(mapOf(
+        "moon" to "https://vr-git-main-mohammad-kasims-projects.vercel.app/",
+        "mars" to "https://nasa2-git-main-arur17s-projects.vercel.app/",
+        "venus" to "https://nasa2-git-main-arur17s-projects.vercel.app/"
+    ))
+    // Installed snapshots are only replaced by higher versions, so follow the app's versionCode
+    snapshotVersion.set(android.defaultConfig.versionCode ?: 1)
+    outputDir.set(layout.buildDirectory.dir("generated/snapshots"))
+}
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(packageSnapshots, PackageSnapshotsTask::outputDir)
+    }
+}
@@ -0,0 +1,25 @@
+#!/bin/sh
+# Mirrors a planet tour into snapshots/<site>/ for the packageSnapshots task.
+#
+#   ./mirror.sh <site> <live-url> [extra-url ...]
+#
+# wget only follows what the HTML references. Models, textures and other files the
+# page loads from script have to be passed as extra URLs.
+set -e
+
+if [ $# -lt 2 ]; then
+    echo "usage: $0 <moon|mars|venus> <live-url> [extra-url ...]" >&2
+    exit 1
+fi
+
+site=$1
+shift
+dir=$(dirname "$0")/$site
+
+rm -rf "$dir"
+mkdir -p "$dir"
+wget --mirror --page-requisites --convert-links --adjust-extension \
+     --no-parent --no-host-directories --execute robots=off \
+     --directory-prefix="$dir" "$@"
+
+echo "Mirrored $site into $dir; add $dir/snapshot.properties to set entry or update"
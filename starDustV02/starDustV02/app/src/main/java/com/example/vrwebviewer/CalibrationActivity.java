@@ -2,9 +2,6 @@
 package com.example.vrwebviewer;
 
 import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
-import android.hardware.SensorManager;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
@@ -14,12 +11,18 @@ import android.widget.FrameLayout;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-public class CalibrationActivity extends AppCompatActivity implements SensorEventListener {
+public class CalibrationActivity extends AppCompatActivity implements SensorHub.Subscriber {
     
-    private SensorManager sensorManager;
-    private Sensor gyroSensor;
-    private float[] gyroValues = new float[3];
+    private SensorHub.Subscription gyroSubscription;
+    private float[] gyroValues = new float[3]; // UI thread copy of the latest sample
+    
+    // Hub thread publishes, the UI picks up at most one pending visual update
+    private static final float VISUALIZER_RATE_HZ = 60f;
+    private final PoseSnapshot gyroSnapshot = new PoseSnapshot(3);
+    private final AtomicBoolean visualizationPending = new AtomicBoolean(false);
+    private final Runnable visualizationUpdate = this::updateGyroVisualization;
     private float[][] calibrationPoints = new float[5][3];
     private int calibrationStep = 0;
     
@@ -85,11 +88,9 @@ public class CalibrationActivity extends AppCompatActivity implements SensorEven
     }
     
     private void setupSensors() {
-        sensorManager = (SensorManager) getSystemService(SENSOR_SERVICE);
-        gyroSensor = sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE);
-        if (gyroSensor != null) {
-            sensorManager.registerListener(this, gyroSensor, SensorManager.SENSOR_DELAY_GAME);
-        }
+        // The visualiser only needs display rate; the hub averages the samples in between
+        gyroSubscription = SensorHub.getInstance(this).subscribe(Sensor.TYPE_GYROSCOPE,
+                SensorSamplingPolicy.MODE_CALIBRATION, VISUALIZER_RATE_HZ, this);
     }
     
     private void updateUI() {
@@ -108,7 +109,8 @@ public class CalibrationActivity extends AppCompatActivity implements SensorEven
     }
     
     private void capturePosition() {
-        if (gyroValues != null && calibrationStep < calibrationPoints.length) {
+        if (calibrationStep < calibrationPoints.length) {
+            gyroSnapshot.read(gyroValues);
             calibrationPoints[calibrationStep] = gyroValues.clone();
             
             // Visual feedback - flash the dot
@@ -150,68 +152,69 @@ public class CalibrationActivity extends AppCompatActivity implements SensorEven
     }
     
     @Override
-    public void onSensorChanged(SensorEvent event) {
-        if (event.sensor.getType() == Sensor.TYPE_GYROSCOPE) {
-            gyroValues = event.values.clone();
-            updateGyroVisualization();
+    public void onSensorSample(int sensorType, long timestampNanos, float[] values, int count) {
+        if (sensorType == Sensor.TYPE_GYROSCOPE) {
+            gyroSnapshot.publish(timestampNanos, values);
+            
+            // Coalesce: never queue more than one redraw behind a busy main thread
+            if (visualizationPending.compareAndSet(false, true)) {
+                handler.post(visualizationUpdate);
+            }
         }
     }
     
     private void updateGyroVisualization() {
-        if (gyroValues == null || gyroDot == null || ballCenterX == 0) return;
+        visualizationPending.set(false);
+        if (gyroDot == null || ballCenterX == 0) return;
         
-        runOnUiThread(() -> {
-            // Update gyro values display
-            if (gyroValuesText != null) {
-                gyroValuesText.setText(String.format("Gyro: X=%.2f Y=%.2f Z=%.2f", 
-                    gyroValues[0], gyroValues[1], gyroValues[2]));
-            }
-            
-            // Use absolute gyro values for direct positioning
-            // When gyro is 0,0 dot should be at center
-            float sensitivity = 100f; // Sensitivity for gyro to pixel conversion
-            
-            // Map gyro values directly to dot position
-            // gyroValues[0] = pitch (forward/back) -> left/right movement
-            // gyroValues[1] = roll (left/right) -> up/down movement  
-            float dotX = ballCenterX + (gyroValues[0] * sensitivity);
-            float dotY = ballCenterY - (gyroValues[1] * sensitivity); // Inverted for natural feel
-            
-            // Apply smoothing to reduce jitter
-            if (lastDotX != 0f || lastDotY != 0f) {
-                dotX = lastDotX * smoothingFactor + dotX * (1f - smoothingFactor);
-                dotY = lastDotY * smoothingFactor + dotY * (1f - smoothingFactor);
-            }
-            
-            // Constrain dot within circle
-            float deltaX = dotX - ballCenterX;
-            float deltaY = dotY - ballCenterY;
-            float distance = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-            
-            if (distance > ballRadius) {
-                float scale = ballRadius / distance;
-                dotX = ballCenterX + deltaX * scale;
-                dotY = ballCenterY + deltaY * scale;
-            }
-            
-            // Store for next smoothing
-            lastDotX = dotX;
-            lastDotY = dotY;
-            
-            // Update dot position
-            gyroDot.setX(dotX - gyroDot.getWidth() / 2f);
-            gyroDot.setY(dotY - gyroDot.getHeight() / 2f);
-        });
+        gyroSnapshot.read(gyroValues);
+        
+        // Update gyro values display
+        if (gyroValuesText != null) {
+            gyroValuesText.setText(String.format("Gyro: X=%.2f Y=%.2f Z=%.2f", 
+                gyroValues[0], gyroValues[1], gyroValues[2]));
+        }
+        
+        // Use absolute gyro values for direct positioning
+        // When gyro is 0,0 dot should be at center
+        float sensitivity = 100f; // Sensitivity for gyro to pixel conversion
+        
+        // Map gyro values directly to dot position
+        // gyroValues[0] = pitch (forward/back) -> left/right movement
+        // gyroValues[1] = roll (left/right) -> up/down movement  
+        float dotX = ballCenterX + (gyroValues[0] * sensitivity);
+        float dotY = ballCenterY - (gyroValues[1] * sensitivity); // Inverted for natural feel
+        
+        // Apply smoothing to reduce jitter
+        if (lastDotX != 0f || lastDotY != 0f) {
+            dotX = lastDotX * smoothingFactor + dotX * (1f - smoothingFactor);
+            dotY = lastDotY * smoothingFactor + dotY * (1f - smoothingFactor);
+        }
+        
+        // Constrain dot within circle
+        float deltaX = dotX - ballCenterX;
+        float deltaY = dotY - ballCenterY;
+        float distance = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        
+        if (distance > ballRadius) {
+            float scale = ballRadius / distance;
+            dotX = ballCenterX + deltaX * scale;
+            dotY = ballCenterY + deltaY * scale;
+        }
+        
+        // Store for next smoothing
+        lastDotX = dotX;
+        lastDotY = dotY;
+        
+        // Update dot position
+        gyroDot.setX(dotX - gyroDot.getWidth() / 2f);
+        gyroDot.setY(dotY - gyroDot.getHeight() / 2f);
     }
     
-    @Override
-    public void onAccuracyChanged(Sensor sensor, int accuracy) {}
-    
     @Override
     protected void onDestroy() {
-        if (sensorManager != null) {
-            sensorManager.unregisterListener(this);
-        }
+        SensorHub.getInstance(this).unsubscribe(gyroSubscription);
+        handler.removeCallbacks(visualizationUpdate);
         super.onDestroy();
     }
 }
\ No newline at end of file
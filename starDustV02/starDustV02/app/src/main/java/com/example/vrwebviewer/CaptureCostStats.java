@@ -0,0 +1,63 @@
+// CAPTURE COST STATS - WebView draw time with the render profile on and off
+package com.example.vrwebviewer;
+
+/**
+ * Running mean of hiddenWebView.draw() time per capture, split by whether the site's
+ * RenderProfile was active, so the profile's effect is measured rather than assumed.
+ * Kept per origin across sessions.
+ */
+public class CaptureCostStats {
+    
+    private long offCount, offTotalMicros;
+    private long onCount, onTotalMicros;
+    
+    public void record(boolean profileOn, long micros) {
+        if (profileOn) {
+            onCount++;
+            onTotalMicros += micros;
+        } else {
+            offCount++;
+            offTotalMicros += micros;
+        }
+    }
+    
+    // -1 until there is at least one sample
+    public float getOffMeanMillis() {
+        return offCount > 0 ? offTotalMicros / 1000f / offCount : -1f;
+    }
+    
+    public float getOnMeanMillis() {
+        return onCount > 0 ? onTotalMicros / 1000f / onCount : -1f;
+    }
+    
+    public long getOffCount() {
+        return offCount;
+    }
+    
+    public long getOnCount() {
+        return onCount;
+    }
+    
+    public String encode() {
+        return offCount + "," + offTotalMicros + "," + onCount + "," + onTotalMicros;
+    }
+    
+    public static CaptureCostStats decode(String data) {
+        CaptureCostStats stats = new CaptureCostStats();
+        if (data == null) {
+            return stats;
+        }
+        String[] parts = data.split(",");
+        if (parts.length == 4) {
+            try {
+                stats.offCount = Long.parseLong(parts[0]);
+                stats.offTotalMicros = Long.parseLong(parts[1]);
+                stats.onCount = Long.parseLong(parts[2]);
+                stats.onTotalMicros = Long.parseLong(parts[3]);
+            } catch (NumberFormatException e) {
+                return new CaptureCostStats();
+            }
+        }
+        return stats;
+    }
+}
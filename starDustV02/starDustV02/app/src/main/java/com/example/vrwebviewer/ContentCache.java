@@ -0,0 +1,685 @@
+// CONTENT CACHE - Size-bounded LRU disk cache for static web content
+package com.example.vrwebviewer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores cacheable GET responses as files under one directory, with the index (URL,
+ * validators, freshness, headers) held in an access-ordered map and persisted beside
+ * them. A miss is streamed to the caller while it is written to disk, and becomes an
+ * entry once the whole body has been read. Fresh entries are served from disk; stale
+ * ones are revalidated with If-None-Match / If-Modified-Since. The least recently used
+ * entries are evicted once the total exceeds the size limit. Index changes are persisted by one background write
+ * shortly after they settle, not on every request. Safe to call from several threads.
+ */
+public class ContentCache {
+
+    public interface Clock {
+        long currentTimeMillis();
+    }
+
+    public static final class Response {
+        public final int status;
+        public final String mimeType;
+        public final String encoding;
+        public final Map<String, String> headers;
+        public final InputStream body;
+        public final boolean fromCache;
+
+        Response(int status, String mimeType, String encoding, Map<String, String> headers,
+                 InputStream body, boolean fromCache) {
+            this.status = status;
+            this.mimeType = mimeType;
+            this.encoding = encoding;
+            this.headers = headers;
+            this.body = body;
+            this.fromCache = fromCache;
+        }
+    }
+
+    private static final class Entry {
+        final String url;
+        final String fileName;
+        long size;
+        String mimeType;
+        String encoding;
+        String etag;
+        String lastModified;
+        long expiresAt;
+        Map<String, String> headers;
+
+        Entry(String url, String fileName) {
+            this.url = url;
+            this.fileName = fileName;
+        }
+    }
+
+    private static final String INDEX_FILE = "index";
+    private static final int INDEX_VERSION = 1;
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 20_000;
+    // Heuristic freshness for responses with only Last-Modified, capped at a day
+    private static final long MAX_HEURISTIC_MILLIS = 24 * 60 * 60 * 1000L;
+    private static final long INDEX_WRITE_DELAY_MS = 2000;
+
+    // Stored responses keep these; everything else is either per-connection or unsafe to replay
+    private static final Set<String> DROPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "content-length", "content-encoding", "transfer-encoding", "connection",
+            "keep-alive", "set-cookie", "set-cookie2", "date", "age"));
+
+    private final File dir;
+    private final long maxBytes;
+    private final Clock clock;
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes = 0;
+    private int tempCounter = 0;
+    private boolean indexWriteScheduled = false;
+    private final Object indexFileLock = new Object();
+    private final ScheduledExecutorService indexWriter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "ContentCacheIndex");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int hits = 0;
+    private int misses = 0;
+    private int revalidated = 0;
+
+    public ContentCache(File dir, long maxBytes) {
+        this(dir, maxBytes, System::currentTimeMillis);
+    }
+
+    public ContentCache(File dir, long maxBytes, Clock clock) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        this.clock = clock;
+        if (!dir.isDirectory()) {
+            dir.mkdirs();
+        }
+        loadIndex();
+    }
+
+    // requestHeaders are forwarded to the origin; the caller must close the response body
+    public Response fetch(String url, Map<String, String> requestHeaders) throws IOException {
+        Entry cached;
+        synchronized (this) {
+            cached = index.get(url);
+        }
+
+        long now = clock.currentTimeMillis();
+        if (cached != null && now < cached.expiresAt) {
+            InputStream body = openEntry(cached);
+            if (body != null) {
+                synchronized (this) {
+                    hits++;
+                }
+                return fromEntry(cached, body);
+            }
+            cached = null;
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        boolean keepOpen = false;
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            if (requestHeaders != null) {
+                for (Map.Entry<String, String> header : requestHeaders.entrySet()) {
+                    connection.setRequestProperty(header.getKey(), header.getValue());
+                }
+            }
+            if (cached != null) {
+                if (cached.etag != null) {
+                    connection.setRequestProperty("If-None-Match", cached.etag);
+                }
+                if (cached.lastModified != null) {
+                    connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+                }
+            }
+
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                InputStream body = openEntry(cached);
+                if (body != null) {
+                    synchronized (this) {
+                        cached.expiresAt = freshUntil(connection, now);
+                        revalidated++;
+                        scheduleIndexWrite();
+                    }
+                    return fromEntry(cached, body);
+                }
+            }
+
+            synchronized (this) {
+                misses++;
+            }
+            Map<String, String> headers = collectHeaders(connection);
+            String contentType = connection.getContentType();
+            String mimeType = mimeTypeOf(contentType);
+            String encoding = charsetOf(contentType);
+
+            // Responses larger than a quarter of the cache would just flush everything else
+            if (status == HttpURLConnection.HTTP_OK && isStorable(connection, now)
+                    && connection.getContentLength() <= maxBytes / 4) {
+                Response stored = storeAndOpen(url, connection, headers, mimeType, encoding, now);
+                keepOpen = true;
+                return stored;
+            }
+
+            // Not cacheable: stream it through, closing the connection with the body
+            InputStream stream = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (stream == null) {
+                stream = new ByteArrayInputStream(new byte[0]);
+            }
+            keepOpen = true;
+            final HttpURLConnection open = connection;
+            return new Response(status, mimeType, encoding, headers, new FilterInputStream(stream) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        open.disconnect();
+                    }
+                }
+            }, false);
+        } finally {
+            if (!keepOpen) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    public synchronized int getHits() {
+        return hits;
+    }
+
+    public synchronized int getMisses() {
+        return misses;
+    }
+
+    public synchronized int getRevalidated() {
+        return revalidated;
+    }
+
+    public synchronized long getSizeBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return index.size();
+    }
+
+    public synchronized boolean contains(String url) {
+        return index.containsKey(url);
+    }
+
+    public synchronized void clear() {
+        for (Entry entry : index.values()) {
+            new File(dir, entry.fileName).delete();
+        }
+        index.clear();
+        totalBytes = 0;
+        scheduleIndexWrite();
+    }
+
+    // Streams the body to the caller while copying it to a temp file; the entry is only
+    // committed once the caller has read to the end, so the page never waits on the disk
+    private Response storeAndOpen(String url, HttpURLConnection connection, Map<String, String> headers,
+                                  String mimeType, String encoding, long now) throws IOException {
+        final File temp;
+        synchronized (this) {
+            temp = new File(dir, "tmp-" + (tempCounter++));
+        }
+        Entry entry = new Entry(url, fileNameFor(url));
+        entry.mimeType = mimeType;
+        entry.encoding = encoding;
+        entry.etag = connection.getHeaderField("ETag");
+        entry.lastModified = connection.getHeaderField("Last-Modified");
+        entry.expiresAt = freshUntil(connection, now);
+        entry.headers = headers;
+
+        InputStream in = connection.getInputStream();
+        OutputStream copy;
+        try {
+            copy = new BufferedOutputStream(new FileOutputStream(temp));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new Response(HttpURLConnection.HTTP_OK, mimeType, encoding, headers,
+                new CachingStream(in, copy, temp, entry, connection), false);
+    }
+
+    // Moves a completely written temp file into place as the entry's file
+    private synchronized void commit(Entry entry, File temp) {
+        Entry previous = index.remove(entry.url);
+        if (previous != null) {
+            totalBytes -= previous.size;
+        }
+        File target = new File(dir, entry.fileName);
+        target.delete();
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            scheduleIndexWrite();
+            return;
+        }
+        index.put(entry.url, entry);
+        totalBytes += entry.size;
+        trimToSize();
+        scheduleIndexWrite();
+    }
+
+    // Response body for a miss. Bodies that end early, fail, or outgrow a quarter of the
+    // cache are still passed through in full but leave no entry behind.
+    private final class CachingStream extends FilterInputStream {
+        private final File temp;
+        private final Entry entry;
+        private final HttpURLConnection connection;
+        private OutputStream copy;
+        private long size = 0;
+
+        CachingStream(InputStream in, OutputStream copy, File temp, Entry entry, HttpURLConnection connection) {
+            super(in);
+            this.copy = copy;
+            this.temp = temp;
+            this.entry = entry;
+            this.connection = connection;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n > 0 ? one[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n;
+            try {
+                n = in.read(b, off, len);
+            } catch (IOException e) {
+                abandon();
+                throw e;
+            }
+            if (n > 0) {
+                record(b, off, n);
+            } else if (n < 0) {
+                finish();
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes never reach the copy
+            abandon();
+            return in.skip(n);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                in.close();
+            } finally {
+                abandon();
+                connection.disconnect();
+            }
+        }
+
+        private void record(byte[] b, int off, int n) {
+            if (copy == null) {
+                return;
+            }
+            size += n;
+            if (size > maxBytes / 4) {
+                // Undeclared length turned out too big: keep serving, stop caching
+                abandon();
+                return;
+            }
+            try {
+                copy.write(b, off, n);
+            } catch (IOException e) {
+                // A full or failing disk shouldn't break the page
+                abandon();
+            }
+        }
+
+        private void finish() {
+            if (copy == null) {
+                return;
+            }
+            try {
+                copy.close();
+            } catch (IOException e) {
+                abandon();
+                return;
+            }
+            copy = null;
+            entry.size = size;
+            commit(entry, temp);
+        }
+
+        private void abandon() {
+            if (copy == null) {
+                return;
+            }
+            try {
+                copy.close();
+            } catch (IOException e) {
+                // Deleted below either way
+            }
+            copy = null;
+            temp.delete();
+        }
+    }
+
+    private synchronized void trimToSize() {
+        Iterator<Entry> it = index.values().iterator();
+        while (totalBytes > maxBytes && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            totalBytes -= eldest.size;
+            new File(dir, eldest.fileName).delete();
+        }
+    }
+
+    private InputStream openEntry(Entry entry) {
+        try {
+            return new BufferedInputStream(new FileInputStream(new File(dir, entry.fileName)));
+        } catch (IOException e) {
+            // File went missing underneath us; drop the entry
+            synchronized (this) {
+                if (index.remove(entry.url) != null) {
+                    totalBytes -= entry.size;
+                    scheduleIndexWrite();
+                }
+            }
+            return null;
+        }
+    }
+
+    private static Response fromEntry(Entry entry, InputStream body) {
+        return new Response(200, entry.mimeType, entry.encoding, entry.headers, body, true);
+    }
+
+    // Storable if it isn't no-store or private, sets no cookies, and will either be fresh
+    // for a while or can be revalidated
+    private boolean isStorable(HttpURLConnection connection, long now) {
+        String cacheControl = connection.getHeaderField("Cache-Control");
+        if (cacheControl != null) {
+            String lower = cacheControl.toLowerCase(Locale.US);
+            if (lower.contains("no-store") || lower.contains("private")) {
+                return false;
+            }
+        }
+        if (connection.getHeaderField("Set-Cookie") != null || connection.getHeaderField("Set-Cookie2") != null) {
+            return false;
+        }
+        // Entries are keyed by URL alone, so a response that varies on request headers
+        // (Origin, Accept, ...) could be replayed to the wrong requester
+        if (!isUrlKeyed(connection.getHeaderField("Vary"))) {
+            return false;
+        }
+        return freshUntil(connection, now) > now
+                || connection.getHeaderField("ETag") != null
+                || connection.getHeaderField("Last-Modified") != null;
+    }
+
+    // True if a response with this Vary header is the same for every requester we forward
+    static boolean isUrlKeyed(String vary) {
+        if (vary == null) {
+            return true;
+        }
+        for (String field : vary.split(",")) {
+            String name = field.trim();
+            // The body is stored decoded, so Accept-Encoding doesn't matter
+            if (!name.isEmpty() && !name.equalsIgnoreCase("Accept-Encoding")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long freshUntil(HttpURLConnection connection, long now) {
+        String cacheControl = connection.getHeaderField("Cache-Control");
+        if (cacheControl != null) {
+            String lower = cacheControl.toLowerCase(Locale.US);
+            if (lower.contains("no-cache")) {
+                return now;
+            }
+            long maxAge = directiveSeconds(lower, "max-age");
+            if (maxAge >= 0) {
+                return now + maxAge * 1000;
+            }
+        }
+        long expires = connection.getHeaderFieldDate("Expires", -1);
+        if (expires > 0) {
+            return expires;
+        }
+        long lastModified = connection.getHeaderFieldDate("Last-Modified", -1);
+        if (lastModified > 0 && lastModified < now) {
+            return now + Math.min((now - lastModified) / 10, MAX_HEURISTIC_MILLIS);
+        }
+        return now;
+    }
+
+    private static long directiveSeconds(String cacheControl, String name) {
+        int at = cacheControl.indexOf(name + "=");
+        if (at < 0) {
+            return -1;
+        }
+        int start = at + name.length() + 1;
+        int end = start;
+        while (end < cacheControl.length() && Character.isDigit(cacheControl.charAt(end))) {
+            end++;
+        }
+        try {
+            return end > start ? Long.parseLong(cacheControl.substring(start, end)) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Map<String, String> collectHeaders(HttpURLConnection connection) {
+        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> field : connection.getHeaderFields().entrySet()) {
+            String name = field.getKey();
+            if (name == null || field.getValue().isEmpty()
+                    || DROPPED_HEADERS.contains(name.toLowerCase(Locale.US))) {
+                continue;
+            }
+            headers.put(name, field.getValue().get(field.getValue().size() - 1));
+        }
+        return Collections.unmodifiableMap(headers);
+    }
+
+    static String mimeTypeOf(String contentType) {
+        if (contentType == null) {
+            return "application/octet-stream";
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon >= 0 ? contentType.substring(0, semicolon) : contentType).trim();
+    }
+
+    static String charsetOf(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int at = contentType.toLowerCase(Locale.US).indexOf("charset=");
+        if (at < 0) {
+            return null;
+        }
+        String charset = contentType.substring(at + 8).trim();
+        int semicolon = charset.indexOf(';');
+        if (semicolon >= 0) {
+            charset = charset.substring(0, semicolon);
+        }
+        return charset.replace("\"", "").trim();
+    }
+
+    static String fileNameFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+            StringBuilder name = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            return Integer.toHexString(url.hashCode());
+        }
+    }
+
+    // Persists the index once changes have settled for INDEX_WRITE_DELAY_MS
+    private synchronized void scheduleIndexWrite() {
+        if (!indexWriteScheduled) {
+            indexWriteScheduled = true;
+            indexWriter.schedule(this::flush, INDEX_WRITE_DELAY_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Writes the index now; only the serialisation holds the cache lock
+    public void flush() {
+        byte[] data;
+        synchronized (this) {
+            indexWriteScheduled = false;
+            try {
+                data = serializeIndex();
+            } catch (IOException e) {
+                return;
+            }
+        }
+        synchronized (indexFileLock) {
+            File temp = new File(dir, INDEX_FILE + ".tmp");
+            try (OutputStream out = new FileOutputStream(temp)) {
+                out.write(data);
+            } catch (IOException e) {
+                temp.delete();
+                return;
+            }
+            temp.renameTo(new File(dir, INDEX_FILE));
+        }
+    }
+
+    // Index: version, count, then per entry url, file, size, mime, encoding, etag,
+    // lastModified, expiresAt and headers, least recently used first
+    private byte[] serializeIndex() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(INDEX_VERSION);
+        out.writeInt(index.size());
+        for (Entry entry : index.values()) {
+            out.writeUTF(entry.url);
+            out.writeUTF(entry.fileName);
+            out.writeLong(entry.size);
+            writeNullable(out, entry.mimeType);
+            writeNullable(out, entry.encoding);
+            writeNullable(out, entry.etag);
+            writeNullable(out, entry.lastModified);
+            out.writeLong(entry.expiresAt);
+            out.writeInt(entry.headers.size());
+            for (Map.Entry<String, String> header : entry.headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeUTF(header.getValue());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private synchronized void loadIndex() {
+        File file = new File(dir, INDEX_FILE);
+        if (file.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() == INDEX_VERSION) {
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        Entry entry = new Entry(in.readUTF(), in.readUTF());
+                        entry.size = in.readLong();
+                        entry.mimeType = readNullable(in);
+                        entry.encoding = readNullable(in);
+                        entry.etag = readNullable(in);
+                        entry.lastModified = readNullable(in);
+                        entry.expiresAt = in.readLong();
+                        int headerCount = in.readInt();
+                        Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+                        for (int h = 0; h < headerCount; h++) {
+                            headers.put(in.readUTF(), in.readUTF());
+                        }
+                        entry.headers = Collections.unmodifiableMap(headers);
+                        if (new File(dir, entry.fileName).length() == entry.size) {
+                            index.put(entry.url, entry);
+                            totalBytes += entry.size;
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Corrupt index: start empty, orphans are removed below
+                index.clear();
+                totalBytes = 0;
+            }
+        }
+
+        // Anything not in the index is a leftover temp file or an entry we lost track of
+        Set<String> known = new HashSet<>();
+        for (Entry entry : index.values()) {
+            known.add(entry.fileName);
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                if (!known.contains(f.getName()) && !f.getName().equals(INDEX_FILE)) {
+                    f.delete();
+                }
+            }
+        }
+        trimToSize();
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,258 @@
+// DESTINATION PREFETCHER - Warms a VR destination before the user enters it
+package com.example.vrwebviewer;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.ConnectivityManager;
+import android.net.NetworkInfo;
+import android.os.BatteryManager;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Resolves DNS, opens a connection, reads the destination's HTML to find its critical
+ * sub-resources and pulls those into WebContentCache on a background thread, so
+ * VrActivity's first frame is served mostly from disk. The HTML itself is not kept:
+ * WebView always loads the main frame over its own network stack. One prefetch runs at a time; starting another or
+ * calling cancel() stops the current one between requests. A destination counts as
+ * warmed for WARM_TTL_MS, and only while its resources are still in the cache.
+ */
+public final class DestinationPrefetcher {
+    
+    private static final String TAG = "DestinationPrefetcher";
+    private static final int MAX_HTML_BYTES = 512 * 1024;
+    // Blocking socket I/O ignores cancel(true), so a stalled server must time out instead
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 20_000;
+    private static final long WARM_TTL_MS = 5 * 60 * 1000L;
+    private static DestinationPrefetcher instance;
+    
+    private final Context appContext;
+    private final VRSettings vrSettings;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Map<String, Warmed> warmed = new HashMap<>();
+    private Future<?> pending;
+    private String pendingUrl;
+    
+    private static final class Page {
+        // After redirects; relative sub-resource URLs resolve against this
+        final URL url;
+        final String html;
+        
+        Page(URL url, String html) {
+            this.url = url;
+            this.html = html;
+        }
+    }
+    
+    private static final class Warmed {
+        final long completedAt;
+        final List<String> resources;
+        
+        Warmed(long completedAt, List<String> resources) {
+            this.completedAt = completedAt;
+            this.resources = resources;
+        }
+    }
+    
+    public static synchronized DestinationPrefetcher getInstance(Context context) {
+        if (instance == null) {
+            instance = new DestinationPrefetcher(context.getApplicationContext());
+        }
+        return instance;
+    }
+    
+    private DestinationPrefetcher(Context appContext) {
+        this.appContext = appContext;
+        this.vrSettings = new VRSettings(appContext);
+    }
+    
+    public synchronized void prefetch(String url) {
+        if (url == null || isWarmed(url) || (url.equals(pendingUrl) && pending != null && !pending.isDone())) {
+            return;
+        }
+        cancel();
+        
+        int level = currentLevel(appContext);
+        if (level == PrefetchPlanner.LEVEL_NONE) {
+            return;
+        }
+        pendingUrl = url;
+        pending = executor.submit(() -> run(url, level));
+    }
+    
+    public synchronized void cancel() {
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        pendingUrl = null;
+    }
+    
+    // Expired or evicted warm-ups are forgotten so the next prefetch redoes them
+    public synchronized boolean isWarmed(String url) {
+        Warmed entry = warmed.get(url);
+        if (entry == null) {
+            return false;
+        }
+        boolean valid = SystemClock.elapsedRealtime() - entry.completedAt < WARM_TTL_MS;
+        ContentCache cache = WebContentCache.getInstance(appContext).getCache();
+        for (int i = 0; valid && i < entry.resources.size(); i++) {
+            valid = cache.contains(entry.resources.get(i));
+        }
+        if (!valid) {
+            warmed.remove(url);
+        }
+        return valid;
+    }
+    
+    // Called by VrActivity once its first frame is on screen
+    public void recordFirstFrame(String url, long millis) {
+        boolean prefetched = isWarmed(url);
+        FirstFrameStats stats = FirstFrameStats.decode(vrSettings.getFirstFrameStats());
+        stats.record(prefetched, millis);
+        vrSettings.setFirstFrameStats(stats.encode());
+        Log.i(TAG, "First VR frame in " + millis + "ms (" + (prefetched ? "prefetched" : "cold")
+                + "), saved ~" + stats.getSavedMillis() + "ms on average");
+    }
+    
+    public FirstFrameStats getStats() {
+        return FirstFrameStats.decode(vrSettings.getFirstFrameStats());
+    }
+    
+    private void run(String url, int level) {
+        long start = SystemClock.elapsedRealtime();
+        try {
+            URL page = new URL(url);
+            InetAddress.getAllByName(page.getHost());
+            
+            Map<String, String> headers = new HashMap<>();
+            headers.put("User-Agent", VrActivity.VR_USER_AGENT);
+            
+            if (level < PrefetchPlanner.LEVEL_FULL) {
+                // A HEAD leaves a keep-alive connection for the cache's first requests
+                HttpURLConnection connection = (HttpURLConnection) page.openConnection();
+                connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+                connection.setReadTimeout(READ_TIMEOUT_MS);
+                connection.setRequestMethod("HEAD");
+                connection.setRequestProperty("User-Agent", VrActivity.VR_USER_AGENT);
+                connection.getResponseCode();
+                connection.getInputStream().close();
+                return;
+            }
+            
+            Page fetched = fetchHtml(page);
+            String base = fetched.url.toString();
+            List<String> resources = PrefetchPlanner.criticalResources(fetched.html, base,
+                    PrefetchPlanner.MAX_SUBRESOURCES);
+            
+            Set<String> hosts = new HashSet<>();
+            hosts.add(page.getHost());
+            for (String resource : resources) {
+                String host = new URL(resource).getHost();
+                if (hosts.add(host)) {
+                    InetAddress.getAllByName(host);
+                }
+            }
+            
+            headers.put("Referer", base);
+            ContentCache cache = WebContentCache.getInstance(appContext).getCache();
+            List<String> stored = new ArrayList<>();
+            for (String resource : resources) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                if (!WebContentCache.isCacheablePath(new URL(resource).getPath())) {
+                    continue;
+                }
+                drain(cache.fetch(resource, headers).body);
+                if (cache.contains(resource)) {
+                    stored.add(resource);
+                }
+            }
+            
+            synchronized (this) {
+                warmed.put(url, new Warmed(SystemClock.elapsedRealtime(), stored));
+            }
+            Log.i(TAG, "Warmed " + url + ": " + stored.size() + " resources in "
+                    + (SystemClock.elapsedRealtime() - start) + "ms");
+        } catch (IOException e) {
+            Log.e(TAG, "Prefetch failed for " + url + ": " + e.getMessage());
+        }
+    }
+    
+    // Fetched only to discover sub-resources; WebView loads the page itself
+    private static Page fetchHtml(URL page) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) page.openConnection();
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestProperty("User-Agent", VrActivity.VR_USER_AGENT);
+            connection.setRequestProperty("Accept", "text/html");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[8 * 1024];
+                int n;
+                while ((n = in.read(buffer)) > 0 && out.size() < MAX_HTML_BYTES) {
+                    out.write(buffer, 0, n);
+                }
+            }
+            return new Page(connection.getURL(), out.toString("UTF-8"));
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    private static void drain(InputStream body) throws IOException {
+        try (InputStream in = body) {
+            byte[] buffer = new byte[16 * 1024];
+            while (in.read(buffer) > 0) {
+                // Reading is what fills the cache
+            }
+        }
+    }
+    
+    // How much background network work current connectivity and battery allow
+    static int currentLevel(Context appContext) {
+        ConnectivityManager connectivity =
+                (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        NetworkInfo network = connectivity != null ? connectivity.getActiveNetworkInfo() : null;
+        boolean connected = network != null && network.isConnected();
+        boolean metered = connectivity != null && connectivity.isActiveNetworkMetered();
+        
+        int batteryPercent = -1;
+        boolean charging = false;
+        Intent battery = appContext.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (battery != null) {
+            int level = battery.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+            int scale = battery.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+            if (level >= 0 && scale > 0) {
+                batteryPercent = level * 100 / scale;
+            }
+            int status = battery.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
+            charging = status == BatteryManager.BATTERY_STATUS_CHARGING || status == BatteryManager.BATTERY_STATUS_FULL;
+        }
+        
+        PowerManager power = (PowerManager) appContext.getSystemService(Context.POWER_SERVICE);
+        boolean powerSave = power != null && power.isPowerSaveMode();
+        
+        return PrefetchPlanner.allowedLevel(connected, metered, batteryPercent, charging, powerSave);
+    }
+}
@@ -0,0 +1,41 @@
+// DOWNSAMPLE PLAN - Decode and output sizes for VR image down-sampling
+package com.example.vrwebviewer;
+
+/**
+ * Pure size arithmetic for ImageDownsampler. The target is a longest edge in pixels,
+ * derived from the eye size; images already close to it are left alone.
+ */
+public final class DownsamplePlan {
+    
+    // Below this overshoot a re-encode costs more than it saves
+    public static final float MIN_OVERSHOOT = 1.25f;
+    
+    private DownsamplePlan() {
+    }
+    
+    public static boolean needsDownsample(int width, int height, int maxEdge) {
+        return width > 0 && height > 0 && Math.max(width, height) > maxEdge * MIN_OVERSHOOT;
+    }
+    
+    // Largest power of two that still decodes at or above maxEdge
+    public static int sampleSize(int width, int height, int maxEdge) {
+        int longest = Math.max(width, height);
+        int sample = 1;
+        while (longest / (sample * 2) >= maxEdge) {
+            sample *= 2;
+        }
+        return sample;
+    }
+    
+    // Final size keeping aspect ratio, longest edge exactly maxEdge
+    public static int[] targetSize(int width, int height, int maxEdge) {
+        if (Math.max(width, height) <= maxEdge) {
+            return new int[]{width, height};
+        }
+        float scale = (float) maxEdge / Math.max(width, height);
+        return new int[]{
+            Math.max(1, Math.round(width * scale)),
+            Math.max(1, Math.round(height * scale))
+        };
+    }
+}
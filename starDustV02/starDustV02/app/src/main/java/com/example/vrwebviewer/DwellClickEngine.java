@@ -0,0 +1,136 @@
+// DWELL CLICK ENGINE - Gaze-and-hold click state machine driven once per frame
+package com.example.vrwebviewer;
+
+/**
+ * Pure-Java dwell clicking. Feed it the crosshair position every frame; it only calls
+ * the listener when the state changes (dwell started, cancelled, clicked), so callers
+ * don't need their own timers. Time comes from an injectable clock for unit tests.
+ * Not thread-safe - update from a single (UI) thread.
+ */
+public class DwellClickEngine {
+    
+    public interface Clock {
+        long uptimeMillis();
+    }
+    
+    public interface Listener {
+        void onDwellStarted(float x, float y);
+        void onDwellCancelled();
+        void onDwellClick(float x, float y, int targetId);
+    }
+    
+    public static final int NO_TARGET = -1;
+    
+    public static final int STATE_IDLE = 0;
+    public static final int STATE_DWELLING = 1;
+    public static final int STATE_COOLDOWN = 2;
+    
+    // Pointer must hold still this long before a dwell is announced
+    private static final long SETTLE_MILLIS = 100;
+    
+    private final Clock clock;
+    private Listener listener;
+    
+    private float stabilityRadius = 0.012f;
+    private long dwellMillis = 3000;
+    private long cooldownMillis = 500;
+    
+    private int state = STATE_IDLE;
+    private float anchorX, anchorY;
+    private int anchorTarget = NO_TARGET;
+    private long anchorTime = -1;
+    private long cooldownUntil = 0;
+    private float progress = 0f;
+    
+    public DwellClickEngine(Clock clock) {
+        this.clock = clock;
+    }
+    
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+    
+    // Radius is in the same units as the positions passed to update()
+    public void setStabilityRadius(float radius) {
+        this.stabilityRadius = radius;
+    }
+    
+    public void setDwellMillis(long millis) {
+        this.dwellMillis = Math.max(1, millis);
+    }
+    
+    public void setCooldownMillis(long millis) {
+        this.cooldownMillis = Math.max(0, millis);
+    }
+    
+    public void update(float x, float y, int targetId) {
+        long now = clock.uptimeMillis();
+        
+        if (state == STATE_COOLDOWN) {
+            if (now < cooldownUntil) return;
+            state = STATE_IDLE;
+            setAnchor(x, y, targetId, now);
+            return;
+        }
+        
+        boolean moved = anchorTime < 0 || targetId != anchorTarget || distanceToAnchor(x, y) > stabilityRadius;
+        if (moved) {
+            if (state == STATE_DWELLING) {
+                state = STATE_IDLE;
+                progress = 0f;
+                if (listener != null) listener.onDwellCancelled();
+            }
+            setAnchor(x, y, targetId, now);
+            return;
+        }
+        
+        long held = now - anchorTime;
+        if (state == STATE_IDLE) {
+            if (held < SETTLE_MILLIS) return;
+            state = STATE_DWELLING;
+            if (listener != null) listener.onDwellStarted(anchorX, anchorY);
+        }
+        
+        progress = Math.min(1f, held / (float) dwellMillis);
+        if (progress >= 1f) {
+            state = STATE_COOLDOWN;
+            progress = 0f;
+            cooldownUntil = now + cooldownMillis;
+            if (listener != null) listener.onDwellClick(anchorX, anchorY, anchorTarget);
+        }
+    }
+    
+    // Drops any dwell in progress without a callback, e.g. when tracking is paused
+    public void reset() {
+        state = STATE_IDLE;
+        progress = 0f;
+        anchorTime = -1;
+        anchorTarget = NO_TARGET;
+    }
+    
+    public int getState() {
+        return state;
+    }
+    
+    public boolean isDwelling() {
+        return state == STATE_DWELLING;
+    }
+    
+    // 0..1 while dwelling, 0 otherwise
+    public float getProgress() {
+        return state == STATE_DWELLING ? progress : 0f;
+    }
+    
+    private void setAnchor(float x, float y, int targetId, long now) {
+        anchorX = x;
+        anchorY = y;
+        anchorTarget = targetId;
+        anchorTime = now;
+    }
+    
+    private float distanceToAnchor(float x, float y) {
+        float dx = x - anchorX;
+        float dy = y - anchorY;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+}
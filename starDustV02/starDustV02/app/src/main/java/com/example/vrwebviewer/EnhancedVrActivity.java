@@ -17,6 +17,12 @@ public class EnhancedVrActivity extends Activity implements VRManager.VRListener
     private VRManager vrManager;
     private VRSettings vrSettings;
     private String destination;
+    private final float[] headAngles = new float[3];
+    
+    // Page poses: capped at 60 Hz and skipped while the head moves less than 0.05 degrees
+    private final PoseThrottle poseThrottle = new PoseThrottle(60f, 0.05f);
+    private final StringBuilder poseMessage = new StringBuilder(32);
+    private PoseChannel leftPoseChannel, rightPoseChannel;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -47,11 +53,20 @@ public class EnhancedVrActivity extends Activity implements VRManager.VRListener
     
     private void setupWebViews() {
         // Create stereo WebViews for left and right eyes
-        leftWebView = new WebView(this);
-        rightWebView = new WebView(this);
+        leftWebView = WebViewPool.getInstance(this).acquire(this);
+        leftPoseChannel = new PoseChannel(leftWebView);
+        configureWebView(leftWebView, leftPoseChannel);
         
-        configureWebView(leftWebView);
-        configureWebView(rightWebView);
+        View rightEyeView;
+        if (vrSettings.getMirroredStereo()) {
+            // Right eye mirrors the left WebView, so the page loads, scrolls and runs once
+            rightEyeView = new MirrorView(this, leftWebView);
+        } else {
+            rightWebView = WebViewPool.getInstance(this).acquire(this);
+            rightPoseChannel = new PoseChannel(rightWebView);
+            configureWebView(rightWebView, rightPoseChannel);
+            rightEyeView = rightWebView;
+        }
         
         // Add WebViews to container in side-by-side layout
         FrameLayout.LayoutParams leftParams = new FrameLayout.LayoutParams(
@@ -63,12 +78,12 @@ public class EnhancedVrActivity extends Activity implements VRManager.VRListener
         rightParams.leftMargin = getResources().getDisplayMetrics().widthPixels / 2;
         
         vrContainer.addView(leftWebView, leftParams);
-        vrContainer.addView(rightWebView, rightParams);
+        vrContainer.addView(rightEyeView, rightParams);
         
         loadDestination();
     }
     
-    private void configureWebView(WebView webView) {
+    private void configureWebView(WebView webView, PoseChannel poseChannel) {
         webView.getSettings().setJavaScriptEnabled(true);
         webView.getSettings().setDomStorageEnabled(true);
         webView.getSettings().setLoadWithOverviewMode(true);
@@ -80,7 +95,8 @@ public class EnhancedVrActivity extends Activity implements VRManager.VRListener
             @Override
             public void onPageFinished(WebView view, String url) {
                 super.onPageFinished(view, url);
-                injectVRControls(view);
+                // The first pose after the channel is up always goes out, even from a still head
+                poseChannel.connect(poseThrottle::reset);
             }
         });
     }
@@ -88,7 +104,9 @@ public class EnhancedVrActivity extends Activity implements VRManager.VRListener
     private void loadDestination() {
         String url = getDestinationUrl(destination);
         leftWebView.loadUrl(url);
-        rightWebView.loadUrl(url);
+        if (rightWebView != null) {
+            rightWebView.loadUrl(url);
+        }
     }
     
     private String getDestinationUrl(String dest) {
@@ -101,61 +119,25 @@ public class EnhancedVrActivity extends Activity implements VRManager.VRListener
         }
     }
     
-    private void injectVRControls(WebView webView) {
-        String vrScript = 
-            "javascript:(function(){" +
-            "var style = document.createElement('style');" +
-            "style.innerHTML = 'body{transform-origin:center;transition:transform 0.1s;}';" +
-            "document.head.appendChild(style);" +
-            "window.vrRotation = {x:0,y:0,z:0};" +
-            "window.updateVRView = function(x,y,z){" +
-            "document.body.style.transform = 'rotateX('+x+'deg) rotateY('+y+'deg) rotateZ('+z+'deg)';" +
-            "};" +
-            "})()";
-        
-        webView.evaluateJavascript(vrScript, null);
-    }
-    
-    @Override
-    public void onHeadRotationChanged(float[] headMatrix) {
-        // Extract rotation angles from matrix
-        float[] angles = extractRotationAngles(headMatrix);
-        
-        runOnUiThread(() -> {
-            updateWebViewRotation(leftWebView, angles);
-            updateWebViewRotation(rightWebView, angles);
-        });
-    }
-    
     @Override
-    public void onEyeMatrixChanged(float[] leftEye, float[] rightEye) {
-        // Apply stereo offset for each eye
-        float[] leftAngles = extractRotationAngles(leftEye);
-        float[] rightAngles = extractRotationAngles(rightEye);
-        
-        runOnUiThread(() -> {
-            updateWebViewRotation(leftWebView, leftAngles);
-            updateWebViewRotation(rightWebView, rightAngles);
-        });
+    public void onPoseUpdated(VRPose pose) {
+        // Already on the main thread, once per frame; both eyes share the head rotation
+        extractRotationAngles(pose.headMatrix, headAngles);
+        if (!poseThrottle.accept(pose.frameTimeNanos, headAngles)) {
+            return;
+        }
+        String message = PoseChannel.encode(headAngles, poseMessage);
+        leftPoseChannel.send(message);
+        if (rightPoseChannel != null) {
+            rightPoseChannel.send(message);
+        }
     }
     
-    private float[] extractRotationAngles(float[] matrix) {
-        float[] angles = new float[3];
-        
+    private void extractRotationAngles(float[] matrix, float[] angles) {
         // Extract Euler angles from rotation matrix
         angles[0] = (float) Math.toDegrees(Math.atan2(matrix[6], matrix[10])); // X (pitch)
         angles[1] = (float) Math.toDegrees(Math.asin(-matrix[2])); // Y (yaw)
         angles[2] = (float) Math.toDegrees(Math.atan2(matrix[1], matrix[0])); // Z (roll)
-        
-        return angles;
-    }
-    
-    private void updateWebViewRotation(WebView webView, float[] angles) {
-        String script = String.format(
-            "javascript:if(window.updateVRView) window.updateVRView(%f,%f,%f);",
-            angles[0], angles[1], angles[2]
-        );
-        webView.evaluateJavascript(script, null);
     }
     
     @Override
@@ -173,6 +155,14 @@ public class EnhancedVrActivity extends Activity implements VRManager.VRListener
     @Override
     protected void onDestroy() {
         vrManager.stopTracking();
+        leftPoseChannel.close();
+        if (rightPoseChannel != null) {
+            rightPoseChannel.close();
+        }
+        WebViewPool.getInstance(this).release(leftWebView);
+        if (rightWebView != null) {
+            WebViewPool.getInstance(this).release(rightWebView);
+        }
         super.onDestroy();
     }
     
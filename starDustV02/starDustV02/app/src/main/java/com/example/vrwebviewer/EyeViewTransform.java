@@ -0,0 +1,55 @@
+// EYE VIEW TRANSFORM - Pan/zoom mapping between captured page and eye views
+package com.example.vrwebviewer;
+
+/**
+ * The transform renderEye() applies to the captured page: translate by the pan offset,
+ * scale by zoom, then centre in the eye. Rendering and input share it, so a point
+ * under the crosshair maps back to the page pixel that was actually drawn there.
+ */
+public class EyeViewTransform {
+    
+    private float offsetX, offsetY;
+    private float scale = 1f;
+    private float centerX, centerY;
+    
+    public void set(float eyeWidth, float eyeHeight, float contentWidth, float contentHeight,
+                    float offsetX, float offsetY, float scale) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.scale = scale;
+        this.centerX = (eyeWidth - contentWidth * scale) / 2f;
+        this.centerY = (eyeHeight - contentHeight * scale) / 2f;
+    }
+    
+    // Page pixel -> eye pixel
+    public void toEye(float contentX, float contentY, float[] out) {
+        out[0] = (contentX - offsetX) * scale + centerX;
+        out[1] = (contentY - offsetY) * scale + centerY;
+    }
+    
+    // Eye pixel -> page pixel
+    public void toContent(float eyeX, float eyeY, float[] out) {
+        out[0] = (eyeX - centerX) / scale + offsetX;
+        out[1] = (eyeY - centerY) / scale + offsetY;
+    }
+    
+    public float getOffsetX() {
+        return offsetX;
+    }
+    
+    public float getOffsetY() {
+        return offsetY;
+    }
+    
+    public float getScale() {
+        return scale;
+    }
+    
+    public float getCenterX() {
+        return centerX;
+    }
+    
+    public float getCenterY() {
+        return centerY;
+    }
+}
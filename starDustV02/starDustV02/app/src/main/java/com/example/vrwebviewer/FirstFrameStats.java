@@ -0,0 +1,69 @@
+// FIRST FRAME STATS - VR time-to-first-frame with and without prefetch
+package com.example.vrwebviewer;
+
+/**
+ * Running totals of how long VR took to show its first frame, split by whether the
+ * destination had been prefetched. The difference of the means is the time saved.
+ */
+public class FirstFrameStats {
+    
+    private long coldCount, coldTotalMillis;
+    private long warmCount, warmTotalMillis;
+    
+    public void record(boolean prefetched, long millis) {
+        if (prefetched) {
+            warmCount++;
+            warmTotalMillis += millis;
+        } else {
+            coldCount++;
+            coldTotalMillis += millis;
+        }
+    }
+    
+    // -1 until there is at least one sample
+    public long getColdMeanMillis() {
+        return coldCount > 0 ? coldTotalMillis / coldCount : -1;
+    }
+    
+    public long getWarmMeanMillis() {
+        return warmCount > 0 ? warmTotalMillis / warmCount : -1;
+    }
+    
+    public long getSavedMillis() {
+        if (coldCount == 0 || warmCount == 0) {
+            return -1;
+        }
+        return getColdMeanMillis() - getWarmMeanMillis();
+    }
+    
+    public long getColdCount() {
+        return coldCount;
+    }
+    
+    public long getWarmCount() {
+        return warmCount;
+    }
+    
+    public String encode() {
+        return coldCount + "," + coldTotalMillis + "," + warmCount + "," + warmTotalMillis;
+    }
+    
+    public static FirstFrameStats decode(String data) {
+        FirstFrameStats stats = new FirstFrameStats();
+        if (data == null) {
+            return stats;
+        }
+        String[] parts = data.split(",");
+        if (parts.length == 4) {
+            try {
+                stats.coldCount = Long.parseLong(parts[0]);
+                stats.coldTotalMillis = Long.parseLong(parts[1]);
+                stats.warmCount = Long.parseLong(parts[2]);
+                stats.warmTotalMillis = Long.parseLong(parts[3]);
+            } catch (NumberFormatException e) {
+                return new FirstFrameStats();
+            }
+        }
+        return stats;
+    }
+}
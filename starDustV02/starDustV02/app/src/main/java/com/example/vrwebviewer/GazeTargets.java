@@ -0,0 +1,187 @@
+// GAZE TARGETS - Clickable element rectangles streamed from the page into a TargetIndex
+package com.example.vrwebviewer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.webkit.WebView;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * window.__stardustTargets sends the document-coordinate boxes of clickable elements
+ * once the page has loaded, then only what changed, rescanning 250 ms after DOM
+ * mutations or element resizes. Scrolling needs no messages since boxes are in
+ * document coordinates; the native side adds the WebView's scroll. Documents without
+ * the WebInputRuntime bridge (no listener support, or a page handed over from
+ * WebsiteActivity) are pulled instead: once a second native asks the page for what
+ * changed since the last pull. Main thread only.
+ */
+public class GazeTargets implements WebInputRuntime.PageMessageListener {
+    
+    private static final String TAG = "GazeTargets";
+    private static final float CELL_SIZE_CSS = 128f;
+    private static final long PULL_INTERVAL_MS = 1000;
+    
+    public static final String COLLECTOR_JS = "(function() {"
+            + "  if (window.__stardustTargets) return;"
+            + "  var bridge = window." + WebInputRuntime.BRIDGE_NAME + ";"
+            + "  var SELECTOR = 'a[href], button, input, select, textarea, summary, label[for],"
+            + " [role=button], [role=link], [onclick]';"
+            + "  var MAX_TARGETS = 3000;"
+            + "  var known = new Map(), nextId = 1, pending = 0, resize = null, mutations = null, pulled = false;"
+            + "  function box(el) {"
+            + "    var r = el.getBoundingClientRect();"
+            + "    if (r.width < 1 || r.height < 1) return null;"
+            + "    return [Math.round(r.left + scrollX), Math.round(r.top + scrollY), Math.round(r.width), Math.round(r.height)];"
+            + "  }"
+            + "  function scan(full) {"
+            + "    pending = 0;"
+            + "    var seen = new Set(), changed = [], removed = [];"
+            + "    var els = document.querySelectorAll(SELECTOR);"
+            + "    for (var i = 0; i < els.length && i < MAX_TARGETS; i++) {"
+            + "      var el = els[i], b = box(el);"
+            + "      if (!b) continue;"
+            + "      var entry = known.get(el);"
+            + "      if (!entry) {"
+            + "        entry = { id: nextId++, b: null };"
+            + "        known.set(el, entry);"
+            + "        if (resize) resize.observe(el);"
+            + "      }"
+            + "      seen.add(el);"
+            + "      var o = entry.b;"
+            + "      if (full || !o || o[0] !== b[0] || o[1] !== b[1] || o[2] !== b[2] || o[3] !== b[3]) {"
+            + "        entry.b = b;"
+            + "        changed.push([entry.id, b[0], b[1], b[2], b[3]]);"
+            + "      }"
+            + "    }"
+            + "    known.forEach(function(entry, el) {"
+            + "      if (!seen.has(el)) { removed.push(entry.id); known.delete(el); if (resize) resize.unobserve(el); }"
+            + "    });"
+            + "    if (!full && !changed.length && !removed.length) return null;"
+            + "    return JSON.stringify({ t: 'targets', full: full, vw: innerWidth, r: changed, rm: removed });"
+            + "  }"
+            + "  function post(full) { var msg = scan(full); if (msg) bridge.postMessage(msg); }"
+            + "  function schedule() { if (!pending) pending = setTimeout(function() { post(false); }, 250); }"
+            + "  function start() {"
+            + "    if (!bridge) return;"
+            + "    if (window.ResizeObserver) resize = new ResizeObserver(schedule);"
+            + "    post(true);"
+            + "    mutations = new MutationObserver(schedule);"
+            + "    mutations.observe(document.documentElement,"
+            + "      { childList: true, subtree: true, attributes: true, attributeFilter: ['class', 'style', 'hidden', 'href'] });"
+            + "    if (resize) resize.observe(document.documentElement);"
+            + "    addEventListener('resize', schedule);"
+            + "  }"
+            + "  function pull() {"
+            + "    if (bridge || document.readyState !== 'complete') return null;"
+            + "    var msg = scan(!pulled);"
+            + "    pulled = true;"
+            + "    return msg;"
+            + "  }"
+            + "  function stop() {"
+            + "    clearTimeout(pending); pending = -1;"
+            + "    if (mutations) mutations.disconnect();"
+            + "    if (resize) resize.disconnect();"
+            + "    removeEventListener('resize', schedule);"
+            + "  }"
+            + "  if (document.readyState === 'complete') start(); else addEventListener('load', start);"
+            + "  window.__stardustTargets = { rescan: function() { if (bridge) post(true); }, pull: pull, stop: stop };"
+            + "})();";
+    
+    private final WebView webView;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final TargetIndex index = new TargetIndex(CELL_SIZE_CSS);
+    private float viewportCssWidth = 0f;
+    // Set once the current document has posted over the bridge; pulling stops then
+    private boolean bridged = false;
+    // Bumped per navigation so a pull answered by the previous document is dropped
+    private int generation = 0;
+    private boolean pulling = true;
+    
+    private final Runnable pull = new Runnable() {
+        @Override
+        public void run() {
+            if (!pulling) {
+                return;
+            }
+            if (!bridged) {
+                final int asked = generation;
+                webView.evaluateJavascript("window.__stardustTargets && __stardustTargets.pull()", value -> {
+                    if (asked != generation || bridged || value == null || !value.startsWith("\"")) {
+                        return;
+                    }
+                    try {
+                        // evaluateJavascript returns the JSON string as a JS string literal
+                        apply(new JSONObject(new JSONArray("[" + value + "]").getString(0)));
+                    } catch (Exception e) {
+                        Log.e(TAG, "Bad pulled targets: " + e.getMessage());
+                    }
+                });
+            }
+            handler.postDelayed(this, PULL_INTERVAL_MS);
+        }
+    };
+    
+    public GazeTargets(WebView webView, WebInputRuntime runtime) {
+        this.webView = webView;
+        runtime.addPageMessageListener(this);
+        handler.postDelayed(pull, PULL_INTERVAL_MS);
+    }
+    
+    // A main-frame navigation started: the old document's boxes no longer apply
+    public void reset() {
+        generation++;
+        bridged = false;
+        index.clear();
+        viewportCssWidth = 0f;
+    }
+    
+    public void stop() {
+        pulling = false;
+        handler.removeCallbacks(pull);
+    }
+    
+    @Override
+    public void onPageMessage(JSONObject msg) {
+        if (!"targets".equals(msg.optString("t"))) {
+            return;
+        }
+        bridged = true;
+        apply(msg);
+    }
+    
+    private void apply(JSONObject msg) {
+        try {
+            if (msg.optBoolean("full")) {
+                index.clear();
+            }
+            viewportCssWidth = (float) msg.optDouble("vw", viewportCssWidth);
+            JSONArray rects = msg.optJSONArray("r");
+            if (rects != null) {
+                for (int i = 0; i < rects.length(); i++) {
+                    JSONArray r = rects.getJSONArray(i);
+                    index.put(r.getInt(0), (float) r.getDouble(1), (float) r.getDouble(2),
+                            (float) r.getDouble(3), (float) r.getDouble(4));
+                }
+            }
+            JSONArray removed = msg.optJSONArray("rm");
+            if (removed != null) {
+                for (int i = 0; i < removed.length(); i++) {
+                    index.remove(removed.getInt(i));
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Bad targets message: " + e.getMessage());
+        }
+    }
+    
+    public TargetIndex getIndex() {
+        return index;
+    }
+    
+    // CSS width of the page viewport, 0 until the first message
+    public float getViewportCssWidth() {
+        return viewportCssWidth;
+    }
+}
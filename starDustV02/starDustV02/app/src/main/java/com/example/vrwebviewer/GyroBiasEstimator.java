@@ -0,0 +1,135 @@
+// GYRO BIAS ESTIMATOR - Streaming zero-rate offset tracking from stationary periods
+package com.example.vrwebviewer;
+
+/**
+ * Splits the gyro stream into short windows and keeps Welford mean/variance for the
+ * gyro axes and the accelerometer magnitude. A window where both are quiet is treated as
+ * stationary and its mean rate nudges the bias estimate. Constant memory; single-threaded
+ * (run it on the sensor thread).
+ */
+public class GyroBiasEstimator {
+    
+    private static final long WINDOW_NANOS = 500_000_000L;
+    private static final int MIN_WINDOW_SAMPLES = 20;
+    
+    // Stationary thresholds: gyro std ~0.02 rad/s, accel magnitude std ~0.08 m/s^2
+    private static final double GYRO_VARIANCE_LIMIT = 0.0004;
+    private static final double ACCEL_VARIANCE_LIMIT = 0.0064;
+    // A slow steady turn has low variance too; real bias is well below this
+    private static final double MAX_STATIONARY_RATE = 0.05;
+    
+    // Weight of a new window: 1/(n+1) until it bottoms out at MIN_GAIN
+    private static final float MIN_GAIN = 0.05f;
+    // Seeded biases count as this many stationary windows
+    private static final int SEED_WINDOWS = 4;
+    
+    private final float[] bias = new float[3];
+    private int stationaryWindows = 0;
+    private boolean stationary = false;
+    
+    // Current window
+    private long windowStart = -1;
+    private int gyroCount = 0;
+    private final double[] gyroMean = new double[3];
+    private final double[] gyroM2 = new double[3];
+    private int accelCount = 0;
+    private double accelMean = 0;
+    private double accelM2 = 0;
+    
+    // Warm start from a persisted or calibrated bias
+    public void setBias(float x, float y, float z) {
+        bias[0] = x;
+        bias[1] = y;
+        bias[2] = z;
+        stationaryWindows = SEED_WINDOWS;
+    }
+    
+    public void getBias(float[] out) {
+        System.arraycopy(bias, 0, out, 0, 3);
+    }
+    
+    public boolean hasEstimate() {
+        return stationaryWindows > 0;
+    }
+    
+    public int getStationaryWindows() {
+        return stationaryWindows;
+    }
+    
+    // Result of the last completed window
+    public boolean isStationary() {
+        return stationary;
+    }
+    
+    // Accelerometer samples may be batched and arrive late, so they count toward the open
+    // window only if their timestamp falls inside it
+    public void onAccelerometer(long timestampNanos, float ax, float ay, float az) {
+        if (windowStart < 0 || timestampNanos < windowStart || timestampNanos - windowStart > WINDOW_NANOS) {
+            return;
+        }
+        double magnitude = Math.sqrt(ax * ax + ay * ay + az * az);
+        accelCount++;
+        double delta = magnitude - accelMean;
+        accelMean += delta / accelCount;
+        accelM2 += delta * (magnitude - accelMean);
+    }
+    
+    // Returns true when this sample closed a stationary window and the bias changed
+    public boolean onGyroscope(long timestampNanos, float gx, float gy, float gz) {
+        if (windowStart < 0) {
+            windowStart = timestampNanos;
+        }
+        
+        gyroCount++;
+        accumulate(0, gx);
+        accumulate(1, gy);
+        accumulate(2, gz);
+        
+        if (timestampNanos - windowStart < WINDOW_NANOS) {
+            return false;
+        }
+        
+        boolean updated = false;
+        stationary = isWindowStationary();
+        if (stationary) {
+            stationaryWindows++;
+            float gain = Math.max(MIN_GAIN, 1f / stationaryWindows);
+            for (int i = 0; i < 3; i++) {
+                bias[i] += gain * ((float) gyroMean[i] - bias[i]);
+            }
+            updated = true;
+        }
+        resetWindow(timestampNanos);
+        return updated;
+    }
+    
+    private void accumulate(int axis, float value) {
+        double delta = value - gyroMean[axis];
+        gyroMean[axis] += delta / gyroCount;
+        gyroM2[axis] += delta * (value - gyroMean[axis]);
+    }
+    
+    private boolean isWindowStationary() {
+        if (gyroCount < MIN_WINDOW_SAMPLES) {
+            return false;
+        }
+        for (int i = 0; i < 3; i++) {
+            if (gyroM2[i] / (gyroCount - 1) > GYRO_VARIANCE_LIMIT) return false;
+            if (Math.abs(gyroMean[i]) > MAX_STATIONARY_RATE) return false;
+        }
+        // Without accelerometer samples the gyro check alone decides
+        return accelCount < 2 || accelM2 / (accelCount - 1) <= ACCEL_VARIANCE_LIMIT;
+    }
+    
+    private void resetWindow(long timestampNanos) {
+        windowStart = timestampNanos;
+        gyroCount = 0;
+        accelCount = 0;
+        accelMean = 0;
+        accelM2 = 0;
+        for (int i = 0; i < 3; i++) {
+            gyroMean[i] = 0;
+            gyroM2[i] = 0;
+        }
+    }
+}
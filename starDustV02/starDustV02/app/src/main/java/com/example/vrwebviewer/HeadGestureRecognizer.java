@@ -0,0 +1,192 @@
+// HEAD GESTURE RECOGNIZER - Nod and shake detection on the gyro stream
+package com.example.vrwebviewer;
+
+/**
+ * Bins head rates into 20 ms slots over a fixed one-second window and counts
+ * alternating high-speed lobes per axis: four vertical lobes are a double nod, three or
+ * more horizontal lobes a shake. Two vertical lobes are reported as a single nod only
+ * after a pause long enough that a second nod is no longer coming, and stay in the
+ * window so one that does come late still completes a double nod. Thresholds sit above the user's normal looking speed,
+ * which is learned while the calibration tutorial runs. Constant memory; sensor thread only.
+ */
+public class HeadGestureRecognizer {
+    
+    public static final int GESTURE_NONE = 0;
+    public static final int GESTURE_NOD = 1;
+    public static final int GESTURE_DOUBLE_NOD = 2;
+    public static final int GESTURE_SHAKE = 3;
+    
+    private static final long BIN_NANOS = 20_000_000L;
+    private static final int BINS = 50;
+    // A single nod is reported once the head has been quiet this many bins: longer than
+    // the pause users leave between the two dips of a double nod
+    private static final int NOD_GAP_BINS = 20;
+    private static final long REFRACTORY_NANOS = 600_000_000L;
+    // The other axis must carry less than this share of the dominant axis' motion
+    private static final float CROSS_AXIS_RATIO = 0.6f;
+    
+    // Gesture speed relative to the looking speed seen during calibration (rad/s)
+    public static final float DEFAULT_THRESHOLD = 1.5f;
+    private static final float LEARN_FACTOR = 1.5f;
+    private static final float MIN_THRESHOLD = 0.8f;
+    private static final float MAX_THRESHOLD = 4f;
+    
+    private final float[] verticalBins = new float[BINS];
+    private final float[] horizontalBins = new float[BINS];
+    private int head = 0;
+    
+    private long binStart = -1;
+    private float sumVertical, sumHorizontal;
+    private int binSamples;
+    private long refractoryUntil = 0;
+    // The nod now in the window has been reported; it stays there for a possible double nod
+    private boolean nodReported = false;
+    
+    private float verticalThreshold = DEFAULT_THRESHOLD;
+    private float horizontalThreshold = DEFAULT_THRESHOLD;
+    
+    private boolean learning = false;
+    private float peakVertical, peakHorizontal;
+    
+    public void setThresholds(float vertical, float horizontal) {
+        verticalThreshold = clampThreshold(vertical);
+        horizontalThreshold = clampThreshold(horizontal);
+    }
+    
+    public float getVerticalThreshold() {
+        return verticalThreshold;
+    }
+    
+    public float getHorizontalThreshold() {
+        return horizontalThreshold;
+    }
+    
+    // Watch normal head movement (e.g. the calibration tutorial) instead of recognising
+    public void startLearning() {
+        learning = true;
+        peakVertical = 0f;
+        peakHorizontal = 0f;
+    }
+    
+    // Sets thresholds from the learned looking speed; keeps the old ones if nothing moved
+    public void finishLearning() {
+        learning = false;
+        if (peakVertical > 0f) verticalThreshold = clampThreshold(peakVertical * LEARN_FACTOR);
+        if (peakHorizontal > 0f) horizontalThreshold = clampThreshold(peakHorizontal * LEARN_FACTOR);
+        clear();
+    }
+    
+    public boolean isLearning() {
+        return learning;
+    }
+    
+    // Rates in rad/s with bias removed; vertical moves the pointer up/down, horizontal left/right
+    public int onGyro(long timestampNanos, float vertical, float horizontal) {
+        if (binStart < 0) {
+            binStart = timestampNanos;
+        }
+        sumVertical += vertical;
+        sumHorizontal += horizontal;
+        binSamples++;
+        
+        if (timestampNanos - binStart < BIN_NANOS) {
+            return GESTURE_NONE;
+        }
+        
+        float v = sumVertical / binSamples;
+        float h = sumHorizontal / binSamples;
+        verticalBins[head] = v;
+        horizontalBins[head] = h;
+        head = (head + 1) % BINS;
+        sumVertical = 0f;
+        sumHorizontal = 0f;
+        binSamples = 0;
+        binStart = timestampNanos;
+        
+        if (learning) {
+            peakVertical = Math.max(peakVertical, Math.abs(v));
+            peakHorizontal = Math.max(peakHorizontal, Math.abs(h));
+            return GESTURE_NONE;
+        }
+        if (timestampNanos < refractoryUntil) {
+            return GESTURE_NONE;
+        }
+        
+        if (countLobes(verticalBins, verticalThreshold) < 2) {
+            nodReported = false;
+        }
+        int gesture = classify();
+        if (gesture == GESTURE_NOD) {
+            if (nodReported) {
+                return GESTURE_NONE;
+            }
+            nodReported = true;
+            return GESTURE_NOD;
+        }
+        if (gesture != GESTURE_NONE) {
+            clear();
+            refractoryUntil = timestampNanos + REFRACTORY_NANOS;
+        }
+        return gesture;
+    }
+    
+    private int classify() {
+        float verticalEnergy = energy(verticalBins);
+        float horizontalEnergy = energy(horizontalBins);
+        
+        if (verticalEnergy < horizontalEnergy * CROSS_AXIS_RATIO) {
+            return countLobes(horizontalBins, horizontalThreshold) >= 3 ? GESTURE_SHAKE : GESTURE_NONE;
+        }
+        if (horizontalEnergy < verticalEnergy * CROSS_AXIS_RATIO) {
+            int lobes = countLobes(verticalBins, verticalThreshold);
+            if (lobes >= 4) return GESTURE_DOUBLE_NOD;
+            if (lobes >= 2 && quietBins(verticalBins, verticalThreshold) >= NOD_GAP_BINS) return GESTURE_NOD;
+        }
+        return GESTURE_NONE;
+    }
+    
+    // Alternating-sign runs above threshold, oldest bin first
+    private int countLobes(float[] bins, float threshold) {
+        int lobes = 0;
+        int lastSign = 0;
+        for (int i = 0; i < BINS; i++) {
+            float rate = bins[(head + i) % BINS];
+            if (Math.abs(rate) < threshold) continue;
+            int sign = rate > 0 ? 1 : -1;
+            if (sign != lastSign) {
+                lobes++;
+                lastSign = sign;
+            }
+        }
+        return lobes;
+    }
+    
+    // Bins since the newest one above threshold
+    private int quietBins(float[] bins, float threshold) {
+        for (int i = 0; i < BINS; i++) {
+            int index = (head - 1 - i + BINS) % BINS;
+            if (Math.abs(bins[index]) >= threshold) return i;
+        }
+        return BINS;
+    }
+    
+    private static float energy(float[] bins) {
+        float sum = 0f;
+        for (float rate : bins) {
+            sum += rate * rate;
+        }
+        return sum;
+    }
+    
+    private void clear() {
+        nodReported = false;
+        for (int i = 0; i < BINS; i++) {
+            verticalBins[i] = 0f;
+            horizontalBins[i] = 0f;
+        }
+    }
+    
+    private static float clampThreshold(float threshold) {
+        return Math.max(MIN_THRESHOLD, Math.min(MAX_THRESHOLD, threshold));
+    }
+}
@@ -0,0 +1,81 @@
+// HEAD TRACKER - Gyro rate to crosshair target mapping used by VrActivity
+package com.example.vrwebviewer;
+
+/**
+ * Pure-Java core of VrActivity's head tracking so it can be driven by recorded
+ * traces on the JVM. Owned by the sensor thread; sensitivity may be changed from any thread.
+ */
+public class HeadTracker {
+    
+    // Tuning kept identical to the original in-activity implementation
+    private static final float DEAD_ZONE = 0.002f;
+    private static final float DRIFT_DAMPING = 0.98f;
+    private static final float RATE_SCALE = 0.08f;
+    private static final float MAX_DELTA = 0.02f;
+    private static final float MIN_STEP = 0.001f;
+    private static final float MIN_TARGET = 0.1f;
+    private static final float MAX_TARGET = 0.9f;
+    
+    private volatile float sensitivity = 2.2f;
+    private final float[] bias = new float[3];
+    private float targetX = 0.5f, targetY = 0.5f;
+    
+    public void setSensitivity(float sensitivity) {
+        this.sensitivity = sensitivity;
+    }
+    
+    public float getSensitivity() {
+        return sensitivity;
+    }
+    
+    public void setBias(float x, float y, float z) {
+        bias[0] = x;
+        bias[1] = y;
+        bias[2] = z;
+    }
+    
+    public void getBias(float[] out) {
+        System.arraycopy(bias, 0, out, 0, 3);
+    }
+    
+    public void center() {
+        targetX = 0.5f;
+        targetY = 0.5f;
+    }
+    
+    // Integrates one gyro sample (rad/s); returns true when the target moved
+    public boolean onGyro(float gx, float gy, float gz) {
+        float rollRate = gx - bias[0];
+        float pitchRate = gy - bias[1];
+        
+        // Increased dead zone to prevent drift
+        if (Math.abs(rollRate) < DEAD_ZONE) rollRate = 0;
+        if (Math.abs(pitchRate) < DEAD_ZONE) pitchRate = 0;
+        
+        // Apply drift compensation
+        rollRate *= DRIFT_DAMPING;
+        pitchRate *= DRIFT_DAMPING;
+        
+        float deltaX = -rollRate * sensitivity * RATE_SCALE;
+        float deltaY = pitchRate * sensitivity * RATE_SCALE;
+        
+        // Limit movement speed
+        deltaX = Math.max(-MAX_DELTA, Math.min(MAX_DELTA, deltaX));
+        deltaY = Math.max(-MAX_DELTA, Math.min(MAX_DELTA, deltaY));
+        
+        if (Math.abs(deltaX) > MIN_STEP || Math.abs(deltaY) > MIN_STEP) {
+            targetX = Math.max(MIN_TARGET, Math.min(MAX_TARGET, targetX + deltaX));
+            targetY = Math.max(MIN_TARGET, Math.min(MAX_TARGET, targetY + deltaY));
+            return true;
+        }
+        return false;
+    }
+    
+    public float getTargetX() {
+        return targetX;
+    }
+    
+    public float getTargetY() {
+        return targetY;
+    }
+}
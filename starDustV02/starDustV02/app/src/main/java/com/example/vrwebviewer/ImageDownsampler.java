@@ -0,0 +1,318 @@
+// IMAGE DOWNSAMPLER - Re-encodes oversized page images at VR eye resolution
+package com.example.vrwebviewer;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in shouldInterceptRequest stage for JPEG/PNG/WebP images. The original is
+ * downloaded to a temp file, decoded with inSampleSize on a small bounded pool,
+ * scaled to the target edge and re-encoded; the result is kept on disk keyed by URL
+ * and target. Anything that goes wrong, or a full pool, returns null so WebView
+ * loads the original. CORS image requests are left alone since WebGL textures
+ * may depend on their exact size.
+ */
+public final class ImageDownsampler {
+    
+    private static final String TAG = "ImageDownsampler";
+    private static final long MAX_BYTES = 64L * 1024 * 1024;
+    private static final int WORKERS = 2;
+    private static final int QUEUE = 8;
+    private static final long WAIT_SECONDS = 15;
+    private static final int JPEG_QUALITY = 85;
+    // A stalled origin would otherwise hold a worker, and WebView's request, indefinitely
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 20_000;
+    // Smaller sources are abandoned after the headers and left to WebView
+    private static final long MIN_SOURCE_BYTES = 256 * 1024;
+    // How many of those URLs are remembered so they go straight to WebView next time
+    private static final int MAX_SMALL_URLS = 1024;
+    private static ImageDownsampler instance;
+    
+    private final File dir;
+    private final ThreadPoolExecutor pool = new ThreadPoolExecutor(WORKERS, WORKERS, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(QUEUE));
+    private final Map<String, Boolean> smallUrls = new LinkedHashMap<String, Boolean>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > MAX_SMALL_URLS;
+        }
+    };
+    private long sizeBytes = 0;
+    private int tempCounter = 0;
+    private int downsampled = 0;
+    private int hits = 0;
+    private long bytesSaved = 0;
+    
+    public static synchronized ImageDownsampler getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImageDownsampler(new File(context.getApplicationContext().getCacheDir(), "downsampled"));
+        }
+        return instance;
+    }
+    
+    private ImageDownsampler(File dir) {
+        this.dir = dir;
+        pool.allowCoreThreadTimeOut(true);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            Log.e(TAG, "Cannot create " + dir);
+        }
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(".tmp")) {
+                    file.delete();
+                } else {
+                    sizeBytes += file.length();
+                }
+            }
+        }
+    }
+    
+    // Called on a WebView network thread; maxEdge is the longest edge worth keeping
+    public WebResourceResponse intercept(WebResourceRequest request, int maxEdge) {
+        if (!isCandidate(request)) {
+            return null;
+        }
+        String url = request.getUrl().toString();
+        synchronized (this) {
+            if (smallUrls.containsKey(url)) {
+                return null;
+            }
+        }
+        File cached = new File(dir, ContentCache.fileNameFor(url + "@" + maxEdge));
+        
+        try {
+            if (!cached.isFile()) {
+                Future<Boolean> job = pool.submit(() -> downsample(url, WebContentCache.forwardedHeaders(request), maxEdge, cached));
+                try {
+                    if (!job.get(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                        return null;
+                    }
+                } catch (Exception e) {
+                    job.cancel(true);
+                    return null;
+                }
+            } else {
+                synchronized (this) {
+                    hits++;
+                }
+                cached.setLastModified(System.currentTimeMillis());
+            }
+            return new WebResourceResponse(sniffMimeType(cached), null, new FileInputStream(cached));
+        } catch (RejectedExecutionException e) {
+            // Pool is saturated; decoding more at once is what this class exists to avoid
+            return null;
+        } catch (IOException e) {
+            Log.e(TAG, "Downsample failed for " + url + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public synchronized int getDownsampledCount() {
+        return downsampled;
+    }
+    
+    public synchronized int getHits() {
+        return hits;
+    }
+    
+    public synchronized long getBytesSaved() {
+        return bytesSaved;
+    }
+    
+    private boolean downsample(String url, Map<String, String> headers, int maxEdge, File out) throws IOException {
+        File source = tempFile(ContentCache.fileNameFor(url) + ".src");
+        try {
+            if (!download(url, headers, source)) {
+                return false;
+            }
+            
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeFile(source.getPath(), options);
+            if (options.outWidth <= 0) {
+                return false;
+            }
+            if (!DownsamplePlan.needsDownsample(options.outWidth, options.outHeight, maxEdge)) {
+                // Already small enough; keep the original bytes so it isn't downloaded twice
+                if (!source.renameTo(out)) {
+                    return false;
+                }
+                synchronized (this) {
+                    sizeBytes += out.length();
+                }
+                trimToSize();
+                return true;
+            }
+            
+            boolean opaque = "image/jpeg".equals(options.outMimeType);
+            options.inJustDecodeBounds = false;
+            options.inSampleSize = DownsamplePlan.sampleSize(options.outWidth, options.outHeight, maxEdge);
+            options.inPreferredConfig = opaque ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+            Bitmap decoded = BitmapFactory.decodeFile(source.getPath(), options);
+            if (decoded == null) {
+                return false;
+            }
+            
+            int[] size = DownsamplePlan.targetSize(decoded.getWidth(), decoded.getHeight(), maxEdge);
+            Bitmap scaled = decoded;
+            if (size[0] != decoded.getWidth() || size[1] != decoded.getHeight()) {
+                scaled = Bitmap.createScaledBitmap(decoded, size[0], size[1], true);
+                decoded.recycle();
+            }
+            
+            File tmp = tempFile(out.getName());
+            try (OutputStream stream = new FileOutputStream(tmp)) {
+                boolean jpeg = opaque || !scaled.hasAlpha();
+                scaled.compress(jpeg ? Bitmap.CompressFormat.JPEG : Bitmap.CompressFormat.PNG, JPEG_QUALITY, stream);
+            } finally {
+                scaled.recycle();
+            }
+            if (!tmp.renameTo(out)) {
+                tmp.delete();
+                return false;
+            }
+            
+            synchronized (this) {
+                downsampled++;
+                bytesSaved += Math.max(0, source.length() - out.length());
+                sizeBytes += out.length();
+            }
+            trimToSize();
+            return true;
+        } finally {
+            source.delete();
+        }
+    }
+    
+    // Unique per job, since srcset duplicates and retries can fetch the same URL at once
+    private synchronized File tempFile(String base) {
+        return new File(dir, base + "-" + (tempCounter++) + ".tmp");
+    }
+    
+    private boolean download(String url, Map<String, String> headers, File target) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                connection.setRequestProperty(header.getKey(), header.getValue());
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return false;
+            }
+            long length = connection.getContentLength();
+            if (length >= 0 && length < MIN_SOURCE_BYTES) {
+                synchronized (this) {
+                    smallUrls.put(url, Boolean.TRUE);
+                }
+                return false;
+            }
+            try (InputStream in = connection.getInputStream();
+                 OutputStream out = new FileOutputStream(target)) {
+                byte[] buffer = new byte[16 * 1024];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return false;
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+            return true;
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    // Oldest-used files first, by the mtime refreshed on every hit
+    private void trimToSize() {
+        synchronized (this) {
+            if (sizeBytes <= MAX_BYTES) {
+                return;
+            }
+        }
+        File[] files = dir.listFiles((d, name) -> !name.endsWith(".tmp"));
+        if (files == null) {
+            return;
+        }
+        // Comparator.comparingLong needs API 24
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                return Long.compare(a.lastModified(), b.lastModified());
+            }
+        });
+        synchronized (this) {
+            for (File file : files) {
+                if (sizeBytes <= MAX_BYTES) {
+                    break;
+                }
+                long length = file.length();
+                if (file.delete()) {
+                    sizeBytes -= length;
+                }
+            }
+        }
+    }
+    
+    // Outputs are JPEG or PNG, or the untouched original when it was small enough
+    private static String sniffMimeType(File file) throws IOException {
+        byte[] magic = new byte[4];
+        try (InputStream in = new FileInputStream(file)) {
+            if (in.read(magic) < magic.length) {
+                return "image/png";
+            }
+        }
+        if ((magic[0] & 0xFF) == 0xFF && (magic[1] & 0xFF) == 0xD8) {
+            return "image/jpeg";
+        }
+        if (magic[0] == 'R' && magic[1] == 'I' && magic[2] == 'F' && magic[3] == 'F') {
+            return "image/webp";
+        }
+        return "image/png";
+    }
+    
+    private static boolean isCandidate(WebResourceRequest request) {
+        if (request.isForMainFrame() || !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        Map<String, String> headers = request.getRequestHeaders();
+        if (headers.containsKey("Origin") || headers.containsKey("origin")
+                || headers.containsKey("Range") || headers.containsKey("range")) {
+            return false;
+        }
+        Uri url = request.getUrl();
+        String scheme = url.getScheme();
+        String path = url.getPath();
+        if ((!"https".equals(scheme) && !"http".equals(scheme)) || path == null) {
+            return false;
+        }
+        String lower = path.toLowerCase(Locale.US);
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png") || lower.endsWith(".webp");
+    }
+}
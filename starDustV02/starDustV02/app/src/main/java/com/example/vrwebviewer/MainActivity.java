@@ -128,12 +128,14 @@ public class MainActivity extends AppCompatActivity {
     }
     
     private void showVRModeSelection() {
+        DestinationPrefetcher.getInstance(this).prefetch(VrActivity.destinationUrl(currentDestination));
         new AlertDialog.Builder(this)
             .setTitle("Select VR Mode")
             .setMessage("Choose your VR control method:")
             .setPositiveButton("Standard VR", (d, w) -> openVRExperience("standard"))
             .setNegativeButton("Hardware Controller", (d, w) -> openVRExperience("hardware"))
             .setCancelable(true)
+            .setOnCancelListener(d -> DestinationPrefetcher.getInstance(this).cancel())
             .show();
     }
     
@@ -0,0 +1,46 @@
+// MIRROR VIEW - Second-eye copy of another view's rendering
+package com.example.vrwebviewer;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.view.View;
+
+/**
+ * Draws a source view (the single stereo WebView) into its own bounds every frame.
+ * With hardware acceleration this replays the source's display list, so the second
+ * eye costs a draw call rather than a second page load, renderer and JS heap.
+ */
+public class MirrorView extends View {
+    
+    private View source;
+    
+    public MirrorView(Context context, View source) {
+        super(context);
+        this.source = source;
+        setWillNotDraw(false);
+    }
+    
+    public void setSource(View source) {
+        this.source = source;
+        invalidate();
+    }
+    
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        
+        if (source == null || source.getWidth() == 0 || source.getHeight() == 0) {
+            return;
+        }
+        
+        int save = canvas.save();
+        canvas.scale((float) getWidth() / source.getWidth(), (float) getHeight() / source.getHeight());
+        // Source scroll is applied inside its own draw; undo it so we see what it shows
+        canvas.translate(-source.getScrollX(), -source.getScrollY());
+        source.draw(canvas);
+        canvas.restoreToCount(save);
+        
+        // The page animates on its own schedule, so follow it at display rate
+        postInvalidateOnAnimation();
+    }
+}
@@ -0,0 +1,89 @@
+// NATIVE INPUT INJECTOR - Synthesised touch events for the hidden WebView
+package com.example.vrwebviewer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.InputDevice;
+import android.view.MotionEvent;
+import android.webkit.WebView;
+
+/**
+ * Feeds MotionEvents straight into the WebView so taps and drags go
+ * through Chromium's own input pipeline: pointer and touch listeners fire, and
+ * iframes, canvas and WebGL content receive them. Coordinates are WebView pixels.
+ * Main thread only.
+ */
+public class NativeInputInjector {
+    
+    // Time between synthetic down and up for a tap
+    private static final long TAP_MILLIS = 40;
+    
+    private final WebView webView;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    
+    private long downTime = -1;
+    private float lastX, lastY;
+    private int eventsInjected = 0;
+    
+    public NativeInputInjector(WebView webView) {
+        this.webView = webView;
+    }
+    
+    public void tap(float x, float y) {
+        press(x, y, TAP_MILLIS);
+    }
+    
+    // Drag gesture: down, any number of moveTo, then up or cancel
+    public void down(float x, float y) {
+        if (isDown()) {
+            cancel();
+        }
+        downTime = SystemClock.uptimeMillis();
+        inject(MotionEvent.ACTION_DOWN, x, y);
+    }
+    
+    public void moveTo(float x, float y) {
+        if (isDown()) {
+            inject(MotionEvent.ACTION_MOVE, x, y);
+        }
+    }
+    
+    public void up(float x, float y) {
+        if (isDown()) {
+            inject(MotionEvent.ACTION_UP, x, y);
+            downTime = -1;
+        }
+    }
+    
+    public void cancel() {
+        handler.removeCallbacksAndMessages(null);
+        if (isDown()) {
+            inject(MotionEvent.ACTION_CANCEL, lastX, lastY);
+            downTime = -1;
+        }
+    }
+    
+    public boolean isDown() {
+        return downTime >= 0;
+    }
+    
+    public int getEventsInjected() {
+        return eventsInjected;
+    }
+    
+    private void press(float x, float y, long holdMillis) {
+        down(x, y);
+        handler.postDelayed(() -> up(x, y), holdMillis);
+    }
+    
+    private void inject(int action, float x, float y) {
+        lastX = x;
+        lastY = y;
+        MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action, x, y, 0);
+        event.setSource(InputDevice.SOURCE_TOUCHSCREEN);
+        webView.dispatchTouchEvent(event);
+        event.recycle();
+        eventsInjected++;
+    }
+}
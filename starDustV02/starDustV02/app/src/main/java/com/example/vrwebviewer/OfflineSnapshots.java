@@ -0,0 +1,236 @@
+// OFFLINE SNAPSHOTS - Planet VR sites served from disk through WebViewAssetLoader
+package com.example.vrwebviewer;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import androidx.webkit.WebViewAssetLoader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Makes Moon, Mars and Venus VR entry a local-disk load. Snapshot archives bundled as
+ * assets/snapshots/(site).zip are installed on first use; installed snapshots whose
+ * manifest names an https update URL and signing key are refreshed in the background
+ * when the network allows it. Each site gets its own WebViewAssetLoader on its virtual origin.
+ */
+public final class OfflineSnapshots {
+    
+    private static final String TAG = "OfflineSnapshots";
+    private static final String ASSET_DIR = "snapshots";
+    private static final String PREFS_NAME = "offline_snapshots";
+    private static final int TIMEOUT_MS = 20_000;
+    private static final int MAX_SIGNATURE_BYTES = 4 * 1024;
+    static final List<String> SITES = Arrays.asList("moon", "mars", "venus");
+    private static OfflineSnapshots instance;
+    
+    private final Context appContext;
+    private final SnapshotStore store;
+    private final Map<String, WebViewAssetLoader> loaders = new HashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    
+    public static synchronized OfflineSnapshots getInstance(Context context) {
+        if (instance == null) {
+            instance = new OfflineSnapshots(context.getApplicationContext());
+        }
+        return instance;
+    }
+    
+    private OfflineSnapshots(Context appContext) {
+        this.appContext = appContext;
+        this.store = new SnapshotStore(new File(appContext.getFilesDir(), "snapshots"));
+        for (String site : SITES) {
+            loaders.put(site, new WebViewAssetLoader.Builder()
+                    .setDomain(site + SnapshotStore.ORIGIN_SUFFIX)
+                    .addPathHandler("/", path -> serve(site, path))
+                    .build());
+        }
+    }
+    
+    // Start page of the installed snapshot, or null to use the live site
+    public String entryUrl(String destination) {
+        return destination != null && SITES.contains(destination) ? store.entryUrl(destination) : null;
+    }
+    
+    public static boolean isSnapshotUrl(String url) {
+        if (url == null) {
+            return false;
+        }
+        return SnapshotStore.siteForHost(Uri.parse(url).getHost()) != null;
+    }
+    
+    // Called on a WebView network thread; null for anything outside the virtual origins.
+    // Misses on a virtual origin get a 404 so they never fall through to the network stages.
+    public WebResourceResponse intercept(WebResourceRequest request) {
+        String site = SnapshotStore.siteForHost(request.getUrl().getHost());
+        if (site == null) {
+            return null;
+        }
+        WebViewAssetLoader loader = loaders.get(site);
+        WebResourceResponse response = loader != null ? loader.shouldInterceptRequest(request.getUrl()) : null;
+        return response != null ? response : notFound();
+    }
+    
+    private static WebResourceResponse notFound() {
+        return new WebResourceResponse("text/plain", "utf-8", 404, "Not Found",
+                Collections.<String, String>emptyMap(), new ByteArrayInputStream(new byte[0]));
+    }
+    
+    // Installs bundled archives, then checks for updates if the network allows; off the main thread
+    public void refresh() {
+        executor.execute(() -> {
+            for (String site : SITES) {
+                installBundled(site);
+            }
+            if (DestinationPrefetcher.currentLevel(appContext) == PrefetchPlanner.LEVEL_FULL) {
+                for (String site : SITES) {
+                    checkForUpdate(site);
+                }
+            }
+        });
+    }
+    
+    private WebResourceResponse serve(String site, String path) {
+        File file = store.resolve(site, path);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return new WebResourceResponse(SnapshotStore.mimeTypeFor(file.getName()), null, new FileInputStream(file));
+        } catch (IOException e) {
+            Log.e(TAG, "Snapshot read failed: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    // Bundled archives only change with the APK, so each is unpacked once per install/update
+    private void installBundled(String site) {
+        SharedPreferences prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        long apkTime;
+        try {
+            apkTime = appContext.getPackageManager().getPackageInfo(appContext.getPackageName(), 0).lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException e) {
+            apkTime = 0;
+        }
+        if (prefs.getLong("bundled_" + site, -1) == apkTime) {
+            return;
+        }
+        
+        try (InputStream in = appContext.getAssets().open(ASSET_DIR + "/" + site + ".zip")) {
+            SnapshotStore.Manifest manifest = store.install(site, in);
+            if (manifest != null) {
+                Log.i(TAG, "Installed bundled " + site + " snapshot v" + manifest.version);
+            }
+            prefs.edit().putLong("bundled_" + site, apkTime).apply();
+        } catch (FileNotFoundException e) {
+            // No archive bundled for this site
+            prefs.edit().putLong("bundled_" + site, apkTime).apply();
+        } catch (IOException e) {
+            Log.e(TAG, "Bundled " + site + " snapshot failed: " + e.getMessage());
+        }
+    }
+    
+    // Updates replace pages the app runs, so they come only over https and only when
+    // signed with the key the installed snapshot pins; the signature is at updateUrl + ".sig"
+    private void checkForUpdate(String site) {
+        SnapshotStore.Manifest manifest = store.getManifest(site);
+        if (manifest == null || manifest.updateUrl == null) {
+            return;
+        }
+        if (!manifest.updateUrl.startsWith("https://") || manifest.updateKey == null) {
+            Log.e(TAG, "Ignoring " + site + " updates: the manifest needs an https update URL and update.key");
+            return;
+        }
+        File download = new File(appContext.getCacheDir(), "snapshot-" + site + ".zip");
+        HttpURLConnection connection = null;
+        try {
+            connection = open(manifest.updateUrl);
+            String tag = store.getUpdateTag(site);
+            if (tag != null) {
+                connection.setRequestProperty("If-None-Match", tag);
+            }
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return;
+            }
+            try (InputStream in = connection.getInputStream();
+                 OutputStream out = new FileOutputStream(download)) {
+                byte[] buffer = new byte[16 * 1024];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+            }
+            String signature = fetchSignature(manifest.updateUrl + ".sig");
+            if (signature == null || !SnapshotStore.verify(download, manifest.updateKey, signature)) {
+                Log.e(TAG, "Rejected " + site + " update: signature missing or invalid");
+                return;
+            }
+            SnapshotStore.Manifest updated;
+            try (InputStream in = new FileInputStream(download)) {
+                updated = store.install(site, in);
+            }
+            String etag = connection.getHeaderField("ETag");
+            if (etag != null) {
+                store.setUpdateTag(site, etag);
+            }
+            if (updated != null) {
+                Log.i(TAG, "Updated " + site + " snapshot to v" + updated.version);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Update check for " + site + " failed: " + e.getMessage());
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+            download.delete();
+        }
+    }
+    
+    // Hex signature text, or null if it can't be fetched
+    private static String fetchSignature(String url) throws IOException {
+        HttpURLConnection connection = open(url);
+        try {
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                int n;
+                while ((n = in.read(buffer)) > 0 && out.size() < MAX_SIGNATURE_BYTES) {
+                    out.write(buffer, 0, n);
+                }
+            }
+            return out.toString("UTF-8");
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    private static HttpURLConnection open(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        return connection;
+    }
+}
@@ -0,0 +1,77 @@
+// ONE EURO FILTER - Speed-adaptive low-pass filter for pointer smoothing
+package com.example.vrwebviewer;
+
+/**
+ * Casiez et al. "1 Euro filter": a low-pass whose cutoff rises with the signal's speed,
+ * so a still pointer is steady and a moving one has little lag. All parameters are in
+ * Hz and samples carry timestamps, so behaviour doesn't depend on how often it's called.
+ */
+public class OneEuroFilter {
+    
+    private float minCutoffHz;
+    private float beta;
+    private float derivativeCutoffHz;
+    
+    private boolean initialized = false;
+    private float value;
+    private float derivative;
+    private long lastNanos;
+    
+    public OneEuroFilter(float minCutoffHz, float beta, float derivativeCutoffHz) {
+        configure(minCutoffHz, beta, derivativeCutoffHz);
+    }
+    
+    public void configure(float minCutoffHz, float beta, float derivativeCutoffHz) {
+        this.minCutoffHz = minCutoffHz;
+        this.beta = beta;
+        this.derivativeCutoffHz = derivativeCutoffHz;
+    }
+    
+    // Cutoff that matches an exponential lerp keeping `retain` of the old value per step at rateHz
+    public static float cutoffForLerp(float retain, float rateHz) {
+        retain = Math.max(0.01f, Math.min(0.999f, retain));
+        return (float) (-Math.log(retain) * rateHz / (2 * Math.PI));
+    }
+    
+    public float filter(float sample, long timestampNanos) {
+        if (!initialized) {
+            reset(sample, timestampNanos);
+            return value;
+        }
+        
+        float dt = (timestampNanos - lastNanos) / 1e9f;
+        if (dt <= 0f) {
+            return value;
+        }
+        lastNanos = timestampNanos;
+        
+        float rawDerivative = (sample - value) / dt;
+        derivative += alpha(derivativeCutoffHz, dt) * (rawDerivative - derivative);
+        
+        float cutoff = minCutoffHz + beta * Math.abs(derivative);
+        value += alpha(cutoff, dt) * (sample - value);
+        return value;
+    }
+    
+    // Snap to a value, e.g. when the pointer is recentered
+    public void reset(float sample, long timestampNanos) {
+        value = sample;
+        derivative = 0f;
+        lastNanos = timestampNanos;
+        initialized = true;
+    }
+    
+    public float getValue() {
+        return value;
+    }
+    
+    // Filtered speed in units per second
+    public float getSpeed() {
+        return Math.abs(derivative);
+    }
+    
+    private static float alpha(float cutoffHz, float dt) {
+        float tau = (float) (1.0 / (2 * Math.PI * cutoffHz));
+        return 1f / (1f + tau / dt);
+    }
+}
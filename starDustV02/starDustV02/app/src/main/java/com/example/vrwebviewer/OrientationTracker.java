@@ -0,0 +1,116 @@
+// ORIENTATION TRACKER - Rotation vector and gyro processing behind VRManager
+package com.example.vrwebviewer;
+
+import java.util.Arrays;
+
+/**
+ * Same math as SensorManager.getRotationMatrixFromVector() + getOrientation(), written
+ * without framework calls so recorded traces can be replayed through it on the JVM.
+ * Single-threaded: owned by whichever thread delivers sensor events.
+ */
+public class OrientationTracker {
+    
+    private final float[] rotation = new float[9];
+    private final float[] orientation = new float[3]; // yaw (azimuth), pitch, roll in radians
+    private final float[] quaternion = {0f, 0f, 0f, 1f}; // last rotation vector as x, y, z, w
+    private final float[] gyroDelta = new float[3];
+    private final float[] smoothedRotation = new float[3];
+    private long lastTimestampNanos = 0;
+    
+    private float sensitivity = 1f;
+    private float smoothing = 0f;
+    private float yawLimit = Float.MAX_VALUE;
+    private float pitchLimit = Float.MAX_VALUE;
+    
+    public void configure(float sensitivity, float smoothing, float yawLimit, float pitchLimit) {
+        this.sensitivity = sensitivity;
+        this.smoothing = smoothing;
+        this.yawLimit = yawLimit;
+        this.pitchLimit = pitchLimit;
+    }
+    
+    // Routes a raw sample by sensor type (SensorTrace / Sensor.TYPE_* codes). Only the first
+    // count values are valid; replayed and pooled buffers are longer than the sample.
+    public void onSample(int sensorType, long timestampNanos, float[] values, int count) {
+        if (sensorType == SensorTrace.TYPE_ROTATION_VECTOR) {
+            onRotationVector(values, count, timestampNanos);
+        } else if (sensorType == SensorTrace.TYPE_GYROSCOPE) {
+            onGyroscope(values, timestampNanos);
+        }
+    }
+    
+    public void onRotationVector(float[] values, long timestampNanos) {
+        onRotationVector(values, values.length, timestampNanos);
+    }
+    
+    public void onRotationVector(float[] values, int count, long timestampNanos) {
+        float q1 = values[0], q2 = values[1], q3 = values[2];
+        float q0;
+        if (count >= 4) {
+            q0 = values[3];
+        } else {
+            q0 = 1 - q1 * q1 - q2 * q2 - q3 * q3;
+            q0 = q0 > 0 ? (float) Math.sqrt(q0) : 0;
+        }
+        quaternion[0] = q1;
+        quaternion[1] = q2;
+        quaternion[2] = q3;
+        quaternion[3] = q0;
+        
+        float sqQ1 = 2 * q1 * q1, sqQ2 = 2 * q2 * q2, sqQ3 = 2 * q3 * q3;
+        float q1q2 = 2 * q1 * q2, q3q0 = 2 * q3 * q0, q1q3 = 2 * q1 * q3;
+        float q2q0 = 2 * q2 * q0, q2q3 = 2 * q2 * q3, q1q0 = 2 * q1 * q0;
+        
+        float[] r = rotation;
+        r[0] = 1 - sqQ2 - sqQ3; r[1] = q1q2 - q3q0;     r[2] = q1q3 + q2q0;
+        r[3] = q1q2 + q3q0;     r[4] = 1 - sqQ1 - sqQ3; r[5] = q2q3 - q1q0;
+        r[6] = q1q3 - q2q0;     r[7] = q2q3 + q1q0;     r[8] = 1 - sqQ1 - sqQ2;
+        
+        orientation[0] = (float) Math.atan2(r[1], r[4]);
+        orientation[1] = (float) Math.asin(-r[7]);
+        orientation[2] = (float) Math.atan2(-r[6], r[8]);
+        
+        // Apply sensitivity and limits
+        orientation[0] = Math.max(-yawLimit, Math.min(yawLimit, orientation[0] * sensitivity));
+        orientation[1] = Math.max(-pitchLimit, Math.min(pitchLimit, orientation[1] * sensitivity));
+        lastTimestampNanos = timestampNanos;
+    }
+    
+    public void getQuaternion(float[] out) {
+        System.arraycopy(quaternion, 0, out, 0, 4);
+    }
+    
+    public void onGyroscope(float[] values, long timestampNanos) {
+        if (lastTimestampNanos != 0) {
+            float dt = (timestampNanos - lastTimestampNanos) / 1e9f;
+            
+            // Integrate gyroscope data
+            for (int i = 0; i < 3; i++) {
+                gyroDelta[i] = values[i] * dt * sensitivity;
+                smoothedRotation[i] = smoothedRotation[i] * smoothing + gyroDelta[i] * (1 - smoothing);
+            }
+        }
+        lastTimestampNanos = timestampNanos;
+    }
+    
+    public void reset() {
+        Arrays.fill(orientation, 0f);
+        Arrays.fill(smoothedRotation, 0f);
+    }
+    
+    public float getYaw() {
+        return orientation[0];
+    }
+    
+    public float getPitch() {
+        return orientation[1];
+    }
+    
+    public float getRoll() {
+        return orientation[2];
+    }
+    
+    public long getLastTimestampNanos() {
+        return lastTimestampNanos;
+    }
+}
@@ -0,0 +1,128 @@
+// PAGE PERF STATS - Page-side telemetry merged with native capture frame timing
+package com.example.vrwebviewer;
+
+import java.util.Locale;
+
+/**
+ * Combines the page's 1 Hz telemetry (long tasks, rAF cadence, layout shift, first
+ * contentful paint) with the native capture frames shown over the same second. A
+ * slow native frame is blamed on the page when that second had a long task or a rAF
+ * gap longer than two display frames, otherwise on the capture path. Main thread only.
+ */
+public class PagePerfStats {
+    
+    // Two 60 Hz frames; a longer rAF gap means the page's main thread stalled
+    public static final float PAGE_STALL_GAP_MS = 33.4f;
+    // A native frame this much later than the capture interval counts as slow
+    public static final float SLOW_FRAME_FACTOR = 1.5f;
+    
+    private float targetFrameMs = 1000f / 30;
+    
+    // Native frames since the last page sample
+    private long lastFrameMs = -1;
+    private int windowFrames = 0;
+    private int windowSlowFrames = 0;
+    
+    // Latest page sample
+    private float rafFps = -1f;
+    private float rafMaxGapMs = 0f;
+    private int windowLongTasks = 0;
+    private float windowLongTaskMs = 0f;
+    private float nativeFps = 0f;
+    
+    // Session totals
+    private int samples = 0;
+    private int longTasks = 0;
+    private float longTaskMs = 0f;
+    private float maxLongTaskMs = 0f;
+    private float rafFpsSum = 0f;
+    private float minRafFps = Float.MAX_VALUE;
+    private float layoutShift = 0f;
+    private float firstContentfulPaintMs = -1f;
+    private int slowFrames = 0;
+    private int pageJankFrames = 0;
+    private int captureJankFrames = 0;
+    
+    public void setCaptureFps(int fps) {
+        targetFrameMs = 1000f / Math.max(1, fps);
+    }
+    
+    // Each displayed VR frame, with a monotonic millisecond clock
+    public void recordNativeFrame(long nowMs) {
+        if (lastFrameMs >= 0 && nowMs - lastFrameMs > targetFrameMs * SLOW_FRAME_FACTOR) {
+            windowSlowFrames++;
+        }
+        lastFrameMs = nowMs;
+        windowFrames++;
+    }
+    
+    // One page window; spanSeconds is how much native time it covers
+    public void addPageSample(int tasks, float taskMs, float maxTaskMs, float fps, float maxGapMs,
+                              float cumulativeLayoutShift, float fcpMs, float spanSeconds) {
+        samples++;
+        longTasks += tasks;
+        longTaskMs += taskMs;
+        maxLongTaskMs = Math.max(maxLongTaskMs, maxTaskMs);
+        rafFpsSum += fps;
+        minRafFps = Math.min(minRafFps, fps);
+        layoutShift = cumulativeLayoutShift;
+        if (fcpMs >= 0) {
+            firstContentfulPaintMs = fcpMs;
+        }
+        
+        boolean pageStalled = tasks > 0 || maxGapMs > PAGE_STALL_GAP_MS;
+        slowFrames += windowSlowFrames;
+        if (pageStalled) {
+            pageJankFrames += windowSlowFrames;
+        } else {
+            captureJankFrames += windowSlowFrames;
+        }
+        
+        rafFps = fps;
+        rafMaxGapMs = maxGapMs;
+        windowLongTasks = tasks;
+        windowLongTaskMs = taskMs;
+        nativeFps = spanSeconds > 0 ? windowFrames / spanSeconds : 0f;
+        windowFrames = 0;
+        windowSlowFrames = 0;
+    }
+    
+    public boolean hasSamples() {
+        return samples > 0;
+    }
+    
+    public int getPageJankFrames() {
+        return pageJankFrames;
+    }
+    
+    public int getCaptureJankFrames() {
+        return captureJankFrames;
+    }
+    
+    public int getLongTasks() {
+        return longTasks;
+    }
+    
+    public float getLayoutShift() {
+        return layoutShift;
+    }
+    
+    // Latest second, for the debug overlay
+    public String overlayLine() {
+        return String.format(Locale.US, "Page: rAF %.0ffps (gap %.0fms) | LT %d/%.0fms | CLS %.3f | VR %.0ffps | jank page %d / capture %d",
+                rafFps, rafMaxGapMs, windowLongTasks, windowLongTaskMs, layoutShift, nativeFps,
+                pageJankFrames, captureJankFrames);
+    }
+    
+    public String report() {
+        return String.format(Locale.US,
+                "Page telemetry: %d s sampled\n"
+                + "  rAF: mean %.1f fps, worst %.1f fps\n"
+                + "  Long tasks: %d, %.0f ms total, longest %.0f ms\n"
+                + "  Layout shift: %.3f, first contentful paint: %.0f ms\n"
+                + "  Slow VR frames: %d (page %d, capture %d)",
+                samples, samples > 0 ? rafFpsSum / samples : 0f, samples > 0 ? minRafFps : 0f,
+                longTasks, longTaskMs, maxLongTaskMs, layoutShift, firstContentfulPaintMs,
+                slowFrames, pageJankFrames, captureJankFrames);
+    }
+}
@@ -0,0 +1,125 @@
+// PAGE TELEMETRY - In-page performance collector bridged to native at 1 Hz
+package com.example.vrwebviewer;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.webkit.WebView;
+import org.json.JSONObject;
+
+/**
+ * window.__stardustPerf watches long tasks, paints and layout shifts through
+ * PerformanceObserver and samples requestAnimationFrame cadence. Once a second the
+ * window is posted over the WebInputRuntime bridge and folded into PagePerfStats. When
+ * no post has arrived for BRIDGE_SILENCE_MS, the window is polled with
+ * evaluateJavascript instead: the WebView may have no message listener, or the
+ * document was loaded before it was added (a page handed over from WebsiteActivity).
+ * The collector is installed with the other document-start scripts. Main thread only.
+ */
+public class PageTelemetry implements WebInputRuntime.PageMessageListener {
+    
+    private static final long POLL_INTERVAL_MS = 1000;
+    private static final long BRIDGE_SILENCE_MS = 2000;
+    
+    public static final String COLLECTOR_JS = "(function() {"
+            + "  if (window.__stardustPerf) return;"
+            + "  var bridge = window." + WebInputRuntime.BRIDGE_NAME + ";"
+            + "  var w = { lt: 0, ltMs: 0, ltMax: 0, frames: 0, gap: 0 };"
+            + "  var cls = 0, fcp = -1, last = 0, start = performance.now();"
+            + "  var observers = [], timer = 0, stopped = false;"
+            + "  function observe(type, fn) {"
+            + "    try {"
+            + "      var o = new PerformanceObserver(function(list) { list.getEntries().forEach(fn); });"
+            + "      o.observe({ type: type, buffered: true });"
+            + "      observers.push(o);"
+            + "    } catch (e) {}"
+            + "  }"
+            + "  observe('longtask', function(e) {"
+            + "    w.lt++; w.ltMs += e.duration; if (e.duration > w.ltMax) w.ltMax = e.duration;"
+            + "  });"
+            + "  observe('paint', function(e) { if (e.name === 'first-contentful-paint') fcp = e.startTime; });"
+            + "  observe('layout-shift', function(e) { if (!e.hadRecentInput) cls += e.value; });"
+            + "  function frame(t) {"
+            + "    if (stopped) return;"
+            + "    if (last && t - last > w.gap) w.gap = t - last;"
+            + "    last = t; w.frames++;"
+            + "    requestAnimationFrame(frame);"
+            + "  }"
+            + "  requestAnimationFrame(frame);"
+            + "  function take() {"
+            + "    var now = performance.now(), span = (now - start) / 1000;"
+            + "    var s = { t: 'perf', lt: w.lt, ltMs: w.ltMs, ltMax: w.ltMax,"
+            + "      raf: span > 0 ? w.frames / span : 0, gap: w.gap, cls: cls, fcp: fcp };"
+            + "    w = { lt: 0, ltMs: 0, ltMax: 0, frames: 0, gap: 0 };"
+            + "    start = now;"
+            + "    return s;"
+            + "  }"
+            + "  function stop() {"
+            + "    stopped = true; clearInterval(timer);"
+            + "    observers.forEach(function(o) { o.disconnect(); });"
+            + "  }"
+            + "  if (bridge) timer = setInterval(function() { bridge.postMessage(JSON.stringify(take())); }, 1000);"
+            + "  window.__stardustPerf = { take: take, stop: stop };"
+            + "})();";
+    
+    private final WebView webView;
+    private final PagePerfStats stats;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private long lastSampleMs = -1;
+    private long lastPostedMs;
+    private boolean polling = true;
+    
+    // Runs every second but only reaches into the page while the bridge is silent
+    private final Runnable poll = new Runnable() {
+        @Override
+        public void run() {
+            if (!polling) {
+                return;
+            }
+            if (SystemClock.uptimeMillis() - lastPostedMs >= BRIDGE_SILENCE_MS) {
+                webView.evaluateJavascript("window.__stardustPerf && __stardustPerf.take()", value -> {
+                    if (value != null && value.startsWith("{")) {
+                        try {
+                            addSample(new JSONObject(value));
+                        } catch (Exception e) {
+                            // Page navigated mid-poll; the next one will do
+                        }
+                    }
+                });
+            }
+            handler.postDelayed(this, POLL_INTERVAL_MS);
+        }
+    };
+    
+    public PageTelemetry(WebView webView, WebInputRuntime runtime, PagePerfStats stats) {
+        this.webView = webView;
+        this.stats = stats;
+        runtime.addPageMessageListener(this);
+        // Without a bridge nothing will ever be posted, so poll from the first tick
+        lastPostedMs = runtime.hasBridge() ? SystemClock.uptimeMillis() : -BRIDGE_SILENCE_MS;
+        handler.postDelayed(poll, POLL_INTERVAL_MS);
+    }
+    
+    public void stop() {
+        polling = false;
+        handler.removeCallbacks(poll);
+    }
+    
+    @Override
+    public void onPageMessage(JSONObject msg) {
+        if (!"perf".equals(msg.optString("t"))) {
+            return;
+        }
+        lastPostedMs = SystemClock.uptimeMillis();
+        addSample(msg);
+    }
+    
+    private void addSample(JSONObject msg) {
+        long now = SystemClock.uptimeMillis();
+        float span = lastSampleMs >= 0 ? (now - lastSampleMs) / 1000f : 1f;
+        lastSampleMs = now;
+        stats.addPageSample(msg.optInt("lt"), (float) msg.optDouble("ltMs", 0), (float) msg.optDouble("ltMax", 0),
+                (float) msg.optDouble("raf", 0), (float) msg.optDouble("gap", 0),
+                (float) msg.optDouble("cls", 0), (float) msg.optDouble("fcp", -1), span);
+    }
+}
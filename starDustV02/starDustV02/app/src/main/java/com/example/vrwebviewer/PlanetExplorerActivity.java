@@ -18,6 +18,9 @@ public class PlanetExplorerActivity extends AppCompatActivity {
         String planet = getIntent().getStringExtra("planet");
         setupPlanetData(planet);
         
+        // The VR button is the likely next tap, so warm its destination while facts are read
+        DestinationPrefetcher.getInstance(this).prefetch(VrActivity.destinationUrl(planet));
+        
         CardView vrButton = findViewById(R.id.vr_explore_button);
         vrButton.setOnClickListener(v -> {
             // Show VR mode selection for planets too
@@ -67,6 +70,12 @@ public class PlanetExplorerActivity extends AppCompatActivity {
         }
     }
     
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        DestinationPrefetcher.getInstance(this).cancel();
+    }
+    
     @Override
     public boolean onOptionsItemSelected(android.view.MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
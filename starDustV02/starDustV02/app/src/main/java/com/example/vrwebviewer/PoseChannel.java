@@ -0,0 +1,115 @@
+// POSE CHANNEL - Head pose delivery to a page over a WebMessagePort
+package com.example.vrwebviewer;
+
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebView;
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebMessagePortCompat;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+
+/**
+ * Installs a small page runtime that keeps only the newest pose and applies it in
+ * requestAnimationFrame, then hands it one end of a message channel. Each pose is a
+ * short "pitch,yaw,roll" text message rather than a script to compile. Falls back to
+ * evaluateJavascript on WebViews without message channels. Main thread only.
+ */
+public class PoseChannel {
+    
+    private static final String TAG = "PoseChannel";
+    private static final String CONNECT_MESSAGE = "stardust-pose";
+    
+    private static final String RUNTIME_JS = "(function() {"
+            + "  if (window.__stardustPose) return;"
+            + "  var latest = null, scheduled = false;"
+            + "  var style = document.createElement('style');"
+            + "  style.textContent = 'body{transform-origin:center;will-change:transform;}';"
+            + "  document.head.appendChild(style);"
+            + "  function frame() {"
+            + "    scheduled = false;"
+            + "    var p = latest.split(',');"
+            + "    document.body.style.transform = 'rotateX(' + p[0] + 'deg) rotateY(' + p[1] + 'deg) rotateZ(' + p[2] + 'deg)';"
+            + "  }"
+            + "  function push(data) {"
+            + "    latest = data;"
+            + "    if (!scheduled) { scheduled = true; requestAnimationFrame(frame); }"
+            + "  }"
+            + "  window.__stardustPose = { push: push };"
+            + "  window.addEventListener('message', function(e) {"
+            + "    if (e.data === '" + CONNECT_MESSAGE + "' && e.ports && e.ports[0]) {"
+            + "      e.ports[0].onmessage = function(m) { push(m.data); };"
+            + "    }"
+            + "  });"
+            + "})();";
+    
+    private final WebView webView;
+    private final boolean channelSupported;
+    private WebMessagePortCompat port;
+    private boolean ready = false;
+    private int messagesSent = 0;
+    
+    public PoseChannel(WebView webView) {
+        this.webView = webView;
+        this.channelSupported = WebViewFeature.isFeatureSupported(WebViewFeature.CREATE_WEB_MESSAGE_CHANNEL)
+                && WebViewFeature.isFeatureSupported(WebViewFeature.POST_WEB_MESSAGE)
+                && WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_PORT_POST_MESSAGE);
+    }
+    
+    // Call from onPageFinished; each document gets a fresh runtime and port. Poses sent
+    // before onReady runs are dropped, so reset any throttle there rather than here.
+    public void connect(Runnable onReady) {
+        close();
+        webView.evaluateJavascript(RUNTIME_JS, value -> {
+            if (channelSupported) {
+                try {
+                    WebMessagePortCompat[] ports = WebViewCompat.createWebMessageChannel(webView);
+                    WebViewCompat.postWebMessage(webView,
+                            new WebMessageCompat(CONNECT_MESSAGE, new WebMessagePortCompat[]{ports[1]}),
+                            Uri.parse("*"));
+                    port = ports[0];
+                } catch (Exception e) {
+                    Log.e(TAG, "Channel setup failed: " + e.getMessage());
+                }
+            }
+            ready = true;
+            onReady.run();
+        });
+    }
+    
+    public void send(String pose) {
+        if (!ready) {
+            return;
+        }
+        if (port != null) {
+            port.postMessage(new WebMessageCompat(pose));
+        } else {
+            webView.evaluateJavascript("window.__stardustPose && __stardustPose.push('" + pose + "')", null);
+        }
+        messagesSent++;
+    }
+    
+    public void close() {
+        ready = false;
+        if (port != null) {
+            port.close();
+            port = null;
+        }
+    }
+    
+    public int getMessagesSent() {
+        return messagesSent;
+    }
+    
+    // Angles in degrees as "pitch,yaw,roll" with two decimals
+    public static String encode(float[] angles, StringBuilder out) {
+        out.setLength(0);
+        for (int i = 0; i < 3; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(Math.round(angles[i] * 100f) / 100f);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,98 @@
+// POSE DISPATCHER - Coalesces sensor-rate orientation into one listener callback per display frame
+package com.example.vrwebviewer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sensor thread calls onOrientation() at whatever rate the hardware delivers; the frame
+ * scheduler calls onFrame() once per vsync. Matrices are only built for the newest sample
+ * and written into a single reusable VRPose, so steady state allocates nothing.
+ */
+public class PoseDispatcher {
+    
+    public interface FrameScheduler {
+        // Ask for exactly one onFrame() call on the next display frame - called from the sensor thread
+        void scheduleFrame();
+    }
+    
+    private static final int CHANNELS = 3; // yaw, pitch, roll
+    
+    private final FrameScheduler scheduler;
+    private final PoseSnapshot snapshot = new PoseSnapshot(CHANNELS);
+    private final AtomicBoolean frameRequested = new AtomicBoolean(false);
+    
+    // Sensor thread
+    private final float[] publishBuffer = new float[CHANNELS];
+    
+    // Frame thread
+    private final float[] readBuffer = new float[CHANNELS];
+    private final VRPose pose = new VRPose();
+    private int dispatchedVersion = 0;
+    private volatile VRManager.VRListener listener;
+    
+    // Counters for diagnostics and tests
+    private volatile long samplesReceived = 0;
+    private volatile long posesDispatched = 0;
+    
+    public PoseDispatcher(FrameScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+    
+    public void setListener(VRManager.VRListener listener) {
+        this.listener = listener;
+    }
+    
+    // Sensor thread: publish the newest orientation and make sure a frame is pending
+    public void onOrientation(long timestampNanos, float yaw, float pitch, float roll) {
+        publishBuffer[0] = yaw;
+        publishBuffer[1] = pitch;
+        publishBuffer[2] = roll;
+        snapshot.publish(timestampNanos, publishBuffer);
+        samplesReceived++;
+        
+        if (!frameRequested.get() && frameRequested.compareAndSet(false, true)) {
+            scheduler.scheduleFrame();
+        }
+    }
+    
+    // Frame thread: build matrices once for the latest sample and notify the listener
+    public void onFrame(long frameTimeNanos) {
+        frameRequested.set(false);
+        
+        int version = snapshot.getVersion();
+        if (version == dispatchedVersion) {
+            return;
+        }
+        
+        long timestamp = snapshot.read(readBuffer);
+        dispatchedVersion = version;
+        
+        pose.set(readBuffer[0], readBuffer[1], readBuffer[2]);
+        pose.timestampNanos = timestamp;
+        pose.frameTimeNanos = frameTimeNanos;
+        
+        VRManager.VRListener target = listener;
+        if (target != null) {
+            target.onPoseUpdated(pose);
+            posesDispatched++;
+        }
+    }
+    
+    // Latest orientation (yaw, pitch, roll) from any thread; returns its timestamp
+    public long readOrientation(float[] out) {
+        return snapshot.read(out);
+    }
+    
+    // Last dispatched pose - only valid on the frame thread
+    public VRPose getPose() {
+        return pose;
+    }
+    
+    public long getSamplesReceived() {
+        return samplesReceived;
+    }
+    
+    public long getPosesDispatched() {
+        return posesDispatched;
+    }
+}
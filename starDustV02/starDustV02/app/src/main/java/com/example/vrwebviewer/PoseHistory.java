@@ -0,0 +1,176 @@
+// POSE HISTORY - Timestamped orientation ring with interpolated lookups
+package com.example.vrwebviewer;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-capacity ring of (timestamp, quaternion) samples for "orientation at time T"
+ * queries: frame-to-pose matching, reprojection and motion-to-photon measurement.
+ * One writer appends in timestamp order; any number of readers binary-search and slerp
+ * without locking. Slots live in atomic arrays, as in PoseSnapshot, so a reader's loads
+ * stay ordered before its re-check of the write count; it retries only if the writer
+ * may have overwritten the oldest slot it read. Quaternions are stored x, y, z, w.
+ */
+public class PoseHistory {
+    
+    private static final int MAX_RETRIES = 4;
+    
+    private final int capacity;
+    private final int mask;
+    private final AtomicLongArray timestamps;
+    private final AtomicIntegerArray quaternions; // float bits
+    private volatile long writeCount = 0;
+    
+    public PoseHistory(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.timestamps = new AtomicLongArray(size);
+        this.quaternions = new AtomicIntegerArray(size * 4);
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    public int size() {
+        return (int) Math.min(writeCount, capacity);
+    }
+    
+    // Writer thread only. Samples that don't move time forward are dropped.
+    public void add(long timestampNanos, float x, float y, float z, float w) {
+        long count = writeCount;
+        if (count > 0 && timestampNanos <= timestamps.get(slot(count - 1))) {
+            return;
+        }
+        
+        int slot = slot(count);
+        timestamps.set(slot, timestampNanos);
+        int base = slot * 4;
+        quaternions.set(base, Float.floatToRawIntBits(x));
+        quaternions.set(base + 1, Float.floatToRawIntBits(y));
+        quaternions.set(base + 2, Float.floatToRawIntBits(z));
+        quaternions.set(base + 3, Float.floatToRawIntBits(w));
+        writeCount = count + 1; // publishes the slot
+    }
+    
+    public void clear() {
+        writeCount = 0;
+    }
+    
+    /**
+     * Orientation at the given time, slerped between the two neighbouring samples and
+     * clamped to the oldest/newest sample outside the stored range. Returns the distance
+     * in nanoseconds from the query to the stored range (0 when inside), or -1 if empty.
+     */
+    public long sample(long timestampNanos, float[] out) {
+        for (int attempt = 0; ; attempt++) {
+            long count = writeCount;
+            if (count == 0) {
+                return -1;
+            }
+            long newest = count - 1;
+            // Leave one slot of slack for the write that may be in progress. A writer that
+            // keeps lapping the search gets the newest sample instead.
+            long oldest = attempt < MAX_RETRIES ? Math.max(0, count - capacity + 1) : newest;
+            long lowestRead = newest;
+            long result;
+            
+            long newestTs = timestamps.get(slot(newest));
+            if (timestampNanos >= newestTs || oldest == newest) {
+                copy(slot(newest), out);
+                result = Math.abs(timestampNanos - newestTs);
+            } else {
+                // Last index with timestamp <= t; oldest - 1 stands for "before the range"
+                long lo = oldest - 1, hi = newest;
+                while (hi - lo > 1) {
+                    long mid = lo + (hi - lo) / 2;
+                    lowestRead = Math.min(lowestRead, mid);
+                    if (timestamps.get(slot(mid)) <= timestampNanos) {
+                        lo = mid;
+                    } else {
+                        hi = mid;
+                    }
+                }
+                if (lo < oldest) {
+                    copy(slot(oldest), out);
+                    result = timestamps.get(slot(oldest)) - timestampNanos;
+                } else {
+                    result = interpolate(slot(lo), slot(hi), timestampNanos, out);
+                }
+            }
+            
+            // The write in progress, if any, overwrites index writeCount - capacity
+            if (writeCount - capacity < lowestRead) {
+                return result;
+            }
+        }
+    }
+    
+    private int slot(long index) {
+        return (int) (index & mask);
+    }
+    
+    private long interpolate(int a, int b, long t, float[] out) {
+        long tsA = timestamps.get(a);
+        long span = timestamps.get(b) - tsA;
+        float fraction = span > 0 ? (float) (t - tsA) / span : 0f;
+        int baseA = a * 4, baseB = b * 4;
+        slerp(component(baseA), component(baseA + 1), component(baseA + 2), component(baseA + 3),
+                component(baseB), component(baseB + 1), component(baseB + 2), component(baseB + 3),
+                fraction, out);
+        return 0;
+    }
+    
+    private float component(int index) {
+        return Float.intBitsToFloat(quaternions.get(index));
+    }
+    
+    private void copy(int slot, float[] out) {
+        int base = slot * 4;
+        for (int i = 0; i < 4; i++) {
+            out[i] = component(base + i);
+        }
+    }
+    
+    // Shortest-path spherical interpolation of unit quaternions (x, y, z, w)
+    public static void slerp(float[] qa, int offsetA, float[] qb, int offsetB, float t, float[] out) {
+        slerp(qa[offsetA], qa[offsetA + 1], qa[offsetA + 2], qa[offsetA + 3],
+                qb[offsetB], qb[offsetB + 1], qb[offsetB + 2], qb[offsetB + 3], t, out);
+    }
+    
+    private static void slerp(float ax, float ay, float az, float aw,
+                              float bx, float by, float bz, float bw, float t, float[] out) {
+        float dot = ax * bx + ay * by + az * bz + aw * bw;
+        if (dot < 0f) {
+            dot = -dot;
+            bx = -bx;
+            by = -by;
+            bz = -bz;
+            bw = -bw;
+        }
+        
+        float wa, wb;
+        if (dot > 0.9995f) {
+            // Nearly identical: lerp and renormalise below
+            wa = 1f - t;
+            wb = t;
+        } else {
+            double theta = Math.acos(dot);
+            double sin = Math.sin(theta);
+            wa = (float) (Math.sin((1 - t) * theta) / sin);
+            wb = (float) (Math.sin(t * theta) / sin);
+        }
+        
+        float x = wa * ax + wb * bx;
+        float y = wa * ay + wb * by;
+        float z = wa * az + wb * bz;
+        float w = wa * aw + wb * bw;
+        float norm = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        out[0] = x / norm;
+        out[1] = y / norm;
+        out[2] = z / norm;
+        out[3] = w / norm;
+    }
+}
@@ -0,0 +1,66 @@
+// POSE SNAPSHOT - Lock-free latest-pose handoff between sensor and render threads
+package com.example.vrwebviewer;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Single-writer seqlock holding the most recent pose as a fixed set of float channels.
+ * The sensor thread publishes, UI and render threads copy it into their own buffers
+ * without taking a lock or allocating.
+ */
+public class PoseSnapshot {
+    
+    private final int channels;
+    private final AtomicIntegerArray values;
+    
+    // Odd while the writer is in the middle of an update
+    private volatile int sequence = 0;
+    private volatile long timestampNanos = 0;
+    
+    public PoseSnapshot(int channels) {
+        this.channels = channels;
+        this.values = new AtomicIntegerArray(channels);
+    }
+    
+    public int getChannelCount() {
+        return channels;
+    }
+    
+    // Writer side - only ever call from the thread that owns the pose
+    public void publish(long timestampNanos, float[] source) {
+        int seq = sequence;
+        sequence = seq + 1;
+        
+        this.timestampNanos = timestampNanos;
+        for (int i = 0; i < channels; i++) {
+            values.set(i, Float.floatToRawIntBits(source[i]));
+        }
+        
+        sequence = seq + 2;
+    }
+    
+    // Reader side - copies a consistent pose into out and returns its timestamp (0 if none yet)
+    public long read(float[] out) {
+        while (true) {
+            int before = sequence;
+            if ((before & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            
+            long timestamp = timestampNanos;
+            for (int i = 0; i < channels; i++) {
+                out[i] = Float.intBitsToFloat(values.get(i));
+            }
+            
+            if (sequence == before) {
+                return timestamp;
+            }
+        }
+    }
+    
+    // Number of completed publishes, lets readers skip work when nothing changed
+    public int getVersion() {
+        return sequence >>> 1;
+    }
+}
@@ -0,0 +1,67 @@
+// POSE THROTTLE - Rate limit and dead band for poses pushed to the page
+package com.example.vrwebviewer;
+
+/**
+ * Decides which head poses are worth sending to the page: no more often than the
+ * configured rate, and only once some angle has moved past the dead band since the
+ * last pose that was sent. A still head therefore costs the page nothing.
+ */
+public class PoseThrottle {
+    
+    private final long minIntervalNanos;
+    private final float minDeltaDegrees;
+    private final float[] lastSent = new float[3];
+    private long lastSentNanos;
+    private boolean hasSent = false;
+    
+    private int accepted = 0;
+    private int rejected = 0;
+    
+    public PoseThrottle(float maxRateHz, float minDeltaDegrees) {
+        this.minIntervalNanos = (long) (1e9 / maxRateHz);
+        this.minDeltaDegrees = minDeltaDegrees;
+    }
+    
+    // Angles in degrees; returns true if this pose should be sent
+    public boolean accept(long timestampNanos, float[] angles) {
+        if (hasSent) {
+            // A quarter interval of slack so a 60 Hz cap doesn't drop jittered 60 Hz frames
+            if (timestampNanos - lastSentNanos < minIntervalNanos - minIntervalNanos / 4
+                    || maxDelta(angles) < minDeltaDegrees) {
+                rejected++;
+                return false;
+            }
+        }
+        System.arraycopy(angles, 0, lastSent, 0, 3);
+        lastSentNanos = timestampNanos;
+        hasSent = true;
+        accepted++;
+        return true;
+    }
+    
+    // Forget the last pose so the next one is always sent, e.g. after a page load
+    public void reset() {
+        hasSent = false;
+    }
+    
+    public int getAccepted() {
+        return accepted;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    private float maxDelta(float[] angles) {
+        float max = 0f;
+        for (int i = 0; i < 3; i++) {
+            float d = Math.abs(angles[i] - lastSent[i]);
+            // Roll and yaw wrap at +-180
+            if (d > 180f) {
+                d = 360f - d;
+            }
+            max = Math.max(max, d);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,98 @@
+// PREFETCH PLANNER - What to warm for a destination, and whether conditions allow it
+package com.example.vrwebviewer;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Pure decisions behind DestinationPrefetcher: how far to go given network and battery
+ * state, and which sub-resources in a page's HTML are worth warming first.
+ */
+public final class PrefetchPlanner {
+    
+    public static final int LEVEL_NONE = 0;     // leave the network alone
+    public static final int LEVEL_CONNECT = 1;  // DNS and a connection to the page origin
+    public static final int LEVEL_FULL = 2;     // plus HTML and critical sub-resources
+    
+    public static final int LOW_BATTERY_PERCENT = 20;
+    public static final int MAX_SUBRESOURCES = 12;
+    
+    private static final Pattern SCRIPT = Pattern.compile(
+            "<script\\b[^>]*?\\bsrc\\s*=\\s*[\"']([^\"']+)[\"']", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LINK = Pattern.compile("<link\\b[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REL = Pattern.compile(
+            "\\brel\\s*=\\s*[\"']?([^\"'>]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HREF = Pattern.compile(
+            "\\bhref\\s*=\\s*[\"']([^\"']+)[\"']", Pattern.CASE_INSENSITIVE);
+    
+    private PrefetchPlanner() {
+    }
+    
+    // batteryPercent < 0 means unknown
+    public static int allowedLevel(boolean connected, boolean metered, int batteryPercent,
+                                   boolean charging, boolean powerSave) {
+        if (!connected || powerSave) {
+            return LEVEL_NONE;
+        }
+        boolean lowBattery = !charging && batteryPercent >= 0 && batteryPercent < LOW_BATTERY_PERCENT;
+        if (metered || lowBattery) {
+            return LEVEL_CONNECT;
+        }
+        return LEVEL_FULL;
+    }
+    
+    // Scripts, stylesheets and preloads in document order, resolved against baseUrl
+    public static List<String> criticalResources(String html, String baseUrl, int max) {
+        Set<String> found = new LinkedHashSet<>();
+        URI base;
+        try {
+            base = new URI(baseUrl);
+        } catch (Exception e) {
+            return new ArrayList<>();
+        }
+        
+        // Walk both tag kinds in one pass so document order is kept
+        Matcher script = SCRIPT.matcher(html);
+        Matcher link = LINK.matcher(html);
+        boolean hasScript = script.find();
+        boolean hasLink = link.find();
+        while ((hasScript || hasLink) && found.size() < max) {
+            if (hasScript && (!hasLink || script.start() < link.start())) {
+                add(found, base, script.group(1));
+                hasScript = script.find();
+            } else {
+                String tag = link.group();
+                Matcher rel = REL.matcher(tag);
+                Matcher href = HREF.matcher(tag);
+                if (rel.find() && href.find() && isCriticalRel(rel.group(1))) {
+                    add(found, base, href.group(1));
+                }
+                hasLink = link.find();
+            }
+        }
+        return new ArrayList<>(found);
+    }
+    
+    private static boolean isCriticalRel(String rel) {
+        String lower = rel.toLowerCase(Locale.US);
+        return lower.contains("stylesheet") || lower.contains("preload") || lower.contains("modulepreload");
+    }
+    
+    private static void add(Set<String> found, URI base, String reference) {
+        try {
+            URI resolved = base.resolve(reference.trim().replace("&amp;", "&"));
+            String scheme = resolved.getScheme();
+            if ("https".equals(scheme) || "http".equals(scheme)) {
+                found.add(resolved.toString());
+            }
+        } catch (Exception e) {
+            // Malformed reference; skip it
+        }
+    }
+}
@@ -0,0 +1,145 @@
+// RENDER PROFILE - Per-origin rules that cut what the hidden WebView rasterises
+package com.example.vrwebviewer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What to switch off on a destination so hiddenWebView.draw() only re-rasterises what
+ * the user can see through a 30 fps capture: offscreen CSS animations and videos,
+ * offscreen layout (content-visibility), device pixel ratio above a cap, and smooth
+ * scrolling. script() installs window.__stardustProfile, which applies or reverts the
+ * rules live so capture cost can be compared both ways.
+ */
+public final class RenderProfile {
+    
+    private static final Map<String, RenderProfile> BUILT_IN = new HashMap<>();
+    
+    static {
+        // Full-screen three.js scenes: canvas size follows devicePixelRatio, no long sections
+        put(new RenderProfile("https://nasa2-git-main-arur17s-projects.vercel.app", true, false, 1f, true));
+        put(new RenderProfile("https://vr-git-main-mohammad-kasims-projects.vercel.app", true, false, 1f, true));
+        // Offline snapshots of the same tours
+        for (String site : new String[]{"moon", "mars", "venus"}) {
+            put(new RenderProfile(SnapshotStore.originFor(site), true, false, 1f, true));
+        }
+        // Long article pages with carousels and autoplay hero video
+        put(new RenderProfile("https://www.nasa.gov", true, true, 1.5f, true));
+        put(new RenderProfile("https://www.constellation-guide.com", true, true, 1.5f, true));
+        put(new RenderProfile("https://trek.nasa.gov", true, false, 1f, true));
+    }
+    
+    public final String origin;
+    public final boolean pauseOffscreenAnimations;
+    public final boolean contentVisibility;
+    public final float maxDevicePixelRatio; // 0 = uncapped
+    public final boolean noSmoothScroll;
+    
+    public RenderProfile(String origin, boolean pauseOffscreenAnimations, boolean contentVisibility,
+                         float maxDevicePixelRatio, boolean noSmoothScroll) {
+        this.origin = origin;
+        this.pauseOffscreenAnimations = pauseOffscreenAnimations;
+        this.contentVisibility = contentVisibility;
+        this.maxDevicePixelRatio = maxDevicePixelRatio;
+        this.noSmoothScroll = noSmoothScroll;
+    }
+    
+    private static void put(RenderProfile profile) {
+        BUILT_IN.put(profile.origin, profile);
+    }
+    
+    // Unknown origins get the rules that are safe on any page
+    public static RenderProfile forOrigin(String origin) {
+        RenderProfile profile = origin != null ? BUILT_IN.get(origin) : null;
+        return profile != null ? profile : new RenderProfile(origin, true, false, 0f, true);
+    }
+    
+    // Installs the profile runtime once per document, enabled or not
+    public String script(boolean enabled) {
+        StringBuilder css = new StringBuilder();
+        if (contentVisibility) {
+            css.append("section, article, aside, footer { content-visibility: auto; contain-intrinsic-size: auto 600px; }");
+        }
+        if (noSmoothScroll) {
+            css.append("html, body, * { scroll-behavior: auto !important; }");
+        }
+        return "(function(cfg) {"
+                + "  if (window.__stardustProfile) return;"
+                + "  var enabled = false, style = null, observer = null, timer = 0, watched = [];"
+                + "  var realDpr = window.devicePixelRatio;"
+                + "  if (cfg.dpr > 0) {"
+                + "    try {"
+                + "      Object.defineProperty(window, 'devicePixelRatio', { configurable: true,"
+                + "        get: function() { return enabled ? Math.min(realDpr, cfg.dpr) : realDpr; } });"
+                + "    } catch (e) {}"
+                + "  }"
+                + "  function whenRoot(fn) {"
+                + "    var root = document.head || document.documentElement;"
+                + "    if (root) { fn(root); return; }"
+                + "    new MutationObserver(function(m, o) {"
+                + "      if (document.documentElement) { o.disconnect(); fn(document.documentElement); }"
+                + "    }).observe(document, { childList: true });"
+                + "  }"
+                + "  function visible(entries) {"
+                + "    entries.forEach(function(e) {"
+                + "      var el = e.target;"
+                + "      if (el.tagName === 'VIDEO') {"
+                + "        if (e.isIntersecting && el.__sdPaused) { el.__sdPaused = false; el.play(); }"
+                + "        else if (!e.isIntersecting && !el.paused) { el.__sdPaused = true; el.pause(); }"
+                + "        return;"
+                + "      }"
+                + "      el.getAnimations().forEach(function(a) {"
+                + "        if (e.isIntersecting && a.__sdPaused) { a.__sdPaused = false; a.play(); }"
+                + "        else if (!e.isIntersecting && a.playState === 'running') { a.__sdPaused = true; a.pause(); }"
+                + "      });"
+                + "    });"
+                + "  }"
+                + "  function watch(el) {"
+                + "    if (el && !el.__sdWatched) { el.__sdWatched = true; watched.push(el); observer.observe(el); }"
+                + "  }"
+                + "  function scan() {"
+                + "    if (document.getAnimations) {"
+                + "      document.getAnimations().forEach(function(a) { if (a.effect) watch(a.effect.target); });"
+                + "    }"
+                + "    var videos = document.getElementsByTagName('video');"
+                + "    for (var i = 0; i < videos.length; i++) watch(videos[i]);"
+                + "  }"
+                + "  function enable() {"
+                + "    if (enabled) return;"
+                + "    enabled = true;"
+                + "    if (cfg.css) {"
+                + "      style = document.createElement('style');"
+                + "      style.textContent = cfg.css;"
+                + "      whenRoot(function(root) { if (enabled && style) root.appendChild(style); });"
+                + "    }"
+                + "    if (cfg.pause && window.IntersectionObserver) {"
+                + "      observer = new IntersectionObserver(visible);"
+                + "      scan();"
+                + "      timer = setInterval(scan, 2000);"
+                + "    }"
+                + "  }"
+                + "  function disable() {"
+                + "    if (!enabled) return;"
+                + "    enabled = false;"
+                + "    if (style && style.parentNode) style.parentNode.removeChild(style);"
+                + "    style = null;"
+                + "    if (observer) { observer.disconnect(); observer = null; clearInterval(timer); }"
+                + "    watched.forEach(function(el) {"
+                + "      el.__sdWatched = false;"
+                + "      if (el.tagName === 'VIDEO') { if (el.__sdPaused) { el.__sdPaused = false; el.play(); } return; }"
+                + "      el.getAnimations().forEach(function(a) { if (a.__sdPaused) { a.__sdPaused = false; a.play(); } });"
+                + "    });"
+                + "    watched = [];"
+                + "  }"
+                + "  window.__stardustProfile = { set: function(on) { if (on) enable(); else disable(); } };"
+                + "  if (cfg.enabled) enable();"
+                + "})({ enabled: " + enabled
+                + ", pause: " + pauseOffscreenAnimations
+                + ", dpr: " + maxDevicePixelRatio
+                + ", css: '" + css + "' });";
+    }
+    
+    public static String toggleScript(boolean enabled) {
+        return "window.__stardustProfile && __stardustProfile.set(" + enabled + ")";
+    }
+}
@@ -0,0 +1,280 @@
+// REQUEST FILTER - Host and path block rules compiled for allocation-free matching
+package com.example.vrwebviewer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compiles block rules into two flat automata and matches URLs against them in one
+ * pass with no allocation, so it can run on every shouldInterceptRequest call.
+ *
+ * Rule syntax, one per entry:
+ *   ||host.example    the host or any subdomain of it
+ *   /path/fragment    a substring of the path and query
+ *   # comment
+ * An optional trailing number is the typical transfer size in KB, used only to
+ * estimate what blocking saved.
+ *
+ * Hosts go into a trie of reversed host names, walked from the end of the URL's host
+ * and accepted at label boundaries. Path fragments go into an Aho-Corasick automaton.
+ * Both are stored as sorted edge arrays per state. Immutable once compiled, so safe to
+ * share between threads.
+ */
+public final class RequestFilter {
+    
+    public static final int NO_MATCH = -1;
+    
+    private final String[] rules;
+    private final int[] estimatedBytes;
+    private final Automaton hosts;
+    private final Automaton paths;
+    
+    private RequestFilter(String[] rules, int[] estimatedBytes, Automaton hosts, Automaton paths) {
+        this.rules = rules;
+        this.estimatedBytes = estimatedBytes;
+        this.hosts = hosts;
+        this.paths = paths;
+    }
+    
+    public static RequestFilter compile(String[] ruleLines) {
+        List<String> rules = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        Builder hostBuilder = new Builder();
+        Builder pathBuilder = new Builder();
+        
+        for (String line : ruleLines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] parts = trimmed.split("\\s+");
+            String pattern = parts[0].toLowerCase(Locale.US);
+            int kb = 0;
+            if (parts.length > 1) {
+                try {
+                    kb = Integer.parseInt(parts[1]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Bad size in rule: " + line);
+                }
+            }
+            
+            int id = rules.size();
+            if (pattern.startsWith("||")) {
+                String host = pattern.substring(2);
+                if (host.isEmpty()) {
+                    throw new IllegalArgumentException("Empty host rule: " + line);
+                }
+                hostBuilder.add(new StringBuilder(host).reverse().toString(), id);
+            } else {
+                pathBuilder.add(pattern, id);
+            }
+            rules.add(pattern);
+            sizes.add(kb * 1024);
+        }
+        
+        pathBuilder.linkFailures();
+        int[] bytes = new int[sizes.size()];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = sizes.get(i);
+        }
+        return new RequestFilter(rules.toArray(new String[0]), bytes, hostBuilder.build(), pathBuilder.build());
+    }
+    
+    // Rule id of the first host rule, else first path rule, that matches; NO_MATCH otherwise
+    public int match(String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            return NO_MATCH;
+        }
+        int hostStart = schemeEnd + 3;
+        int hostEnd = hostStart;
+        int length = url.length();
+        while (hostEnd < length) {
+            char c = url.charAt(hostEnd);
+            if (c == '/' || c == '?' || c == '#' || c == ':') {
+                break;
+            }
+            hostEnd++;
+        }
+        // Skip the port
+        int pathStart = hostEnd;
+        while (pathStart < length && url.charAt(pathStart) != '/' && url.charAt(pathStart) != '?') {
+            pathStart++;
+        }
+        
+        int rule = matchHost(url, hostStart, hostEnd);
+        return rule != NO_MATCH ? rule : matchPath(url, pathStart, length);
+    }
+    
+    private int matchHost(String url, int start, int end) {
+        int state = 0;
+        for (int i = end - 1; i >= start; i--) {
+            state = hosts.next(state, lower(url.charAt(i)));
+            if (state < 0) {
+                return NO_MATCH;
+            }
+            int rule = hosts.output[state];
+            if (rule != NO_MATCH && (i == start || url.charAt(i - 1) == '.')) {
+                return rule;
+            }
+        }
+        return NO_MATCH;
+    }
+    
+    private int matchPath(String url, int start, int end) {
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            char c = lower(url.charAt(i));
+            if (c == '#') {
+                break;
+            }
+            int next = paths.next(state, c);
+            while (next < 0 && state != 0) {
+                state = paths.failure[state];
+                next = paths.next(state, c);
+            }
+            state = next < 0 ? 0 : next;
+            if (paths.output[state] != NO_MATCH) {
+                return paths.output[state];
+            }
+        }
+        return NO_MATCH;
+    }
+    
+    private static char lower(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+    
+    public int getRuleCount() {
+        return rules.length;
+    }
+    
+    public String getRule(int id) {
+        return rules[id];
+    }
+    
+    public int getEstimatedBytes(int id) {
+        return estimatedBytes[id];
+    }
+    
+    // Flattened states: edges of state s are edgeChars/edgeTargets[edgeStart[s] .. edgeStart[s + 1])
+    private static final class Automaton {
+        final int[] edgeStart;
+        final char[] edgeChars;
+        final int[] edgeTargets;
+        final int[] output;
+        final int[] failure;
+        
+        Automaton(int[] edgeStart, char[] edgeChars, int[] edgeTargets, int[] output, int[] failure) {
+            this.edgeStart = edgeStart;
+            this.edgeChars = edgeChars;
+            this.edgeTargets = edgeTargets;
+            this.output = output;
+            this.failure = failure;
+        }
+        
+        int next(int state, char c) {
+            int lo = edgeStart[state];
+            int hi = edgeStart[state + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char m = edgeChars[mid];
+                if (m < c) {
+                    lo = mid + 1;
+                } else if (m > c) {
+                    hi = mid - 1;
+                } else {
+                    return edgeTargets[mid];
+                }
+            }
+            return -1;
+        }
+    }
+    
+    // Compile-time trie; sorted maps give the flattened edges their binary-search order
+    private static final class Builder {
+        private final List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        private final List<Integer> output = new ArrayList<>();
+        private int[] failure;
+        
+        Builder() {
+            newState();
+        }
+        
+        private int newState() {
+            children.add(new TreeMap<>());
+            output.add(NO_MATCH);
+            return children.size() - 1;
+        }
+        
+        void add(String key, int id) {
+            int state = 0;
+            for (int i = 0; i < key.length(); i++) {
+                Integer next = children.get(state).get(key.charAt(i));
+                if (next == null) {
+                    next = newState();
+                    children.get(state).put(key.charAt(i), next);
+                }
+                state = next;
+            }
+            if (output.get(state) == NO_MATCH) {
+                output.set(state, id);
+            }
+        }
+        
+        // Aho-Corasick failure links; a state also reports the output of its failure chain
+        void linkFailures() {
+            failure = new int[children.size()];
+            ArrayDeque<Integer> queue = new ArrayDeque<>(children.get(0).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> edge : children.get(state).entrySet()) {
+                    int child = edge.getValue();
+                    int fallback = failure[state];
+                    Integer target;
+                    while (true) {
+                        target = children.get(fallback).get(edge.getKey());
+                        if (target != null || fallback == 0) {
+                            break;
+                        }
+                        fallback = failure[fallback];
+                    }
+                    failure[child] = target != null ? target : 0;
+                    if (output.get(child) == NO_MATCH) {
+                        output.set(child, output.get(failure[child]));
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+        
+        Automaton build() {
+            int states = children.size();
+            int edges = 0;
+            for (TreeMap<Character, Integer> map : children) {
+                edges += map.size();
+            }
+            int[] edgeStart = new int[states + 1];
+            char[] edgeChars = new char[edges];
+            int[] edgeTargets = new int[edges];
+            int[] out = new int[states];
+            int e = 0;
+            for (int s = 0; s < states; s++) {
+                edgeStart[s] = e;
+                for (Map.Entry<Character, Integer> edge : children.get(s).entrySet()) {
+                    edgeChars[e] = edge.getKey();
+                    edgeTargets[e] = edge.getValue();
+                    e++;
+                }
+                out[s] = output.get(s);
+            }
+            edgeStart[states] = e;
+            return new Automaton(edgeStart, edgeChars, edgeTargets, out,
+                    failure != null ? failure : new int[states]);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+// SENSOR CHANNEL - Ring buffer and subscriber fan-out for one hardware sensor
+package com.example.vrwebviewer;
+
+/**
+ * Keeps the recent samples of one sensor in flat primitive arrays and hands them to
+ * subscribers. Full-rate subscribers get every event; decimated ones get the mean of the
+ * samples since their last delivery (or the latest sample for orientation sensors).
+ * dispatch() runs on the hub thread only; subscribers may be added or removed from any thread.
+ */
+public class SensorChannel {
+    
+    public static final int CAPACITY = 128; // power of two
+    public static final int STRIDE = 6;
+    private static final int MASK = CAPACITY - 1;
+    private static final SensorHub.Subscription[] NONE = new SensorHub.Subscription[0];
+    
+    private final int sensorType;
+    private final boolean averageOnDecimate;
+    
+    // Ring - hub thread only
+    private final long[] timestamps = new long[CAPACITY];
+    private final float[] samples = new float[CAPACITY * STRIDE];
+    private long writeCount = 0;
+    
+    private volatile SensorHub.Subscription[] subscriptions = NONE;
+    
+    // Current hardware registration, guarded by the hub
+    int registeredPeriodUs = SensorSamplingPolicy.SENSOR_OFF;
+    int registeredLatencyUs = 0;
+    
+    public SensorChannel(int sensorType, boolean averageOnDecimate) {
+        this.sensorType = sensorType;
+        this.averageOnDecimate = averageOnDecimate;
+    }
+    
+    public int getSensorType() {
+        return sensorType;
+    }
+    
+    public long getSamplesReceived() {
+        return writeCount;
+    }
+    
+    public SensorHub.Subscription[] getSubscriptions() {
+        return subscriptions;
+    }
+    
+    public synchronized void add(SensorHub.Subscription subscription) {
+        SensorHub.Subscription[] current = subscriptions;
+        SensorHub.Subscription[] next = new SensorHub.Subscription[current.length + 1];
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = subscription;
+        subscriptions = next;
+    }
+    
+    public synchronized boolean remove(SensorHub.Subscription subscription) {
+        SensorHub.Subscription[] current = subscriptions;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == subscription) {
+                SensorHub.Subscription[] next = new SensorHub.Subscription[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, current.length - i - 1);
+                subscriptions = next.length == 0 ? NONE : next;
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public void dispatch(long timestampNanos, float[] values, int count) {
+        count = Math.min(count, STRIDE);
+        int slot = (int) (writeCount & MASK);
+        timestamps[slot] = timestampNanos;
+        System.arraycopy(values, 0, samples, slot * STRIDE, count);
+        writeCount++;
+        
+        SensorHub.Subscription[] targets = subscriptions;
+        for (SensorHub.Subscription sub : targets) {
+            if (sub.nextIndex < 0) {
+                // First sample since subscribing is always delivered
+                sub.nextIndex = writeCount - 1;
+                sub.lastDeliveryNanos = timestampNanos - sub.periodNanos;
+            }
+            
+            if (sub.periodNanos == 0) {
+                sub.nextIndex = writeCount;
+                sub.delivered++;
+                sub.subscriber.onSensorSample(sensorType, timestampNanos, values, count);
+                continue;
+            }
+            
+            long sinceLast = timestampNanos - sub.lastDeliveryNanos;
+            if (sinceLast < sub.periodNanos) {
+                continue;
+            }
+            // Hold the requested cadence unless we've fallen a whole period behind
+            sub.lastDeliveryNanos = sinceLast < 2 * sub.periodNanos
+                    ? sub.lastDeliveryNanos + sub.periodNanos : timestampNanos;
+            
+            if (averageOnDecimate) {
+                average(sub, count);
+            } else {
+                System.arraycopy(samples, slot * STRIDE, sub.scratch, 0, count);
+            }
+            sub.nextIndex = writeCount;
+            sub.delivered++;
+            sub.subscriber.onSensorSample(sensorType, timestampNanos, sub.scratch, count);
+        }
+    }
+    
+    private void average(SensorHub.Subscription sub, int count) {
+        long from = Math.max(sub.nextIndex, writeCount - CAPACITY);
+        int n = (int) (writeCount - from);
+        float[] out = sub.scratch;
+        for (int c = 0; c < count; c++) {
+            out[c] = 0f;
+        }
+        for (long i = from; i < writeCount; i++) {
+            int base = (int) (i & MASK) * STRIDE;
+            for (int c = 0; c < count; c++) {
+                out[c] += samples[base + c];
+            }
+        }
+        for (int c = 0; c < count; c++) {
+            out[c] /= n;
+        }
+    }
+}
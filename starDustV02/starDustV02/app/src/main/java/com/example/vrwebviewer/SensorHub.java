@@ -0,0 +1,210 @@
+// SENSOR HUB - Process-wide sensor registration shared by every activity
+package com.example.vrwebviewer;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.view.WindowManager;
+
+/**
+ * Registers each hardware sensor once, on a single sensor thread, and fans samples out
+ * to subscribers at their requested rates. A sensor is registered while it has at least
+ * one subscription, using the fastest rate any subscriber's sampling mode asks for; the
+ * thread itself runs while anything is subscribed. Subscribers are called on the hub thread.
+ */
+public final class SensorHub implements SensorEventListener {
+    
+    public interface Subscriber {
+        // values is reused after the call returns; only the first count entries are valid
+        void onSensorSample(int sensorType, long timestampNanos, float[] values, int count);
+    }
+    
+    public static final class Subscription {
+        final int sensorType;
+        final long periodNanos;
+        final Subscriber subscriber;
+        final float[] scratch = new float[SensorChannel.STRIDE];
+        int mode;
+        
+        // Hub thread only
+        long nextIndex = -1;
+        long lastDeliveryNanos;
+        long delivered;
+        
+        // maxRateHz <= 0 means every sample
+        Subscription(int sensorType, int mode, float maxRateHz, Subscriber subscriber) {
+            this.sensorType = sensorType;
+            this.mode = mode;
+            this.periodNanos = maxRateHz > 0 ? (long) (1_000_000_000L / maxRateHz) : 0;
+            this.subscriber = subscriber;
+        }
+        
+        public int getSensorType() {
+            return sensorType;
+        }
+        
+        public long getDelivered() {
+            return delivered;
+        }
+    }
+    
+    private static final String TAG = "SensorHub";
+    private static SensorHub instance;
+    
+    private final SensorManager sensorManager;
+    private final SensorSamplingPolicy policy;
+    private final SensorThread thread = new SensorThread("SensorHub");
+    private volatile SensorChannel[] channels = new SensorChannel[0];
+    private int activeSubscriptions = 0;
+    
+    public static synchronized SensorHub getInstance(Context context) {
+        if (instance == null) {
+            instance = new SensorHub(context.getApplicationContext());
+        }
+        return instance;
+    }
+    
+    private SensorHub(Context context) {
+        sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
+        WindowManager wm = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        policy = new SensorSamplingPolicy(wm.getDefaultDisplay().getRefreshRate());
+    }
+    
+    public SensorSamplingPolicy getPolicy() {
+        return policy;
+    }
+    
+    public boolean hasSensor(int sensorType) {
+        return sensorManager != null && sensorManager.getDefaultSensor(sensorType) != null;
+    }
+    
+    // Returns null when the device has no such sensor
+    public synchronized Subscription subscribe(int sensorType, int mode, float maxRateHz, Subscriber subscriber) {
+        if (!hasSensor(sensorType)) {
+            return null;
+        }
+        
+        if (activeSubscriptions++ == 0) {
+            thread.start();
+        }
+        Subscription subscription = new Subscription(sensorType, mode, maxRateHz, subscriber);
+        SensorChannel channel = getOrCreateChannel(sensorType);
+        channel.add(subscription);
+        updateRegistration(channel);
+        return subscription;
+    }
+    
+    public synchronized void unsubscribe(Subscription subscription) {
+        if (subscription == null) {
+            return;
+        }
+        
+        SensorChannel channel = findChannel(subscription.sensorType);
+        if (channel != null && channel.remove(subscription)) {
+            updateRegistration(channel);
+            if (--activeSubscriptions == 0) {
+                thread.quit();
+            }
+        }
+    }
+    
+    public synchronized void setMode(Subscription subscription, int mode) {
+        if (subscription == null || subscription.mode == mode) {
+            return;
+        }
+        
+        subscription.mode = mode;
+        SensorChannel channel = findChannel(subscription.sensorType);
+        if (channel != null) {
+            updateRegistration(channel);
+        }
+    }
+    
+    // Runs on the hub thread, or inline when nothing is subscribed
+    public void post(Runnable action) {
+        thread.post(action);
+    }
+    
+    // Drains batched FIFOs; call on a frame boundary
+    public void flush() {
+        if (sensorManager != null) {
+            sensorManager.flush(this);
+        }
+    }
+    
+    public long getSamplesReceived(int sensorType) {
+        SensorChannel channel = findChannel(sensorType);
+        return channel != null ? channel.getSamplesReceived() : 0;
+    }
+    
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        SensorChannel channel = findChannel(event.sensor.getType());
+        if (channel != null) {
+            channel.dispatch(event.timestamp, event.values, event.values.length);
+        }
+    }
+    
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {}
+    
+    // Registers at the fastest rate and shortest batch any subscriber needs
+    private void updateRegistration(SensorChannel channel) {
+        int type = channel.getSensorType();
+        int periodUs = Integer.MAX_VALUE;
+        int latencyUs = Integer.MAX_VALUE;
+        for (Subscription sub : channel.getSubscriptions()) {
+            int subPeriod = policy.getSamplingPeriodUs(sub.mode, type);
+            if (subPeriod == SensorSamplingPolicy.SENSOR_OFF) continue;
+            periodUs = Math.min(periodUs, subPeriod);
+            latencyUs = Math.min(latencyUs, policy.getMaxReportLatencyUs(sub.mode, type));
+        }
+        if (periodUs == Integer.MAX_VALUE) {
+            periodUs = SensorSamplingPolicy.SENSOR_OFF;
+            latencyUs = 0;
+        }
+        
+        if (periodUs == channel.registeredPeriodUs && latencyUs == channel.registeredLatencyUs) {
+            return;
+        }
+        
+        Sensor sensor = sensorManager.getDefaultSensor(type);
+        if (channel.registeredPeriodUs != SensorSamplingPolicy.SENSOR_OFF) {
+            sensorManager.unregisterListener(this, sensor);
+        }
+        if (periodUs != SensorSamplingPolicy.SENSOR_OFF) {
+            Handler handler = thread.getHandler();
+            int fifoLatency = sensor.getFifoMaxEventCount() > 0 ? latencyUs : 0;
+            sensorManager.registerListener(this, sensor, periodUs, fifoLatency, handler);
+        }
+        channel.registeredPeriodUs = periodUs;
+        channel.registeredLatencyUs = latencyUs;
+    }
+    
+    private SensorChannel findChannel(int sensorType) {
+        for (SensorChannel channel : channels) {
+            if (channel.getSensorType() == sensorType) {
+                return channel;
+            }
+        }
+        return null;
+    }
+    
+    private SensorChannel getOrCreateChannel(int sensorType) {
+        SensorChannel channel = findChannel(sensorType);
+        if (channel == null) {
+            // Rates average cleanly; orientation quaternions are decimated by picking the latest
+            boolean average = sensorType != Sensor.TYPE_ROTATION_VECTOR
+                    && sensorType != Sensor.TYPE_GAME_ROTATION_VECTOR;
+            channel = new SensorChannel(sensorType, average);
+            SensorChannel[] next = new SensorChannel[channels.length + 1];
+            System.arraycopy(channels, 0, next, 0, channels.length);
+            next[channels.length] = channel;
+            channels = next;
+        }
+        return channel;
+    }
+}
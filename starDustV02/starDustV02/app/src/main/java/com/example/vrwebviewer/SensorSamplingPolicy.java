@@ -0,0 +1,114 @@
+// SENSOR SAMPLING POLICY - Per-mode sampling periods and FIFO batching for each sensor
+package com.example.vrwebviewer;
+
+import android.hardware.Sensor;
+
+/**
+ * Decides how fast each sensor runs and how long the hardware FIFO may hold its samples.
+ * Head-tracking sensors are tied to the display rate and never batched while tracking;
+ * everything else is batched for a whole number of frames so flush() can be issued on
+ * a frame boundary (see getFlushIntervalMillis()).
+ */
+public class SensorSamplingPolicy {
+    
+    public static final int MODE_IDLE = 0;
+    public static final int MODE_VR_TRACKING = 1;
+    public static final int MODE_CALIBRATION = 2;
+    public static final int MODE_BATTERY_SAVER = 3;
+    
+    // Returned for sensors that should not be registered in a mode
+    public static final int SENSOR_OFF = -1;
+    
+    private static final float DEFAULT_REFRESH_HZ = 60f;
+    
+    // Head-tracking rate bounds: 400 Hz down to 50 Hz
+    private static final int MIN_TRACKING_PERIOD_US = 2_500;
+    private static final int MAX_TRACKING_PERIOD_US = 20_000;
+    // Battery saver still tracks, but no faster than 60 Hz
+    private static final int SAVER_TRACKING_PERIOD_US = 16_667;
+    private static final int IDLE_PERIOD_US = 100_000;
+    
+    private final int framePeriodUs;
+    
+    public SensorSamplingPolicy(float displayRefreshHz) {
+        float hz = displayRefreshHz >= 1f ? displayRefreshHz : DEFAULT_REFRESH_HZ;
+        framePeriodUs = Math.round(1_000_000f / hz);
+    }
+    
+    public static int selectMode(boolean tracking, boolean calibrating, boolean batterySaver) {
+        if (calibrating) return MODE_CALIBRATION;
+        if (!tracking) return MODE_IDLE;
+        return batterySaver ? MODE_BATTERY_SAVER : MODE_VR_TRACKING;
+    }
+    
+    public int getFramePeriodUs() {
+        return framePeriodUs;
+    }
+    
+    public int getSamplingPeriodUs(int mode, int sensorType) {
+        if (isTrackingSensor(sensorType)) {
+            switch (mode) {
+                case MODE_VR_TRACKING:
+                    // Two samples per displayed frame for fusion
+                    return clampTracking(framePeriodUs / 2);
+                case MODE_CALIBRATION:
+                    return clampTracking(framePeriodUs);
+                case MODE_BATTERY_SAVER:
+                    return Math.max(SAVER_TRACKING_PERIOD_US, clampTracking(framePeriodUs));
+                default:
+                    return IDLE_PERIOD_US;
+            }
+        }
+        
+        switch (sensorType) {
+            case Sensor.TYPE_ACCELEROMETER:
+                // Only feeds stationary detection for the gyro bias
+                if (mode == MODE_CALIBRATION) return 10_000;
+                return mode == MODE_IDLE ? IDLE_PERIOD_US : 20_000;
+            case Sensor.TYPE_MAGNETIC_FIELD:
+                // Only read for the one-shot orientation baseline
+                if (mode == MODE_VR_TRACKING) return 100_000;
+                return mode == MODE_CALIBRATION ? 50_000 : SENSOR_OFF;
+            default:
+                return mode == MODE_IDLE ? IDLE_PERIOD_US : framePeriodUs;
+        }
+    }
+    
+    public int getMaxReportLatencyUs(int mode, int sensorType) {
+        if (isTrackingSensor(sensorType) && mode != MODE_IDLE) {
+            return 0;
+        }
+        return getBatchFrames(mode) * framePeriodUs;
+    }
+    
+    // Frames a batched sensor may sit in the FIFO before it is flushed
+    public int getBatchFrames(int mode) {
+        switch (mode) {
+            case MODE_VR_TRACKING:
+                return 6;
+            case MODE_CALIBRATION:
+                return 3;
+            case MODE_BATTERY_SAVER:
+                return 15;
+            default:
+                return 30;
+        }
+    }
+    
+    // Delay for Choreographer.postFrameCallbackDelayed() so the flush lands on the
+    // vsync that ends the batch window
+    public long getFlushIntervalMillis(int mode) {
+        return (getBatchFrames(mode) - 1) * (long) framePeriodUs / 1000;
+    }
+    
+    private static boolean isTrackingSensor(int sensorType) {
+        return sensorType == Sensor.TYPE_GYROSCOPE
+                || sensorType == Sensor.TYPE_GYROSCOPE_UNCALIBRATED
+                || sensorType == Sensor.TYPE_ROTATION_VECTOR
+                || sensorType == Sensor.TYPE_GAME_ROTATION_VECTOR;
+    }
+    
+    private static int clampTracking(int periodUs) {
+        return Math.max(MIN_TRACKING_PERIOD_US, Math.min(MAX_TRACKING_PERIOD_US, periodUs));
+    }
+}
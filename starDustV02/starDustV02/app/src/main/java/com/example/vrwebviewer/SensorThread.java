@@ -0,0 +1,52 @@
+// SENSOR THREAD - Dedicated high-priority looper for sensor delivery
+package com.example.vrwebviewer;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+
+/**
+ * Keeps sensor callbacks off the main looper so WebView drawing, layout and the
+ * capture handler can't delay head tracking. Pass getHandler() to registerListener().
+ */
+public class SensorThread {
+    
+    private final String name;
+    private HandlerThread thread;
+    private Handler handler;
+    
+    public SensorThread(String name) {
+        this.name = name;
+    }
+    
+    public synchronized Handler start() {
+        if (thread == null) {
+            thread = new HandlerThread(name, Process.THREAD_PRIORITY_URGENT_DISPLAY);
+            thread.start();
+            handler = new Handler(thread.getLooper());
+        }
+        return handler;
+    }
+    
+    public synchronized Handler getHandler() {
+        return handler;
+    }
+    
+    // Runs the action on the sensor thread, or inline when the thread isn't running
+    public void post(Runnable action) {
+        Handler target = getHandler();
+        if (target != null) {
+            target.post(action);
+        } else {
+            action.run();
+        }
+    }
+    
+    public synchronized void quit() {
+        if (thread != null) {
+            thread.quitSafely();
+            thread = null;
+            handler = null;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+// SENSOR TRACE - Binary format shared by the trace recorder and replayer
+package com.example.vrwebviewer;
+
+/**
+ * Little-endian stream:
+ *   header  "SDTR" magic (int), version (short), reserved (short), first timestamp ns (long)
+ *   sample  sensor type (byte), value count (byte), timestamp delta ns (int), values (float x count)
+ *   resync  TYPE_RESYNC (byte), 0 (byte), absolute timestamp ns (long) - emitted when a delta won't fit
+ * A 3-axis sample costs 18 bytes.
+ */
+public final class SensorTrace {
+    
+    public static final int MAGIC = 0x52544453; // "SDTR" read little-endian
+    public static final short VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    
+    // Sensor type codes match android.hardware.Sensor.TYPE_* so events can be stored as-is
+    public static final int TYPE_ACCELEROMETER = 1;
+    public static final int TYPE_MAGNETIC_FIELD = 2;
+    public static final int TYPE_GYROSCOPE = 4;
+    public static final int TYPE_ROTATION_VECTOR = 11;
+    
+    static final int TYPE_RESYNC = 0xFF;
+    static final int MAX_VALUES = 8;
+    static final int SAMPLE_HEADER_BYTES = 6;
+    static final int RESYNC_BYTES = 10;
+    
+    public static final String FILE_EXTENSION = ".sdtr";
+    
+    private SensorTrace() {}
+    
+    public static int sampleBytes(int valueCount) {
+        return SAMPLE_HEADER_BYTES + valueCount * 4;
+    }
+}
@@ -0,0 +1,140 @@
+// SENSOR TRACE RECORDER - Streams raw sensor events to a compact binary trace
+package com.example.vrwebviewer;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Called from the sensor thread. Samples are packed into one of two preallocated buffers;
+ * a full buffer is handed to a background writer while recording continues in the other,
+ * so the sensor thread never allocates per event and rarely waits on I/O.
+ */
+public class SensorTraceRecorder {
+    
+    private static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+    
+    private final OutputStream out;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private ByteBuffer active;
+    private ByteBuffer spare;
+    private Future<?> pendingWrite;
+    
+    private boolean headerWritten = false;
+    private boolean closed = false;
+    private long lastTimestampNanos;
+    private long samplesRecorded = 0;
+    private volatile IOException writeError;
+    
+    public SensorTraceRecorder(OutputStream out) {
+        this(out, DEFAULT_BUFFER_BYTES);
+    }
+    
+    public SensorTraceRecorder(OutputStream out, int bufferBytes) {
+        this.out = out;
+        this.active = ByteBuffer.allocate(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+        this.spare = ByteBuffer.allocate(bufferBytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    
+    // Opens a new timestamped trace file in dir, e.g. vr-1718000000000.sdtr
+    public static SensorTraceRecorder create(File dir, String prefix) throws IOException {
+        if (dir == null || (!dir.isDirectory() && !dir.mkdirs())) {
+            throw new IOException("Trace directory unavailable: " + dir);
+        }
+        File file = new File(dir, prefix + "-" + System.currentTimeMillis() + SensorTrace.FILE_EXTENSION);
+        return new SensorTraceRecorder(new FileOutputStream(file));
+    }
+    
+    public void record(int sensorType, long timestampNanos, float[] values) {
+        record(sensorType, timestampNanos, values, Math.min(values.length, SensorTrace.MAX_VALUES));
+    }
+    
+    public synchronized void record(int sensorType, long timestampNanos, float[] values, int count) {
+        if (closed) return;
+        
+        if (!headerWritten) {
+            active.putInt(SensorTrace.MAGIC);
+            active.putShort(SensorTrace.VERSION);
+            active.putShort((short) 0);
+            active.putLong(timestampNanos);
+            lastTimestampNanos = timestampNanos;
+            headerWritten = true;
+        }
+        
+        long delta = timestampNanos - lastTimestampNanos;
+        boolean resync = delta < 0 || delta > Integer.MAX_VALUE;
+        int needed = SensorTrace.sampleBytes(count) + (resync ? SensorTrace.RESYNC_BYTES : 0);
+        if (active.remaining() < needed) {
+            swapBuffers();
+        }
+        
+        if (resync) {
+            active.put((byte) SensorTrace.TYPE_RESYNC);
+            active.put((byte) 0);
+            active.putLong(timestampNanos);
+            delta = 0;
+        }
+        
+        active.put((byte) sensorType);
+        active.put((byte) count);
+        active.putInt((int) delta);
+        for (int i = 0; i < count; i++) {
+            active.putFloat(values[i]);
+        }
+        lastTimestampNanos = timestampNanos;
+        samplesRecorded++;
+    }
+    
+    public synchronized long getSamplesRecorded() {
+        return samplesRecorded;
+    }
+    
+    // Flushes everything recorded so far and closes the stream; rethrows any background write error
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        
+        swapBuffers();
+        awaitPendingWrite();
+        writer.shutdown();
+        out.close();
+        
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+    
+    private void swapBuffers() {
+        awaitPendingWrite();
+        
+        final ByteBuffer full = active;
+        active = spare;
+        spare = full;
+        active.clear();
+        
+        if (full.position() == 0) return;
+        pendingWrite = writer.submit(() -> {
+            try {
+                out.write(full.array(), full.arrayOffset(), full.position());
+            } catch (IOException e) {
+                writeError = e;
+            }
+        });
+    }
+    
+    private void awaitPendingWrite() {
+        if (pendingWrite == null) return;
+        try {
+            pendingWrite.get();
+        } catch (Exception e) {
+            writeError = new IOException("Trace write failed", e);
+        }
+        pendingWrite = null;
+    }
+}
@@ -0,0 +1,80 @@
+// SENSOR TRACE REPLAYER - Deterministic playback of recorded sensor traces
+package com.example.vrwebviewer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Feeds a trace back in recorded order with the original nanosecond timestamps.
+ * Playback is synchronous and clock-free, so the same trace always produces the same
+ * output - use it to benchmark and regression-test the tracking pipelines on the JVM.
+ */
+public class SensorTraceReplayer {
+    
+    public interface SampleListener {
+        // values is reused between calls; only the first count entries are valid
+        void onSample(int sensorType, long timestampNanos, float[] values, int count);
+    }
+    
+    private final ByteBuffer data;
+    private final long firstTimestampNanos;
+    private final float[] values = new float[SensorTrace.MAX_VALUES];
+    
+    public SensorTraceReplayer(byte[] trace) throws IOException {
+        data = ByteBuffer.wrap(trace).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < SensorTrace.HEADER_BYTES || data.getInt() != SensorTrace.MAGIC) {
+            throw new IOException("Not a sensor trace");
+        }
+        short version = data.getShort();
+        if (version != SensorTrace.VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+        data.getShort();
+        firstTimestampNanos = data.getLong();
+    }
+    
+    public static SensorTraceReplayer fromStream(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[16 * 1024];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+        return new SensorTraceReplayer(bytes.toByteArray());
+    }
+    
+    public long getFirstTimestampNanos() {
+        return firstTimestampNanos;
+    }
+    
+    // Plays the whole trace from the start and returns the number of samples delivered
+    public int replay(SampleListener listener) throws IOException {
+        data.position(SensorTrace.HEADER_BYTES);
+        long timestamp = firstTimestampNanos;
+        int samples = 0;
+        
+        while (data.remaining() >= SensorTrace.SAMPLE_HEADER_BYTES) {
+            int type = data.get() & 0xFF;
+            int count = data.get() & 0xFF;
+            
+            if (type == SensorTrace.TYPE_RESYNC) {
+                timestamp = data.getLong();
+                continue;
+            }
+            if (count > SensorTrace.MAX_VALUES || data.remaining() < 4 + count * 4) {
+                throw new IOException("Corrupt trace at byte " + data.position());
+            }
+            
+            timestamp += data.getInt();
+            for (int i = 0; i < count; i++) {
+                values[i] = data.getFloat();
+            }
+            listener.onSample(type, timestamp, values, count);
+            samples++;
+        }
+        return samples;
+    }
+}
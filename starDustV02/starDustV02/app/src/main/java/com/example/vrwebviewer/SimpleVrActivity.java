@@ -9,13 +9,15 @@ import androidx.appcompat.app.AppCompatActivity;
 
 public class SimpleVrActivity extends AppCompatActivity {
     
+    private WebView webView;
+    
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         
         try {
             // Simple VR layout
-            WebView webView = new WebView(this);
+            webView = WebViewPool.getInstance(this).acquire(this);
             webView.getSettings().setJavaScriptEnabled(true);
             webView.setWebViewClient(new WebViewClient());
             
@@ -32,4 +34,12 @@ public class SimpleVrActivity extends AppCompatActivity {
             finish();
         }
     }
+    
+    @Override
+    protected void onDestroy() {
+        if (webView != null) {
+            WebViewPool.getInstance(this).release(webView);
+        }
+        super.onDestroy();
+    }
 }
\ No newline at end of file
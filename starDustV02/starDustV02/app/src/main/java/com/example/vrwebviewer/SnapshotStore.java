@@ -0,0 +1,359 @@
+// SNAPSHOT STORE - Versioned offline copies of the planet VR sites on disk
+package com.example.vrwebviewer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Installs snapshot archives (zip files with a snapshot.properties manifest at the
+ * root) into root/site/v(version)/ and resolves request paths against the current
+ * version. A new archive only replaces the installed one when its version is higher.
+ * Sites are served on their own virtual origin, https://site.stardust.invalid, so
+ * absolute paths inside a snapshot keep working; .invalid never resolves on a real
+ * network.
+ *
+ * Manifest keys: site, version (int), entry (path of the start page, default
+ * index.html), update (https URL of the next archive, optional), update.key (hex
+ * X.509 EC public key that must have signed it), live (the site it copies).
+ */
+public class SnapshotStore {
+    
+    public static final String ORIGIN_SUFFIX = ".stardust.invalid";
+    public static final String MANIFEST = "snapshot.properties";
+    
+    private static final String CURRENT = "current";
+    private static final String UPDATE_TAG = "update.tag";
+    private static final String INCOMING = "incoming.tmp";
+    
+    public static final class Manifest {
+        public final String site;
+        public final int version;
+        public final String entry;
+        public final String updateUrl;
+        public final String updateKey;
+        public final String liveUrl;
+        
+        Manifest(Properties properties) throws IOException {
+            site = properties.getProperty("site");
+            String entryPath = properties.getProperty("entry", "index.html");
+            entry = entryPath.startsWith("/") ? entryPath.substring(1) : entryPath;
+            updateUrl = properties.getProperty("update");
+            updateKey = properties.getProperty("update.key");
+            liveUrl = properties.getProperty("live");
+            try {
+                version = Integer.parseInt(properties.getProperty("version", ""));
+            } catch (NumberFormatException e) {
+                throw new IOException("Snapshot manifest has no valid version");
+            }
+            if (site == null || site.isEmpty()) {
+                throw new IOException("Snapshot manifest has no site");
+            }
+        }
+    }
+    
+    private final File root;
+    private final Map<String, Manifest> current = new HashMap<>();
+    
+    public SnapshotStore(File root) {
+        this.root = root;
+    }
+    
+    public static String originFor(String site) {
+        return "https://" + site + ORIGIN_SUFFIX;
+    }
+    
+    // Site key for a virtual origin host, or null for any other host
+    public static String siteForHost(String host) {
+        if (host == null || !host.endsWith(ORIGIN_SUFFIX)) {
+            return null;
+        }
+        String site = host.substring(0, host.length() - ORIGIN_SUFFIX.length());
+        return site.isEmpty() || site.indexOf('.') >= 0 ? null : site;
+    }
+    
+    // Installed manifest, or null when the site has no snapshot
+    public synchronized Manifest getManifest(String site) {
+        if (current.containsKey(site)) {
+            return current.get(site);
+        }
+        Manifest manifest = null;
+        try {
+            File dir = versionDir(site, readCurrentVersion(site));
+            if (dir != null) {
+                manifest = readManifest(new File(dir, MANIFEST));
+            }
+        } catch (IOException e) {
+            manifest = null;
+        }
+        current.put(site, manifest);
+        return manifest;
+    }
+    
+    public String entryUrl(String site) {
+        Manifest manifest = getManifest(site);
+        return manifest != null ? originFor(site) + "/" + manifest.entry : null;
+    }
+    
+    /**
+     * Extracts the archive and makes it current if it is for this site and newer than
+     * what is installed. Returns the new manifest, or null if the archive was older.
+     */
+    public Manifest install(String site, InputStream archive) throws IOException {
+        File siteDir = new File(root, site);
+        File incoming = new File(siteDir, INCOMING);
+        deleteRecursively(incoming);
+        if (!incoming.mkdirs()) {
+            throw new IOException("Cannot create " + incoming);
+        }
+        
+        try {
+            extract(archive, incoming);
+            Manifest manifest = readManifest(new File(incoming, MANIFEST));
+            if (!site.equals(manifest.site)) {
+                throw new IOException("Archive is for " + manifest.site + ", not " + site);
+            }
+            
+            synchronized (this) {
+                Manifest installed = getManifest(site);
+                if (installed != null && installed.version >= manifest.version) {
+                    return null;
+                }
+                File target = new File(siteDir, "v" + manifest.version);
+                deleteRecursively(target);
+                if (!incoming.renameTo(target)) {
+                    throw new IOException("Cannot move snapshot into place");
+                }
+                writeAtomically(new File(siteDir, CURRENT), Integer.toString(manifest.version));
+                current.put(site, manifest);
+                
+                // Files already open from older versions stay readable until closed
+                File[] versions = siteDir.listFiles();
+                if (versions != null) {
+                    for (File version : versions) {
+                        if (version.isDirectory() && version.getName().startsWith("v") && !version.equals(target)) {
+                            deleteRecursively(version);
+                        }
+                    }
+                }
+                return manifest;
+            }
+        } finally {
+            deleteRecursively(incoming);
+        }
+    }
+    
+    // True if signatureHex is a SHA256withECDSA signature of the archive by keyHex, the
+    // hex X.509 encoding of an EC public key (openssl ec -pubout -outform DER)
+    public static boolean verify(File archive, String keyHex, String signatureHex) {
+        try {
+            PublicKey key = KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(fromHex(keyHex)));
+            Signature signature = Signature.getInstance("SHA256withECDSA");
+            signature.initVerify(key);
+            try (InputStream in = new FileInputStream(archive)) {
+                byte[] buffer = new byte[16 * 1024];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    signature.update(buffer, 0, n);
+                }
+            }
+            return signature.verify(fromHex(signatureHex));
+        } catch (GeneralSecurityException | IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    // File for a request path in the current snapshot, or null if absent or unsafe
+    public File resolve(String site, String path) {
+        Manifest manifest = getManifest(site);
+        if (manifest == null) {
+            return null;
+        }
+        String relative = path == null ? "" : path;
+        while (relative.startsWith("/")) {
+            relative = relative.substring(1);
+        }
+        if (relative.isEmpty()) {
+            relative = manifest.entry;
+        }
+        for (String segment : relative.split("/")) {
+            if (segment.equals("..")) {
+                return null;
+            }
+        }
+        File dir = new File(new File(root, site), "v" + manifest.version);
+        File file = new File(dir, relative);
+        if (file.isDirectory()) {
+            file = new File(file, "index.html");
+        }
+        return file.isFile() ? file : null;
+    }
+    
+    // Validator from the last update response, sent back on the next check
+    public String getUpdateTag(String site) {
+        File file = new File(new File(root, site), UPDATE_TAG);
+        try {
+            return file.isFile() ? readText(file) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    public void setUpdateTag(String site, String tag) throws IOException {
+        File siteDir = new File(root, site);
+        if (!siteDir.isDirectory() && !siteDir.mkdirs()) {
+            throw new IOException("Cannot create " + siteDir);
+        }
+        writeAtomically(new File(siteDir, UPDATE_TAG), tag);
+    }
+    
+    public static String mimeTypeFor(String path) {
+        String lower = path.toLowerCase(Locale.US);
+        int dot = lower.lastIndexOf('.');
+        String ext = dot >= 0 ? lower.substring(dot + 1) : "";
+        switch (ext) {
+            case "html": case "htm": return "text/html";
+            case "js": case "mjs": return "text/javascript";
+            case "css": return "text/css";
+            case "json": case "gltf": return "application/json";
+            case "svg": return "image/svg+xml";
+            case "png": return "image/png";
+            case "jpg": case "jpeg": return "image/jpeg";
+            case "webp": return "image/webp";
+            case "gif": return "image/gif";
+            case "woff": return "font/woff";
+            case "woff2": return "font/woff2";
+            case "ttf": return "font/ttf";
+            case "wasm": return "application/wasm";
+            case "glb": return "model/gltf-binary";
+            case "mp3": return "audio/mpeg";
+            case "ogg": return "audio/ogg";
+            default: return "application/octet-stream";
+        }
+    }
+    
+    private int readCurrentVersion(String site) throws IOException {
+        File file = new File(new File(root, site), CURRENT);
+        if (!file.isFile()) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(readText(file).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private File versionDir(String site, int version) {
+        if (version < 0) {
+            return null;
+        }
+        File dir = new File(new File(root, site), "v" + version);
+        return dir.isDirectory() ? dir : null;
+    }
+    
+    private static Manifest readManifest(File file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            properties.load(in);
+        }
+        return new Manifest(properties);
+    }
+    
+    private static void extract(InputStream archive, File dir) throws IOException {
+        String base = dir.getCanonicalPath() + File.separator;
+        ZipInputStream zip = new ZipInputStream(archive);
+        byte[] buffer = new byte[16 * 1024];
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            File out = new File(dir, entry.getName());
+            // Reject entries that would land outside the snapshot directory
+            if (!out.getCanonicalPath().startsWith(base)) {
+                throw new IOException("Unsafe archive entry: " + entry.getName());
+            }
+            if (entry.isDirectory()) {
+                if (!out.isDirectory() && !out.mkdirs()) {
+                    throw new IOException("Cannot create " + out);
+                }
+                continue;
+            }
+            File parent = out.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Cannot create " + parent);
+            }
+            try (OutputStream stream = new FileOutputStream(out)) {
+                int n;
+                while ((n = zip.read(buffer)) > 0) {
+                    stream.write(buffer, 0, n);
+                }
+            }
+        }
+    }
+    
+    private static byte[] fromHex(String hex) {
+        String digits = hex.trim();
+        if (digits.length() % 2 != 0) {
+            throw new IllegalArgumentException("Odd hex length");
+        }
+        byte[] bytes = new byte[digits.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int high = Character.digit(digits.charAt(2 * i), 16);
+            int low = Character.digit(digits.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("Bad hex digit");
+            }
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+    
+    private static String readText(File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] data = new byte[(int) file.length()];
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                if (n < 0) {
+                    break;
+                }
+                read += n;
+            }
+            return new String(data, 0, read, "UTF-8");
+        }
+    }
+    
+    private static void writeAtomically(File file, String text) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            out.write(text.getBytes("UTF-8"));
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("Cannot replace " + file);
+        }
+    }
+    
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -16,6 +16,10 @@ public class SplashActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_splash);
 
+        // Chromium start-up happens while the splash is showing, not on the first page
+        WebViewPool.getInstance(this).prewarm();
+        OfflineSnapshots.getInstance(this).refresh();
+
         new Handler(Looper.getMainLooper()).postDelayed(() -> {
             startActivity(new Intent(this, MainActivity.class));
             finish();
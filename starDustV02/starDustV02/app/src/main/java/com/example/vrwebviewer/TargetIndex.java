@@ -0,0 +1,183 @@
+// TARGET INDEX - Uniform-grid spatial index of clickable page rectangles
+package com.example.vrwebviewer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Clickable element rectangles in page (CSS document) coordinates, bucketed into a
+ * uniform grid so the crosshair's nearest target is found by looking only at the
+ * cells around it. Updates just mark the grid dirty; it is rebuilt on the next query,
+ * so per-frame queries don't allocate while the page is stable. Not thread-safe.
+ */
+public class TargetIndex {
+    
+    public static final int NONE = -1;
+    // Keeps very long pages from producing huge grids
+    private static final int MAX_CELLS = 1 << 16;
+    
+    private final float baseCellSize;
+    private final Map<Integer, float[]> rects = new HashMap<>();
+    private boolean dirty = false;
+    
+    // Grid in CSR form: items of cell c are cellItems[cellStart[c] .. cellStart[c + 1])
+    private float cellSize;
+    private float originX, originY;
+    private int cols = 0, rows = 0;
+    private int[] cellStart = new int[1];
+    private int[] cellItems = new int[0];
+    private int[] ids = new int[0];
+    private float[] bounds = new float[0]; // x, y, w, h per item
+    
+    public TargetIndex(float cellSize) {
+        this.baseCellSize = cellSize;
+        this.cellSize = cellSize;
+    }
+    
+    public void put(int id, float x, float y, float width, float height) {
+        rects.put(id, new float[]{x, y, width, height});
+        dirty = true;
+    }
+    
+    public void remove(int id) {
+        if (rects.remove(id) != null) {
+            dirty = true;
+        }
+    }
+    
+    public void clear() {
+        rects.clear();
+        dirty = true;
+    }
+    
+    public int size() {
+        return rects.size();
+    }
+    
+    /**
+     * Id of the rectangle closest to (x, y) within radius, measured to its edge (0
+     * inside it), or NONE. Its x, y, w, h go into outRect.
+     */
+    public int nearest(float x, float y, float radius, float[] outRect) {
+        if (dirty) {
+            rebuild();
+        }
+        if (ids.length == 0) {
+            return NONE;
+        }
+        
+        int c0 = clamp((int) Math.floor((x - radius - originX) / cellSize), cols);
+        int c1 = clamp((int) Math.floor((x + radius - originX) / cellSize), cols);
+        int r0 = clamp((int) Math.floor((y - radius - originY) / cellSize), rows);
+        int r1 = clamp((int) Math.floor((y + radius - originY) / cellSize), rows);
+        
+        int best = -1;
+        float bestDistance = radius * radius;
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int cell = row * cols + col;
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    int item = cellItems[i];
+                    float distance = distanceSquared(item, x, y);
+                    // Ties go to the smaller target, which is usually the more specific one
+                    if (distance < bestDistance || (distance == bestDistance && best >= 0 && area(item) < area(best))) {
+                        best = item;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        if (best < 0) {
+            return NONE;
+        }
+        System.arraycopy(bounds, best * 4, outRect, 0, 4);
+        return ids[best];
+    }
+    
+    private float distanceSquared(int item, float x, float y) {
+        float left = bounds[item * 4];
+        float top = bounds[item * 4 + 1];
+        float dx = Math.max(0f, Math.max(left - x, x - (left + bounds[item * 4 + 2])));
+        float dy = Math.max(0f, Math.max(top - y, y - (top + bounds[item * 4 + 3])));
+        return dx * dx + dy * dy;
+    }
+    
+    private float area(int item) {
+        return bounds[item * 4 + 2] * bounds[item * 4 + 3];
+    }
+    
+    private static int clamp(int value, int count) {
+        return Math.max(0, Math.min(count - 1, value));
+    }
+    
+    private void rebuild() {
+        dirty = false;
+        int count = rects.size();
+        ids = new int[count];
+        bounds = new float[count * 4];
+        
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        int n = 0;
+        for (Map.Entry<Integer, float[]> entry : rects.entrySet()) {
+            float[] r = entry.getValue();
+            ids[n] = entry.getKey();
+            System.arraycopy(r, 0, bounds, n * 4, 4);
+            minX = Math.min(minX, r[0]);
+            minY = Math.min(minY, r[1]);
+            maxX = Math.max(maxX, r[0] + r[2]);
+            maxY = Math.max(maxY, r[1] + r[3]);
+            n++;
+        }
+        if (count == 0) {
+            cols = rows = 0;
+            cellStart = new int[1];
+            cellItems = new int[0];
+            return;
+        }
+        
+        cellSize = baseCellSize;
+        originX = minX;
+        originY = minY;
+        cols = (int) ((maxX - minX) / cellSize) + 1;
+        rows = (int) ((maxY - minY) / cellSize) + 1;
+        while ((long) cols * rows > MAX_CELLS) {
+            cellSize *= 2;
+            cols = (int) ((maxX - minX) / cellSize) + 1;
+            rows = (int) ((maxY - minY) / cellSize) + 1;
+        }
+        
+        // Count, prefix-sum, fill: each rectangle goes into every cell it overlaps
+        int cells = cols * rows;
+        int[] counts = new int[cells + 1];
+        for (int item = 0; item < count; item++) {
+            forEachCell(item, counts, null, null);
+        }
+        cellStart = new int[cells + 1];
+        for (int c = 0; c < cells; c++) {
+            cellStart[c + 1] = cellStart[c] + counts[c];
+        }
+        cellItems = new int[cellStart[cells]];
+        int[] fill = new int[cells];
+        for (int item = 0; item < count; item++) {
+            forEachCell(item, null, fill, cellItems);
+        }
+    }
+    
+    private void forEachCell(int item, int[] counts, int[] fill, int[] items) {
+        int c0 = clamp((int) ((bounds[item * 4] - originX) / cellSize), cols);
+        int c1 = clamp((int) ((bounds[item * 4] + bounds[item * 4 + 2] - originX) / cellSize), cols);
+        int r0 = clamp((int) ((bounds[item * 4 + 1] - originY) / cellSize), rows);
+        int r1 = clamp((int) ((bounds[item * 4 + 1] + bounds[item * 4 + 3] - originY) / cellSize), rows);
+        for (int row = r0; row <= r1; row++) {
+            for (int col = c0; col <= c1; col++) {
+                int cell = row * cols + col;
+                if (counts != null) {
+                    counts[cell]++;
+                } else {
+                    items[cellStart[cell] + fill[cell]++] = item;
+                }
+            }
+        }
+    }
+}
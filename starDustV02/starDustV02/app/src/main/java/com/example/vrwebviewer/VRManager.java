@@ -3,61 +3,66 @@ package com.example.vrwebviewer;
 
 import android.content.Context;
 import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
-import android.hardware.SensorManager;
 import android.opengl.Matrix;
+import android.util.Log;
+import android.view.Choreographer;
 import android.view.Display;
 import android.view.WindowManager;
+import java.io.IOException;
 
 // Custom VR implementation without Google VR SDK
 
-public class VRManager implements SensorEventListener {
+public class VRManager implements SensorHub.Subscriber {
+    
+    private static final String TAG = "VRManager";
     
     private Context context;
-    private SensorManager sensorManager;
-    private Sensor rotationSensor, gyroSensor;
+    private final SensorHub sensorHub;
+    private SensorHub.Subscription rotationSubscription, gyroSubscription;
     private VRSettings vrSettings;
     
     // VR matrices
-    private float[] headMatrix = new float[16];
-    private float[] eyeMatrix = new float[16];
     private float[] projectionMatrix = new float[16];
     
-    // Head tracking
-    private float[] rotationMatrix = new float[16];
-    private float[] orientation = new float[3];
-    private float[] gyroValues = new float[3];
-    
-    // Movement smoothing
-    private float[] smoothedRotation = new float[3];
-    private long lastUpdateTime = 0;
-    
+    // Head tracking - owned by the sensor thread, pure Java so traces can replay through it
+    private final OrientationTracker orientationTracker = new OrientationTracker();
+    private volatile SensorTraceRecorder traceRecorder;
+    
+    // ~2 s of rotation-vector samples for "pose at time T" lookups from any thread
+    private final PoseHistory poseHistory = new PoseHistory(512);
+    private final float[] sampleQuaternion = new float[4]; // sensor thread only
+    
+    // Samples arrive on the hub thread; poses reach listeners once per display frame via the dispatcher
+    public static final int POSE_YAW = 0;
+    public static final int POSE_PITCH = 1;
+    public static final int POSE_ROLL = 2;
+    private final Choreographer choreographer;
+    private final Choreographer.FrameCallback frameCallback;
+    private final PoseDispatcher poseDispatcher;
+    
+    /**
+     * Called on the main thread at most once per display frame with the newest pose.
+     * The VRPose and its arrays are reused - copy anything needed after the callback returns.
+     */
     public interface VRListener {
-        void onHeadRotationChanged(float[] headMatrix);
-        void onEyeMatrixChanged(float[] leftEye, float[] rightEye);
+        void onPoseUpdated(VRPose pose);
     }
     
-    private VRListener vrListener;
-    
     public VRManager(Context context) {
         this.context = context;
         this.vrSettings = new VRSettings(context);
-        initSensors();
+        this.sensorHub = SensorHub.getInstance(context);
+        
+        // Must be constructed on the main thread - frames are delivered on its Choreographer
+        choreographer = Choreographer.getInstance();
+        poseDispatcher = new PoseDispatcher(this::scheduleFrame);
+        frameCallback = poseDispatcher::onFrame;
+        
         initMatrices();
     }
     
-    private void initSensors() {
-        sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
-        rotationSensor = sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR);
-        gyroSensor = sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE);
-    }
-    
     private void initMatrices() {
-        Matrix.setIdentityM(headMatrix, 0);
-        Matrix.setIdentityM(eyeMatrix, 0);
         Matrix.setIdentityM(projectionMatrix, 0);
-        Matrix.setIdentityM(rotationMatrix, 0);
         
         // Setup projection matrix for VR
         float fov = 90.0f;
@@ -73,116 +78,104 @@ public class VRManager implements SensorEventListener {
         return (float) size.x / size.y / 2.0f; // Divide by 2 for stereo
     }
     
+    private void scheduleFrame() {
+        choreographer.postFrameCallback(frameCallback);
+    }
+    
     public void startTracking() {
-        if (rotationSensor != null) {
-            sensorManager.registerListener(this, rotationSensor, SensorManager.SENSOR_DELAY_GAME);
-        }
-        if (gyroSensor != null) {
-            sensorManager.registerListener(this, gyroSensor, SensorManager.SENSOR_DELAY_GAME);
+        stopSubscriptions();
+        
+        // Settings are read once here so the sensor path never touches SharedPreferences
+        final float sensitivity = vrSettings.getGyroSensitivity();
+        final float smoothing = vrSettings.getSmoothMovement();
+        final float yawLimit = vrSettings.getVrYawLimit();
+        final float pitchLimit = vrSettings.getVrPitchLimit();
+        sensorHub.post(() -> orientationTracker.configure(sensitivity, smoothing, yawLimit, pitchLimit));
+        
+        if (vrSettings.getRecordSensorTrace() && traceRecorder == null) {
+            try {
+                traceRecorder = SensorTraceRecorder.create(context.getExternalFilesDir("traces"), "vrmanager");
+            } catch (IOException e) {
+                Log.e(TAG, "Trace recorder unavailable", e);
+            }
         }
+        
+        // Both feed fusion directly, so they take every sample
+        int mode = SensorSamplingPolicy.selectMode(true, false, vrSettings.getBatterySaver());
+        rotationSubscription = sensorHub.subscribe(Sensor.TYPE_ROTATION_VECTOR, mode, 0, this);
+        gyroSubscription = sensorHub.subscribe(Sensor.TYPE_GYROSCOPE, mode, 0, this);
     }
     
     public void stopTracking() {
-        sensorManager.unregisterListener(this);
-    }
-    
-    @Override
-    public void onSensorChanged(SensorEvent event) {
-        long currentTime = System.currentTimeMillis();
+        stopSubscriptions();
+        choreographer.removeFrameCallback(frameCallback);
         
-        if (event.sensor.getType() == Sensor.TYPE_ROTATION_VECTOR) {
-            handleRotationVector(event.values);
-        } else if (event.sensor.getType() == Sensor.TYPE_GYROSCOPE) {
-            handleGyroscope(event.values, currentTime);
+        if (traceRecorder != null) {
+            try {
+                traceRecorder.close();
+            } catch (IOException e) {
+                Log.e(TAG, "Trace recorder close failed", e);
+            }
+            traceRecorder = null;
         }
-        
-        updateHeadMatrix();
-        lastUpdateTime = currentTime;
     }
     
-    private void handleRotationVector(float[] values) {
-        SensorManager.getRotationMatrixFromVector(rotationMatrix, values);
-        SensorManager.getOrientation(rotationMatrix, orientation);
-        
-        // Apply sensitivity and limits
-        float sensitivity = vrSettings.getGyroSensitivity();
-        float yawLimit = vrSettings.getVrYawLimit();
-        float pitchLimit = vrSettings.getVrPitchLimit();
-        
-        orientation[0] = Math.max(-yawLimit, Math.min(yawLimit, orientation[0] * sensitivity));
-        orientation[1] = Math.max(-pitchLimit, Math.min(pitchLimit, orientation[1] * sensitivity));
+    private void stopSubscriptions() {
+        sensorHub.unsubscribe(rotationSubscription);
+        sensorHub.unsubscribe(gyroSubscription);
+        rotationSubscription = gyroSubscription = null;
     }
     
-    private void handleGyroscope(float[] values, long currentTime) {
-        if (lastUpdateTime == 0) return;
-        
-        float dt = (currentTime - lastUpdateTime) / 1000.0f;
-        float smoothing = vrSettings.getSmoothMovement();
+    @Override
+    public void onSensorSample(int sensorType, long timestampNanos, float[] values, int count) {
+        SensorTraceRecorder recorder = traceRecorder;
+        if (recorder != null) {
+            recorder.record(sensorType, timestampNanos, values, count);
+        }
         
-        // Integrate gyroscope data
-        for (int i = 0; i < 3; i++) {
-            gyroValues[i] = values[i] * dt * vrSettings.getGyroSensitivity();
-            smoothedRotation[i] = smoothedRotation[i] * smoothing + gyroValues[i] * (1 - smoothing);
+        orientationTracker.onSample(sensorType, timestampNanos, values, count);
+        if (sensorType == Sensor.TYPE_ROTATION_VECTOR) {
+            orientationTracker.getQuaternion(sampleQuaternion);
+            poseHistory.add(timestampNanos, sampleQuaternion[0], sampleQuaternion[1],
+                    sampleQuaternion[2], sampleQuaternion[3]);
         }
+        poseDispatcher.onOrientation(timestampNanos, orientationTracker.getYaw(),
+                orientationTracker.getPitch(), orientationTracker.getRoll());
     }
     
-    private void updateHeadMatrix() {
-        // Create head transformation matrix
-        Matrix.setIdentityM(headMatrix, 0);
-        
-        // Apply rotations
-        Matrix.rotateM(headMatrix, 0, (float) Math.toDegrees(orientation[1]), 1, 0, 0); // Pitch
-        Matrix.rotateM(headMatrix, 0, (float) Math.toDegrees(orientation[0]), 0, 1, 0); // Yaw
-        Matrix.rotateM(headMatrix, 0, (float) Math.toDegrees(orientation[2]), 0, 0, 1); // Roll
-        
-        if (vrListener != null) {
-            vrListener.onHeadRotationChanged(headMatrix);
-            
-            // Generate eye matrices for stereo rendering
-            float[] leftEye = new float[16];
-            float[] rightEye = new float[16];
-            generateEyeMatrices(leftEye, rightEye);
-            vrListener.onEyeMatrixChanged(leftEye, rightEye);
-        }
+    public void setVRListener(VRListener listener) {
+        poseDispatcher.setListener(listener);
     }
     
-    private void generateEyeMatrices(float[] leftEye, float[] rightEye) {
-        float eyeSeparation = 0.064f; // 64mm IPD
-        
-        // Left eye
-        Matrix.setIdentityM(leftEye, 0);
-        Matrix.translateM(leftEye, 0, -eyeSeparation / 2, 0, 0);
-        Matrix.multiplyMM(leftEye, 0, headMatrix, 0, leftEye, 0);
-        
-        // Right eye
-        Matrix.setIdentityM(rightEye, 0);
-        Matrix.translateM(rightEye, 0, eyeSeparation / 2, 0, 0);
-        Matrix.multiplyMM(rightEye, 0, headMatrix, 0, rightEye, 0);
+    // Copies into caller-owned buffers so per-frame readers don't allocate; main thread only
+    public void getHeadMatrix(float[] out) {
+        System.arraycopy(poseDispatcher.getPose().headMatrix, 0, out, 0, 16);
     }
     
-    public void setVRListener(VRListener listener) {
-        this.vrListener = listener;
+    public void getProjectionMatrix(float[] out) {
+        System.arraycopy(projectionMatrix, 0, out, 0, 16);
     }
     
-    public float[] getHeadMatrix() {
-        return headMatrix.clone();
+    // Lock-free read of the latest orientation, safe from any thread; returns the sample timestamp
+    public long readPose(float[] out) {
+        return poseDispatcher.readOrientation(out);
     }
     
-    public float[] getProjectionMatrix() {
-        return projectionMatrix.clone();
+    // Device orientation (x, y, z, w) at a SensorEvent/frame timestamp, slerped between samples.
+    // Returns how far outside the recorded range the query was (0 if inside), or -1 if none yet.
+    public long getOrientationAt(long timestampNanos, float[] outQuaternion) {
+        return poseHistory.sample(timestampNanos, outQuaternion);
     }
     
     public void calibrateCenter() {
-        // Reset orientation to current position as center
-        Matrix.setIdentityM(headMatrix, 0);
-        smoothedRotation = new float[3];
-        orientation = new float[3];
+        // Reset orientation to current position as center - tracking state belongs to the sensor thread
+        sensorHub.post(() -> {
+            orientationTracker.reset();
+            poseDispatcher.onOrientation(orientationTracker.getLastTimestampNanos(), 0f, 0f, 0f);
+        });
     }
     
     public boolean isVRReady() {
-        return rotationSensor != null || gyroSensor != null;
+        return sensorHub.hasSensor(Sensor.TYPE_ROTATION_VECTOR) || sensorHub.hasSensor(Sensor.TYPE_GYROSCOPE);
     }
-    
-    @Override
-    public void onAccuracyChanged(Sensor sensor, int accuracy) {}
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+// VR POSE - Reusable head and eye matrices delivered to VRManager listeners
+package com.example.vrwebviewer;
+
+/**
+ * One instance is owned by the dispatcher and refilled every display frame.
+ * Listeners must copy anything they want to keep past the callback.
+ * Matrices are column-major 4x4, laid out like android.opengl.Matrix.
+ */
+public class VRPose {
+    
+    public static final float EYE_SEPARATION = 0.064f; // 64mm IPD
+    
+    public final float[] headMatrix = new float[16];
+    public final float[] leftEye = new float[16];
+    public final float[] rightEye = new float[16];
+    
+    // Orientation in radians as produced by the sensor pipeline
+    public float yaw, pitch, roll;
+    
+    // Sensor time of the newest sample folded into this pose, and the frame it was delivered on
+    public long timestampNanos;
+    public long frameTimeNanos;
+    
+    public VRPose() {
+        set(0f, 0f, 0f);
+    }
+    
+    // Head = Rx(pitch) * Ry(yaw) * Rz(roll), eyes offset by half the IPD along the head's x axis
+    public void set(float yaw, float pitch, float roll) {
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.roll = roll;
+        
+        float cp = (float) Math.cos(pitch), sp = (float) Math.sin(pitch);
+        float cy = (float) Math.cos(yaw), sy = (float) Math.sin(yaw);
+        float cr = (float) Math.cos(roll), sr = (float) Math.sin(roll);
+        
+        // Rx * Ry, row-major
+        float a00 = cy,       a01 = 0f, a02 = sy;
+        float a10 = sp * sy,  a11 = cp, a12 = -sp * cy;
+        float a20 = -cp * sy, a21 = sp, a22 = cp * cy;
+        
+        float[] m = headMatrix;
+        m[0] = a00 * cr + a01 * sr;  m[4] = a01 * cr - a00 * sr;  m[8] = a02;   m[12] = 0f;
+        m[1] = a10 * cr + a11 * sr;  m[5] = a11 * cr - a10 * sr;  m[9] = a12;   m[13] = 0f;
+        m[2] = a20 * cr + a21 * sr;  m[6] = a21 * cr - a20 * sr;  m[10] = a22;  m[14] = 0f;
+        m[3] = 0f;                   m[7] = 0f;                   m[11] = 0f;   m[15] = 1f;
+        
+        setEye(leftEye, -EYE_SEPARATION / 2f);
+        setEye(rightEye, EYE_SEPARATION / 2f);
+    }
+    
+    // head * translate(offset, 0, 0)
+    private void setEye(float[] eye, float offset) {
+        System.arraycopy(headMatrix, 0, eye, 0, 16);
+        eye[12] = headMatrix[0] * offset;
+        eye[13] = headMatrix[1] * offset;
+        eye[14] = headMatrix[2] * offset;
+    }
+}
@@ -15,13 +15,24 @@ public class VRSettings {
     public static final String PREF_SHOW_DEBUG = "show_debug";
     public static final String PREF_AUTO_CALIBRATE = "auto_calibrate";
     public static final String PREF_HAPTIC_FEEDBACK = "haptic_feedback";
+    public static final String PREF_HEAD_GESTURES = "head_gestures";
+    public static final String PREF_NOD_THRESHOLD = "nod_threshold";
+    public static final String PREF_SHAKE_THRESHOLD = "shake_threshold";
     public static final String PREF_CROSSHAIR_SIZE = "crosshair_size";
     public static final String PREF_CROSSHAIR_COLOR = "crosshair_color";
     public static final String PREF_CLICK_DELAY = "click_delay";
+    public static final String PREF_NATIVE_INPUT = "native_input";
+    public static final String PREF_DWELL_RADIUS = "dwell_radius";
+    public static final String PREF_DWELL_COOLDOWN = "dwell_cooldown";
     public static final String PREF_BLE_ENABLED = "ble_enabled";
     public static final String PREF_SMOOTH_MOVEMENT = "smooth_movement";
     public static final String PREF_ZOOM_SENSITIVITY = "zoom_sensitivity";
     public static final String PREF_PERFORMANCE_MODE = "performance_mode";
+    public static final String PREF_MIRRORED_STEREO = "mirrored_stereo";
+    public static final String PREF_IMAGE_DOWNSAMPLING = "image_downsampling";
+    public static final String PREF_BLOCK_TRACKERS = "block_trackers";
+    public static final String PREF_OFFLINE_SNAPSHOTS = "offline_snapshots";
+    public static final String PREF_GAZE_SNAP = "gaze_snap";
     public static final String PREF_BATTERY_SAVER = "battery_saver";
     public static final String PREF_VR_HEAD_TRACKING = "vr_head_tracking";
     public static final String PREF_VR_MOVEMENT_SCALE = "vr_movement_scale";
@@ -29,6 +40,11 @@ public class VRSettings {
     public static final String PREF_VR_PITCH_LIMIT = "vr_pitch_limit";
     public static final String PREF_VR_CALIBRATED = "vr_calibrated";
     public static final String PREF_CALIBRATION_DATA = "calibration_data";
+    public static final String PREF_GYRO_BIAS = "gyro_bias";
+    public static final String PREF_RECORD_SENSOR_TRACE = "record_sensor_trace";
+    public static final String PREF_FIRST_FRAME_STATS = "first_frame_stats";
+    public static final String PREF_RENDER_PROFILE_PREFIX = "render_profile_";
+    public static final String PREF_RENDER_COST_PREFIX = "render_cost_";
     
     private SharedPreferences prefs;
     
@@ -119,6 +135,24 @@ public class VRSettings {
         prefs.edit().putFloat(PREF_CLICK_DELAY, delay).apply();
     }
     
+    // Max crosshair drift (fraction of the view) that still counts as dwelling
+    public float getDwellRadius() {
+        return prefs.getFloat(PREF_DWELL_RADIUS, 0.012f);
+    }
+    
+    public void setDwellRadius(float radius) {
+        prefs.edit().putFloat(PREF_DWELL_RADIUS, radius).apply();
+    }
+    
+    // Seconds after a dwell click before a new dwell can start
+    public float getDwellCooldown() {
+        return prefs.getFloat(PREF_DWELL_COOLDOWN, 0.5f);
+    }
+    
+    public void setDwellCooldown(float seconds) {
+        prefs.edit().putFloat(PREF_DWELL_COOLDOWN, seconds).apply();
+    }
+    
     // Interaction Settings
     public boolean getAutoCalibrate() {
         return prefs.getBoolean(PREF_AUTO_CALIBRATE, true);
@@ -136,6 +170,40 @@ public class VRSettings {
         prefs.edit().putBoolean(PREF_HAPTIC_FEEDBACK, enabled).apply();
     }
     
+    // Double nod to click, shake to go back
+    public boolean getHeadGestures() {
+        return prefs.getBoolean(PREF_HEAD_GESTURES, true);
+    }
+    
+    public void setHeadGestures(boolean enabled) {
+        prefs.edit().putBoolean(PREF_HEAD_GESTURES, enabled).apply();
+    }
+    
+    // Per-user gesture speeds (rad/s), learned during the calibration tutorial
+    public float getNodThreshold() {
+        return prefs.getFloat(PREF_NOD_THRESHOLD, HeadGestureRecognizer.DEFAULT_THRESHOLD);
+    }
+    
+    public float getShakeThreshold() {
+        return prefs.getFloat(PREF_SHAKE_THRESHOLD, HeadGestureRecognizer.DEFAULT_THRESHOLD);
+    }
+    
+    public void setGestureThresholds(float nod, float shake) {
+        prefs.edit()
+            .putFloat(PREF_NOD_THRESHOLD, nod)
+            .putFloat(PREF_SHAKE_THRESHOLD, shake)
+            .apply();
+    }
+    
+    // Deliver clicks as synthesised touch events rather than DOM events
+    public boolean getNativeInput() {
+        return prefs.getBoolean(PREF_NATIVE_INPUT, true);
+    }
+    
+    public void setNativeInput(boolean enabled) {
+        prefs.edit().putBoolean(PREF_NATIVE_INPUT, enabled).apply();
+    }
+    
     // Connectivity Settings
     public boolean getBleEnabled() {
         return prefs.getBoolean(PREF_BLE_ENABLED, false);
@@ -145,6 +213,51 @@ public class VRSettings {
         prefs.edit().putBoolean(PREF_BLE_ENABLED, enabled).apply();
     }
     
+    // One WebView for both eyes, the second eye mirrors it
+    public boolean getMirroredStereo() {
+        return prefs.getBoolean(PREF_MIRRORED_STEREO, true);
+    }
+    
+    public void setMirroredStereo(boolean enabled) {
+        prefs.edit().putBoolean(PREF_MIRRORED_STEREO, enabled).apply();
+    }
+    
+    // Re-encode oversized page images at eye resolution (VrActivity only)
+    public boolean getImageDownsampling() {
+        return prefs.getBoolean(PREF_IMAGE_DOWNSAMPLING, false);
+    }
+    
+    public void setImageDownsampling(boolean enabled) {
+        prefs.edit().putBoolean(PREF_IMAGE_DOWNSAMPLING, enabled).apply();
+    }
+    
+    // Drop analytics, ads and social embeds while in VR
+    public boolean getBlockTrackers() {
+        return prefs.getBoolean(PREF_BLOCK_TRACKERS, true);
+    }
+    
+    public void setBlockTrackers(boolean enabled) {
+        prefs.edit().putBoolean(PREF_BLOCK_TRACKERS, enabled).apply();
+    }
+    
+    // Enter planet sites from their installed offline snapshot when there is one
+    public boolean getOfflineSnapshots() {
+        return prefs.getBoolean(PREF_OFFLINE_SNAPSHOTS, true);
+    }
+    
+    public void setOfflineSnapshots(boolean enabled) {
+        prefs.edit().putBoolean(PREF_OFFLINE_SNAPSHOTS, enabled).apply();
+    }
+    
+    // Snap the dwell crosshair to the nearest clickable element
+    public boolean getGazeSnap() {
+        return prefs.getBoolean(PREF_GAZE_SNAP, true);
+    }
+    
+    public void setGazeSnap(boolean enabled) {
+        prefs.edit().putBoolean(PREF_GAZE_SNAP, enabled).apply();
+    }
+    
     // Performance Modes
     public boolean getPerformanceMode() {
         return prefs.getBoolean(PREF_PERFORMANCE_MODE, false);
@@ -213,6 +326,63 @@ public class VRSettings {
         prefs.edit().putBoolean(PREF_VR_CALIBRATED, calibrated).apply();
     }
     
+    // Debug: record raw sensor events to a binary trace for offline tuning
+    public boolean getRecordSensorTrace() {
+        return prefs.getBoolean(PREF_RECORD_SENSOR_TRACE, false);
+    }
+    
+    public void setRecordSensorTrace(boolean enabled) {
+        prefs.edit().putBoolean(PREF_RECORD_SENSOR_TRACE, enabled).apply();
+    }
+    
+    // Streaming gyro bias estimate, carried over between sessions
+    public void setGyroBias(float[] bias) {
+        prefs.edit().putString(PREF_GYRO_BIAS, bias[0] + "," + bias[1] + "," + bias[2]).apply();
+    }
+    
+    public float[] getGyroBias() {
+        String data = prefs.getString(PREF_GYRO_BIAS, null);
+        if (data == null || data.isEmpty()) return null;
+        
+        try {
+            String[] values = data.split(",");
+            if (values.length != 3) return null;
+            return new float[]{
+                Float.parseFloat(values[0]),
+                Float.parseFloat(values[1]),
+                Float.parseFloat(values[2])
+            };
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    // Cold vs prefetched VR time-to-first-frame, encoded by FirstFrameStats
+    public String getFirstFrameStats() {
+        return prefs.getString(PREF_FIRST_FRAME_STATS, null);
+    }
+    
+    public void setFirstFrameStats(String encoded) {
+        prefs.edit().putString(PREF_FIRST_FRAME_STATS, encoded).apply();
+    }
+    
+    // Per-origin render profile switch and its measured capture cost
+    public boolean getRenderProfileEnabled(String origin) {
+        return prefs.getBoolean(PREF_RENDER_PROFILE_PREFIX + origin, true);
+    }
+    
+    public void setRenderProfileEnabled(String origin, boolean enabled) {
+        prefs.edit().putBoolean(PREF_RENDER_PROFILE_PREFIX + origin, enabled).apply();
+    }
+    
+    public String getRenderCost(String origin) {
+        return prefs.getString(PREF_RENDER_COST_PREFIX + origin, null);
+    }
+    
+    public void setRenderCost(String origin, String encoded) {
+        prefs.edit().putString(PREF_RENDER_COST_PREFIX + origin, encoded).apply();
+    }
+    
     // Calibration Data Storage
     public void saveCalibrationData(float[][] points) {
         StringBuilder data = new StringBuilder();
@@ -256,6 +426,9 @@ public class VRSettings {
             .putInt(PREF_VR_FPS, 30)
             .putFloat(PREF_GYRO_SENSITIVITY, 2.5f)
             .putFloat(PREF_CLICK_DELAY, 3.0f)
+            .putFloat(PREF_DWELL_RADIUS, 0.012f)
+            .putFloat(PREF_DWELL_COOLDOWN, 0.5f)
+            .putBoolean(PREF_NATIVE_INPUT, true)
             .putFloat(PREF_CROSSHAIR_SIZE, 1.0f)
             .putInt(PREF_CROSSHAIR_COLOR, 0xFFFFFFFF)
             .putFloat(PREF_SMOOTH_MOVEMENT, 0.92f)
@@ -264,15 +437,25 @@ public class VRSettings {
             .putBoolean(PREF_SHOW_DEBUG, true)
             .putBoolean(PREF_AUTO_CALIBRATE, true)
             .putBoolean(PREF_HAPTIC_FEEDBACK, true)
+            .putBoolean(PREF_HEAD_GESTURES, true)
+            .remove(PREF_NOD_THRESHOLD)
+            .remove(PREF_SHAKE_THRESHOLD)
             .putBoolean(PREF_BLE_ENABLED, false)
             .putBoolean(PREF_PERFORMANCE_MODE, false)
+            .putBoolean(PREF_MIRRORED_STEREO, true)
+            .putBoolean(PREF_IMAGE_DOWNSAMPLING, false)
+            .putBoolean(PREF_BLOCK_TRACKERS, true)
+            .putBoolean(PREF_OFFLINE_SNAPSHOTS, true)
+            .putBoolean(PREF_GAZE_SNAP, true)
             .putBoolean(PREF_BATTERY_SAVER, false)
             .putBoolean(PREF_VR_HEAD_TRACKING, true)
             .putFloat(PREF_VR_MOVEMENT_SCALE, 2.5f)
             .putFloat(PREF_VR_YAW_LIMIT, 60f)
             .putFloat(PREF_VR_PITCH_LIMIT, 45f)
             .putBoolean(PREF_VR_CALIBRATED, false)
+            .putBoolean(PREF_RECORD_SENSOR_TRACE, false)
             .remove(PREF_CALIBRATION_DATA)
+            .remove(PREF_GYRO_BIAS)
             .apply();
     }
     
@@ -10,44 +10,91 @@ import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.RectF;
 import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
 import android.util.DisplayMetrics;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.WindowManager;
 import android.view.animation.AccelerateDecelerateInterpolator;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 import androidx.appcompat.app.AppCompatActivity;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
-public class VrActivity extends AppCompatActivity implements SensorEventListener {
+public class VrActivity extends AppCompatActivity implements SensorHub.Subscriber {
 
     private static final String TAG = "VrActivity";
     private static final long MENU_TRIGGER_DELAY = 1500;
     private static final long CROSSHAIR_CLICK_DELAY = 2000; // 2 seconds for crosshair click
+    // One Euro tuning: smoothing setting is defined per frame at this rate; beta in screen widths/s
+    private static final float SMOOTHING_REFERENCE_HZ = 30f;
+    private static final float CROSSHAIR_BETA = 4f;
+    // Clickable elements this close to the crosshair, in eye pixels, capture the dwell
+    private static final float SNAP_RADIUS_EYE_PX = 40f;
+
+    // Pose snapshot channels published by the sensor thread
+    private static final int POSE_GYRO_X = 0;
+    private static final int POSE_GYRO_Y = 1;
+    private static final int POSE_GYRO_Z = 2;
+    private static final int POSE_TARGET_X = 3;
+    private static final int POSE_TARGET_Y = 4;
+    private static final int POSE_CHANNELS = 5;
+
+    static final String VR_USER_AGENT =
+            "Mozilla/5.0 (VR; Android 12; The Star Dust) AppleWebKit/537.36 Chrome/120.0.0.0 VR Safari/537.36";
 
     private WebView hiddenWebView;
+    private ViewGroup webViewSlot;
+    private int webViewLease = WebViewPool.NO_LEASE;
+    private WebInputRuntime inputRuntime;
+    private VrDocumentScripts documentScripts;
+    private final PagePerfStats pagePerf = new PagePerfStats();
+    private PageTelemetry pageTelemetry;
+    private GazeTargets gazeTargets;
+    private boolean gazeSnap = true;
+    private int snappedTarget = TargetIndex.NONE;
+    private final float[] snapPoint = new float[2];
+    private final float[] snapRectCss = new float[4];
+    private final RectF snapHighlight = new RectF();
+    private volatile boolean snapVisible = false;
+    private Paint snapPaint;
+    private RenderProfile renderProfile;
+    private CaptureCostStats captureCost;
+    private volatile boolean renderProfileOn = true;
+    private NativeInputInjector nativeInput;
+    private WebContentCache contentCache;
+    private ImageDownsampler imageDownsampler;
+    private WebRequestFilter requestFilter;
+    private OfflineSnapshots offlineSnapshots;
+    private int imageMaxEdge;
+    private boolean useNativeInput = true;
     private ImageView leftEyeView, rightEyeView;
     private View leftCrosshair, rightCrosshair, menuTrigger;
     private LinearLayout vrMenu;
     private TextView debugOverlay, instructionsOverlay;
 
-    private Handler captureHandler, menuHandler, uiHandler, crosshairHandler;
+    private Handler captureHandler, menuHandler, uiHandler;
     private ExecutorService backgroundExecutor;
     private Bitmap captureBitmap, leftDistortedBitmap, rightDistortedBitmap;
     private Canvas captureCanvas, leftCanvas, rightCanvas;
@@ -60,33 +107,52 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     private float[] rotationMatrix = new float[9];
     private float[] orientation = new float[3];
     private boolean isCalibrated = false;
-    private float[] calibrationOffset = new float[3];
 
     // Screen dimensions
     private int screenWidth, screenHeight, eyeWidth, eyeHeight;
     private int webViewWidth, webViewHeight;
 
     // VR-Optimized movement system for headset use
-    private SensorManager sensorManager;
-    private Sensor gyroSensor, accelerometer, magnetometer;
+    private SensorHub sensorHub;
+    private SensorHub.Subscription gyroSubscription, accelSubscription, magnetSubscription;
     private float[] gyroValues = new float[3];
     private float[] accelValues = new float[3];
     private float[] magnetValues = new float[3];
     private float[] rotationVector = new float[4];
 
+    // Sensors deliver on the hub's looper; UI reads the latest pose through the snapshot
+    private final PoseSnapshot poseSnapshot = new PoseSnapshot(POSE_CHANNELS);
+    private final float[] posePublish = new float[POSE_CHANNELS]; // sensor thread only
+    private final float[] poseRead = new float[POSE_CHANNELS];    // UI thread only
+    private long lastSensorTimestamp = 0;
+
+    // Sampling rates and FIFO batching follow the tracking mode; UI thread only
+    private int samplingMode = -1;
+
     // VR Head tracking system - Enhanced for VR headset
-    private float crosshairX = 0.5f, crosshairY = 0.5f;
-    private float targetX = 0.5f, targetY = 0.5f;
+    private float crosshairX = 0.5f, crosshairY = 0.5f; // UI thread
+    private final EyeViewTransform renderTransform = new EyeViewTransform(); // render thread
+    private final EyeViewTransform inputTransform = new EyeViewTransform(); // UI thread
+    private final float[] inputPoint = new float[2];
+    private final OneEuroFilter crosshairFilterX = new OneEuroFilter(1f, CROSSHAIR_BETA, 1f);
+    private final OneEuroFilter crosshairFilterY = new OneEuroFilter(1f, CROSSHAIR_BETA, 1f);
+    private boolean isCrosshairLoopRunning = false;
+    private final GyroBiasEstimator biasEstimator = new GyroBiasEstimator();
+    private final float[] biasScratch = new float[3];
+    private final HeadGestureRecognizer gestureRecognizer = new HeadGestureRecognizer();
+    private volatile boolean headGesturesEnabled = true;
+    private final HeadTracker headTracker = new HeadTracker(); // sensor thread
+    private volatile SensorTraceRecorder traceRecorder;
     private float sensitivity = 2.2f; // Increased for better response
     private float smoothing = 0.65f; // Reduced for less jitter
 
     // VR Orientation tracking
     private float[] baseOrientation = new float[3];
     private float[] currentOrientation = new float[3];
-    private boolean isVRCalibrated = false;
+    private volatile boolean isVRCalibrated = false;
 
     // Enhanced calibration tutorial system
-    private boolean isCalibrationTutorial = false;
+    private volatile boolean isCalibrationTutorial = false;
     private int calibrationStep = 0;
     private float[][] calibrationPoints = new float[5][3];
     private String[] calibrationInstructions = {
@@ -111,10 +177,10 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     private float maxHeadPitch = 25f; // Reduced angle for full screen coverage
     private float vrMovementScale = 1.8f; // Optimized scale factor
 
-    // Crosshair click system
-    private boolean isCrosshairHovering = false;
-    private long crosshairHoverStart = 0;
-    private float crosshairClickProgress = 0f;
+    // Crosshair click system - driven once per frame from updateCrosshairPositions()
+    private final DwellClickEngine dwellEngine = new DwellClickEngine(SystemClock::uptimeMillis);
+    private volatile boolean isCrosshairHovering = false;
+    private volatile float crosshairClickProgress = 0f;
 
     // Performance and visual enhancements
     private int captureFps = 30; // REDUCED from 60 for better performance
@@ -123,6 +189,8 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     private int frameCount = 0;
     private float zoom = 1.0f;
     private boolean showUI = true;
+    private long createdAt;
+    private long firstFrameMillis = -1;
 
     // Menu and interaction
     private boolean isMenuVisible = false;
@@ -134,11 +202,33 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     private float crosshairSize = 1.0f;
     private float clickDelay = 3.0f;
     private String vrMode = "standard"; // "standard" or "hardware"
-    private boolean isHardwareMode = false;
+    private volatile boolean isHardwareMode = false;
+
+    // Also used by DestinationPrefetcher to warm a destination before it is opened
+    static String destinationUrl(String destination) {
+        if (destination == null) {
+            return "https://trek.nasa.gov/moon/";
+        }
+        switch (destination) {
+            case "mars":
+                return "https://nasa2-git-main-arur17s-projects.vercel.app/";
+            case "moon":
+                return "https://vr-git-main-mohammad-kasims-projects.vercel.app?_vercel_share=U9Uj7doFmcCeN6TkbQEt2GclFMvyMQfj";
+            case "venus":
+                return "https://nasa2-git-main-arur17s-projects.vercel.app/";
+            case "galaxy":
+                return "https://www.nasa.gov/universe/galaxies/";
+            case "constellations":
+                return "https://www.constellation-guide.com/";
+            default:
+                return "https://vr-git-main-mohammad-kasims-projects.vercel.app?_vercel_share=U9Uj7doFmcCeN6TkbQEt2GclFMvyMQfj";
+        }
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        createdAt = SystemClock.elapsedRealtime();
 
         try {
             setContentView(R.layout.activity_vr);
@@ -147,35 +237,19 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
             String destination = getIntent().getStringExtra("destination");
             
             if (websiteUrl == null) {
-                if (destination != null) {
-                    switch (destination) {
-                        case "mars":
-                            websiteUrl = "https://nasa2-git-main-arur17s-projects.vercel.app/";
-                            break;
-                        case "moon":
-                            websiteUrl = "https://vr-git-main-mohammad-kasims-projects.vercel.app?_vercel_share=U9Uj7doFmcCeN6TkbQEt2GclFMvyMQfj";
-                            break;
-                        case "venus":
-                            websiteUrl = "https://nasa2-git-main-arur17s-projects.vercel.app/";
-                            break;
-                        case "galaxy":
-                            websiteUrl = "https://www.nasa.gov/universe/galaxies/";
-                            break;
-                        case "constellations":
-                            websiteUrl = "https://www.constellation-guide.com/";
-                            break;
-                        default:
-                            websiteUrl = "https://vr-git-main-mohammad-kasims-projects.vercel.app?_vercel_share=U9Uj7doFmcCeN6TkbQEt2GclFMvyMQfj";
-                            break;
-                    }
-                } else {
-                    websiteUrl = "https://trek.nasa.gov/moon/";
-                }
+                websiteUrl = destinationUrl(destination);
             }
 
             vrSettings = new VRSettings(this);
             loadSettings();
 
+            if (getIntent().getStringExtra("url") == null && vrSettings.getOfflineSnapshots()) {
+                String snapshotUrl = OfflineSnapshots.getInstance(this).entryUrl(destination);
+                if (snapshotUrl != null) {
+                    websiteUrl = snapshotUrl;
+                }
+            }
+
             initializeProVR();
             getScreenDimensions();
 
@@ -186,6 +260,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
             setupWebView();
             setupCapture();
+            publishPose(0); // seed the snapshot with a centred target before sensors start
             setupSensors();
             setupGestures();
             setupMenuSystem();
@@ -232,7 +307,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
     private boolean initializeViews() {
         try {
-            hiddenWebView = findViewById(R.id.hidden_webview);
+            webViewSlot = findViewById(R.id.hidden_webview);
             leftEyeView = findViewById(R.id.left_eye_view);
             rightEyeView = findViewById(R.id.right_eye_view);
             leftCrosshair = findViewById(R.id.left_crosshair);
@@ -241,10 +316,11 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
             vrMenu = findViewById(R.id.vr_menu);
             debugOverlay = findViewById(R.id.debug_overlay);
 
-            if (hiddenWebView == null || leftEyeView == null || rightEyeView == null) {
+            if (webViewSlot == null || leftEyeView == null || rightEyeView == null) {
                 Log.e(TAG, "Critical views not found in layout");
                 return false;
             }
+            hiddenWebView = obtainWebView();
 
             // Initialize matrices and bitmaps with safety checks
             leftMatrix = new Matrix();
@@ -257,10 +333,6 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
                 rightCanvas = new Canvas(rightDistortedBitmap);
             }
 
-            if (leftCrosshair != null && rightCrosshair != null) {
-                updateCrosshairPositions();
-            }
-
             // Hide instructions after 3 seconds
             if (uiHandler != null) {
                 uiHandler.postDelayed(() -> {
@@ -283,12 +355,25 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         try {
             captureFps = vrSettings.getVrFps();
             sensitivity = vrSettings.getGyroSensitivity();
+            headTracker.setSensitivity(sensitivity);
             smoothing = vrSettings.getSmoothMovement();
+            float minCutoff = OneEuroFilter.cutoffForLerp(smoothing, SMOOTHING_REFERENCE_HZ);
+            crosshairFilterX.configure(minCutoff, CROSSHAIR_BETA, 1f);
+            crosshairFilterY.configure(minCutoff, CROSSHAIR_BETA, 1f);
             crosshairSize = vrSettings.getCrosshairSize();
             clickDelay = vrSettings.getClickDelay();
+            dwellEngine.setDwellMillis((long) (clickDelay * 1000));
+            dwellEngine.setStabilityRadius(vrSettings.getDwellRadius());
+            dwellEngine.setCooldownMillis((long) (vrSettings.getDwellCooldown() * 1000));
             maxHeadYaw = vrSettings.getVrYawLimit();
             maxHeadPitch = vrSettings.getVrPitchLimit();
             vrMovementScale = vrSettings.getVrMovementScale();
+            headGesturesEnabled = vrSettings.getHeadGestures();
+            useNativeInput = vrSettings.getNativeInput();
+            gazeSnap = vrSettings.getGazeSnap();
+            final float nodThreshold = vrSettings.getNodThreshold();
+            final float shakeThreshold = vrSettings.getShakeThreshold();
+            runOnSensorThread(() -> gestureRecognizer.setThresholds(nodThreshold, shakeThreshold));
         } catch (Exception e) {
             Log.e(TAG, "Settings load error: " + e.getMessage());
         }
@@ -298,13 +383,18 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         try {
             vibrator = (Vibrator) getSystemService(Context.VIBRATOR_SERVICE);
             uiHandler = new Handler(Looper.getMainLooper());
-            crosshairHandler = new Handler(Looper.getMainLooper());
+            dwellEngine.setListener(dwellListener);
 
             crosshairPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
             crosshairPaint.setColor(vrSettings.getCrosshairColor());
             crosshairPaint.setStrokeWidth(2f * crosshairSize);
             crosshairPaint.setStyle(Paint.Style.STROKE);
 
+            snapPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            snapPaint.setColor(Color.argb(200, 80, 200, 255));
+            snapPaint.setStrokeWidth(3f);
+            snapPaint.setStyle(Paint.Style.STROKE);
+
             uiPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
             uiPaint.setColor(Color.WHITE);
             uiPaint.setTextSize(20f);
@@ -314,6 +404,23 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         }
     }
 
+    // Takes over the live page when entering from WebsiteActivity, else a pre-warmed WebView
+    private WebView obtainWebView() {
+        WebViewPool pool = WebViewPool.getInstance(this);
+        WebView webView = null;
+        int lease = getIntent().getIntExtra(WebViewPool.EXTRA_LEASE, WebViewPool.NO_LEASE);
+        if (lease != WebViewPool.NO_LEASE) {
+            webView = pool.borrow(lease, this);
+        }
+        if (webView != null) {
+            webViewLease = lease;
+        } else {
+            webView = pool.acquire(this);
+        }
+        WebViewPool.attach(webViewSlot, webView);
+        return webView;
+    }
+
     private void setupWebView() {
         try {
             if (webViewWidth > 0 && webViewHeight > 0) {
@@ -331,46 +438,89 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
             // Enable hardware mode support
             if (isHardwareMode) {
+                webViewSlot.setVisibility(View.VISIBLE);
                 hiddenWebView.setVisibility(View.VISIBLE);
                 hiddenWebView.setFocusable(true);
                 hiddenWebView.setFocusableInTouchMode(true);
             }
 
-            hiddenWebView.getSettings().setUserAgentString(
-                    "Mozilla/5.0 (VR; Android 12; The Star Dust) AppleWebKit/537.36 Chrome/120.0.0.0 VR Safari/537.36"
-            );
-
+            hiddenWebView.getSettings().setUserAgentString(VR_USER_AGENT);
+
+            inputRuntime = new WebInputRuntime(hiddenWebView);
+            nativeInput = new NativeInputInjector(hiddenWebView);
+            String pageUrl = webViewLease != WebViewPool.NO_LEASE ? hiddenWebView.getUrl() : websiteUrl;
+            inputRuntime.attach(pageUrl);
+            renderProfile = RenderProfile.forOrigin(VrDocumentScripts.originOf(pageUrl));
+            renderProfileOn = vrSettings.getRenderProfileEnabled(renderProfile.origin);
+            captureCost = CaptureCostStats.decode(vrSettings.getRenderCost(renderProfile.origin));
+            pageTelemetry = new PageTelemetry(hiddenWebView, inputRuntime, pagePerf);
+            gazeTargets = new GazeTargets(hiddenWebView, inputRuntime);
+            documentScripts = new VrDocumentScripts(hiddenWebView);
+            documentScripts.attach(pageUrl, renderProfile.script(renderProfileOn));
+
+            contentCache = WebContentCache.getInstance(this);
+            offlineSnapshots = OfflineSnapshots.getInstance(this);
+            if (vrSettings.getBlockTrackers()) {
+                requestFilter = new WebRequestFilter();
+            }
+            if (vrSettings.getImageDownsampling()) {
+                imageDownsampler = ImageDownsampler.getInstance(this);
+                // Twice the eye keeps images sharp up to 2x zoom
+                imageMaxEdge = Math.max(eyeWidth, eyeHeight) * 2;
+            }
             hiddenWebView.setWebViewClient(new WebViewClient() {
+                @Override
+                public void onPageStarted(WebView view, String url, Bitmap favicon) {
+                    // Don't snap or dwell-click onto the previous page's boxes while this one loads
+                    gazeTargets.reset();
+                }
+
                 @Override
                 public void onPageFinished(WebView view, String url) {
-                    injectVROptimizations();
+                    if (!documentScripts.covers(url)) {
+                        // Navigated to another origin: its own profile, stats and scripts
+                        useRenderProfileFor(url);
+                        documentScripts.applyNow();
+                    }
                     startCapture();
                 }
+
+                @Override
+                public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+                    WebResourceResponse snapshot = offlineSnapshots.intercept(request);
+                    if (snapshot != null) {
+                        return snapshot;
+                    }
+                    if (requestFilter != null) {
+                        WebResourceResponse blocked = requestFilter.intercept(request);
+                        if (blocked != null) {
+                            return blocked;
+                        }
+                    }
+                    if (imageDownsampler != null) {
+                        WebResourceResponse image = imageDownsampler.intercept(request, imageMaxEdge);
+                        if (image != null) {
+                            return image;
+                        }
+                    }
+                    return contentCache.intercept(request);
+                }
             });
 
-            hiddenWebView.loadUrl(websiteUrl);
+            if (webViewLease != WebViewPool.NO_LEASE) {
+                // Handed-off page is already loaded, so onPageFinished won't come
+                hiddenWebView.post(() -> {
+                    documentScripts.applyNow();
+                    startCapture();
+                });
+            } else {
+                hiddenWebView.loadUrl(websiteUrl);
+            }
         } catch (Exception e) {
             Log.e(TAG, "WebView setup error: " + e.getMessage());
         }
     }
 
-    private void injectVROptimizations() {
-        try {
-            String vrCSS = "javascript:(function() {"
-                    + "var style = document.createElement('style');"
-                    + "style.textContent = '"
-                    + "body { font-size: 16px !important; line-height: 1.5 !important; }"
-                    + "a, button { min-height: 40px !important; padding: 10px !important; }"
-                    + "input, select { font-size: 16px !important; padding: 10px !important; }"
-                    + "';"
-                    + "document.head.appendChild(style);"
-                    + "})()";
-            hiddenWebView.evaluateJavascript(vrCSS, null);
-        } catch (Exception e) {
-            Log.e(TAG, "VR optimization error: " + e.getMessage());
-        }
-    }
-
     private void setupCapture() {
         try {
             captureHandler = new Handler(Looper.getMainLooper());
@@ -386,27 +536,74 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
     private void setupSensors() {
         try {
-            sensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
-            if (sensorManager != null) {
-                gyroSensor = sensorManager.getDefaultSensor(Sensor.TYPE_GYROSCOPE);
-                accelerometer = sensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
-                magnetometer = sensorManager.getDefaultSensor(Sensor.TYPE_MAGNETIC_FIELD);
-
-                if (accelerometer != null) {
-                    sensorManager.registerListener(this, accelerometer, SensorManager.SENSOR_DELAY_GAME);
-                }
-                if (magnetometer != null) {
-                    sensorManager.registerListener(this, magnetometer, SensorManager.SENSOR_DELAY_GAME);
-                }
-                if (gyroSensor != null) {
-                    sensorManager.registerListener(this, gyroSensor, SensorManager.SENSOR_DELAY_GAME);
+            // Shared registration; samples arrive on the hub thread so WebView drawing can't stall head tracking
+            sensorHub = SensorHub.getInstance(this);
+
+            if (vrSettings.getRecordSensorTrace() && traceRecorder == null) {
+                try {
+                    traceRecorder = SensorTraceRecorder.create(getExternalFilesDir("traces"), "vractivity");
+                } catch (IOException e) {
+                    Log.e(TAG, "Trace recorder unavailable", e);
                 }
             }
+
+            applySamplingMode();
         } catch (Exception e) {
             Log.e(TAG, "Sensor setup error: " + e.getMessage());
         }
     }
 
+    // Subscribes on first use, then moves the subscriptions whenever tracking state changes mode
+    private void applySamplingMode() {
+        if (sensorHub == null) {
+            return;
+        }
+
+        int mode = SensorSamplingPolicy.selectMode(!isHardwareMode, isCalibrationTutorial, vrSettings.getBatterySaver());
+        if (mode == samplingMode) {
+            return;
+        }
+
+        if (samplingMode < 0) {
+            gyroSubscription = sensorHub.subscribe(Sensor.TYPE_GYROSCOPE, mode, 0, this);
+            accelSubscription = sensorHub.subscribe(Sensor.TYPE_ACCELEROMETER, mode, 0, this);
+            magnetSubscription = sensorHub.subscribe(Sensor.TYPE_MAGNETIC_FIELD, mode, 0, this);
+        } else {
+            sensorHub.setMode(gyroSubscription, mode);
+            sensorHub.setMode(accelSubscription, mode);
+            sensorHub.setMode(magnetSubscription, mode);
+        }
+        samplingMode = mode;
+
+        Choreographer.getInstance().removeFrameCallback(sensorFlushCallback);
+        Choreographer.getInstance().postFrameCallbackDelayed(sensorFlushCallback,
+                sensorHub.getPolicy().getFlushIntervalMillis(mode));
+    }
+
+    // Drains batched sensors on a vsync instead of whenever their FIFO fills
+    private final Choreographer.FrameCallback sensorFlushCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (samplingMode < 0 || sensorHub == null) {
+                return;
+            }
+            sensorHub.flush();
+            Choreographer.getInstance().postFrameCallbackDelayed(this,
+                    sensorHub.getPolicy().getFlushIntervalMillis(samplingMode));
+        }
+    };
+
+    private void stopSensors() {
+        if (sensorHub != null) {
+            sensorHub.unsubscribe(gyroSubscription);
+            sensorHub.unsubscribe(accelSubscription);
+            sensorHub.unsubscribe(magnetSubscription);
+        }
+        gyroSubscription = accelSubscription = magnetSubscription = null;
+        samplingMode = -1;
+        Choreographer.getInstance().removeFrameCallback(sensorFlushCallback);
+    }
+
     private void setupGestures() {
         try {
             gestureDetector = new GestureDetector(this, new GestureDetector.SimpleOnGestureListener() {
@@ -421,7 +618,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
                 public boolean onSingleTapConfirmed(MotionEvent e) {
                     if (isCalibrationTutorial) {
                         captureCalibrationPoint();
-                    } else {
+                    } else if (!useNativeInput) {
                         performClick(e.getX(), e.getY());
                     }
                     return true;
@@ -433,31 +630,16 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
                     gestureDetector.onTouchEvent(event);
                 }
                 
-                // Direct WebView click using JavaScript
-                if (event.getAction() == MotionEvent.ACTION_DOWN) {
+                if (useNativeInput) {
+                    if (!isCalibrationTutorial) {
+                        forwardTouch(v, event);
+                    }
+                } else if (event.getAction() == MotionEvent.ACTION_DOWN) {
+                    // Direct WebView click using JavaScript
                     float webX = (event.getX() / eyeWidth) * hiddenWebView.getWidth();
                     float webY = (event.getY() / eyeHeight) * hiddenWebView.getHeight();
                     
-                    String clickScript = String.format(
-                        "(function() {"
-                        + "  var element = document.elementFromPoint(%f, %f);"
-                        + "  if (element) {"
-                        + "    var event = new MouseEvent('click', {"
-                        + "      view: window,"
-                        + "      bubbles: true,"
-                        + "      cancelable: true,"
-                        + "      clientX: %f,"
-                        + "      clientY: %f"
-                        + "    });"
-                        + "    element.dispatchEvent(event);"
-                        + "    if (element.click) element.click();"
-                        + "    if (element.href && element.tagName === 'A') {"
-                        + "      window.location.href = element.href;"
-                        + "    }"
-                        + "  }"
-                        + "})();", webX, webY, webX, webY);
-                    
-                    hiddenWebView.evaluateJavascript(clickScript, null);
+                    inputRuntime.click(webX, webY);
                     performHapticFeedback();
                 }
                 return true;
@@ -474,6 +656,38 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         }
     }
 
+    // Replays an eye-view touch stream into the WebView, so drags and long-presses work
+    private void forwardTouch(View eyeView, MotionEvent event) {
+        float eyeX = event.getX() * eyeWidth / Math.max(1, eyeView.getWidth());
+        float eyeY = event.getY() * eyeHeight / Math.max(1, eyeView.getHeight());
+        mapEyeToWebView(eyeX, eyeY, inputPoint);
+
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                nativeInput.down(inputPoint[0], inputPoint[1]);
+                break;
+            case MotionEvent.ACTION_MOVE:
+                nativeInput.moveTo(inputPoint[0], inputPoint[1]);
+                break;
+            case MotionEvent.ACTION_UP:
+                nativeInput.up(inputPoint[0], inputPoint[1]);
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                nativeInput.cancel();
+                break;
+        }
+    }
+
+    // Eye pixel -> WebView pixel, inverting the pan/zoom renderEye() draws with
+    private void mapEyeToWebView(float eyeX, float eyeY, float[] out) {
+        updateViewTransform(inputTransform);
+        inputTransform.toContent(eyeX, eyeY, out);
+        if (webViewWidth > 0 && webViewHeight > 0) {
+            out[0] *= (float) hiddenWebView.getWidth() / webViewWidth;
+            out[1] *= (float) hiddenWebView.getHeight() / webViewHeight;
+        }
+    }
+
     private void setupMenuSystem() {
         try {
             menuHandler = new Handler(Looper.getMainLooper());
@@ -563,18 +777,43 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
                 }).start();
     }
 
-    private void updateCrosshairPositions() {
+    // Crosshair runs at display rate from the latest pose, independent of capture FPS
+    private final Choreographer.FrameCallback crosshairFrameCallback = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (!isCrosshairLoopRunning) {
+                return;
+            }
+            updateCrosshairPositions(frameTimeNanos);
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    };
+
+    private void startCrosshairLoop() {
+        if (!isCrosshairLoopRunning) {
+            isCrosshairLoopRunning = true;
+            Choreographer.getInstance().postFrameCallback(crosshairFrameCallback);
+        }
+    }
+
+    private void stopCrosshairLoop() {
+        isCrosshairLoopRunning = false;
+        Choreographer.getInstance().removeFrameCallback(crosshairFrameCallback);
+    }
+
+    private void updateCrosshairPositions(long frameTimeNanos) {
         if (leftCrosshair == null || rightCrosshair == null) {
             return;
         }
 
-        // Enhanced smooth interpolation with adaptive smoothing
-        float lerpFactor = 1f - smoothing;
-        float distance = Math.abs(targetX - crosshairX) + Math.abs(targetY - crosshairY);
-        float adaptiveFactor = Math.min(1.5f, 1f + distance * 2f); // Faster when moving more
-        
-        crosshairX += (targetX - crosshairX) * lerpFactor * adaptiveFactor;
-        crosshairY += (targetY - crosshairY) * lerpFactor * adaptiveFactor;
+        // Latest pointer target from the sensor thread
+        poseSnapshot.read(poseRead);
+        float aimX = poseRead[POSE_TARGET_X];
+        float aimY = poseRead[POSE_TARGET_Y];
+
+        // Speed-adaptive smoothing: steady when still, low lag when moving
+        crosshairX = crosshairFilterX.filter(aimX, frameTimeNanos);
+        crosshairY = crosshairFilterY.filter(aimY, frameTimeNanos);
 
         float leftX = crosshairX * eyeWidth - leftCrosshair.getWidth() / 2f;
         float rightX = crosshairX * eyeWidth - rightCrosshair.getWidth() / 2f;
@@ -586,7 +825,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         rightCrosshair.setY(Math.max(0, Math.min(y, eyeHeight - rightCrosshair.getHeight())));
 
         // Enhanced crosshair feedback
-        float movement = Math.abs(targetX - crosshairX) + Math.abs(targetY - crosshairY);
+        float movement = Math.abs(aimX - crosshairX) + Math.abs(aimY - crosshairY);
         float alpha = Math.min(1f, Math.max(0.7f, 1f - movement * 3f));
 
         leftCrosshair.setAlpha(alpha);
@@ -596,113 +835,122 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         rightCrosshair.setScaleX(crosshairSize);
         rightCrosshair.setScaleY(crosshairSize);
 
-        // Enhanced hover detection for clicking
-        checkCrosshairHover();
+        // Dwell clicking on the smoothed crosshair
+        updateDwell();
     }
 
-    private void checkCrosshairHover() {
-        // Skip hover detection in hardware mode (uses physical buttons)
+    private void updateDwell() {
+        // Skip dwell detection in hardware mode (uses physical buttons)
         if (isHardwareMode || !isVRCalibrated) {
+            snapVisible = false;
+            if (isCrosshairHovering) {
+                dwellEngine.reset();
+                dwellListener.onDwellCancelled();
+            }
             return;
         }
-        
-        float movement = Math.abs(targetX - crosshairX) + Math.abs(targetY - crosshairY);
-        boolean isStable = movement < 0.012f;
 
-        if (isStable && !isCrosshairHovering) {
-            isCrosshairHovering = true;
-            crosshairHoverStart = System.currentTimeMillis();
-            startCrosshairClickAnimation();
-        } else if (!isStable && isCrosshairHovering) {
-            isCrosshairHovering = false;
-            crosshairClickProgress = 0f;
-            if (crosshairHandler != null) {
-                crosshairHandler.removeCallbacksAndMessages(null);
-            }
+        // A snapped dwell anchors on the target's center, so jitter inside it doesn't restart the dwell
+        if (gazeSnap && snapToTarget(crosshairX, crosshairY)) {
+            dwellEngine.update(snapPoint[0], snapPoint[1], snappedTarget);
+        } else {
+            dwellEngine.update(crosshairX, crosshairY, DwellClickEngine.NO_TARGET);
+        }
+        crosshairClickProgress = dwellEngine.getProgress();
+
+        // Visual feedback during hover
+        if (crosshairClickProgress > 0.1f) {
+            setCrosshairScale(1f + crosshairClickProgress * 0.3f);
         }
     }
 
-    private void startCrosshairClickAnimation() {
-        if (crosshairHandler == null) {
-            return;
+    // Finds the clickable element nearest the crosshair; on success snapPoint holds its
+    // center (normalized eye coordinates) and snapHighlight its box in eye pixels
+    private boolean snapToTarget(float x, float y) {
+        float viewportCss = gazeTargets != null ? gazeTargets.getViewportCssWidth() : 0f;
+        int viewWidth = hiddenWebView.getWidth();
+        int viewHeight = hiddenWebView.getHeight();
+        if (viewportCss <= 0 || viewWidth <= 0 || viewHeight <= 0 || webViewWidth <= 0 || webViewHeight <= 0) {
+            snapVisible = false;
+            return false;
         }
 
-        crosshairHandler.post(new Runnable() {
-            @Override
-            public void run() {
-                if (!isCrosshairHovering) {
-                    return;
-                }
+        // Eye -> WebView pixels -> page CSS pixels, with the page's current scroll
+        float pxPerCss = viewWidth / viewportCss;
+        mapEyeToWebView(x * eyeWidth, y * eyeHeight, snapPoint);
+        float scrollX = hiddenWebView.getScrollX();
+        float scrollY = hiddenWebView.getScrollY();
+        float cssX = (snapPoint[0] + scrollX) / pxPerCss;
+        float cssY = (snapPoint[1] + scrollY) / pxPerCss;
+        float eyePerCss = pxPerCss * ((float) webViewWidth / viewWidth) * inputTransform.getScale();
+        float radius = SNAP_RADIUS_EYE_PX * crosshairSize / eyePerCss;
+
+        snappedTarget = gazeTargets.getIndex().nearest(cssX, cssY, radius, snapRectCss);
+        if (snappedTarget == TargetIndex.NONE) {
+            snapVisible = false;
+            return false;
+        }
 
-                long elapsed = System.currentTimeMillis() - crosshairHoverStart;
-                long adjustedDelay = (long) (clickDelay * 1000);
-                crosshairClickProgress = Math.min(1f, elapsed / (float) adjustedDelay);
+        // Back out to eye pixels through the same pan/zoom the frame is drawn with
+        float scaleX = pxPerCss * webViewWidth / viewWidth;
+        float scaleY = pxPerCss * webViewHeight / viewHeight;
+        float offsetX = scrollX * webViewWidth / viewWidth;
+        float offsetY = scrollY * webViewHeight / viewHeight;
+        inputTransform.toEye(snapRectCss[0] * scaleX - offsetX, snapRectCss[1] * scaleY - offsetY, snapPoint);
+        float left = snapPoint[0];
+        float top = snapPoint[1];
+        inputTransform.toEye((snapRectCss[0] + snapRectCss[2]) * scaleX - offsetX,
+                (snapRectCss[1] + snapRectCss[3]) * scaleY - offsetY, snapPoint);
+        snapHighlight.set(left, top, snapPoint[0], snapPoint[1]);
+        snapVisible = true;
+
+        snapPoint[0] = snapHighlight.centerX() / eyeWidth;
+        snapPoint[1] = snapHighlight.centerY() / eyeHeight;
+        return true;
+    }
 
-                // Visual feedback during hover
-                if (crosshairClickProgress > 0.1f) {
-                    float scale = 1f + (crosshairClickProgress * 0.3f);
-                    if (leftCrosshair != null) {
-                        leftCrosshair.setScaleX(scale * crosshairSize);
-                        leftCrosshair.setScaleY(scale * crosshairSize);
-                    }
-                    if (rightCrosshair != null) {
-                        rightCrosshair.setScaleX(scale * crosshairSize);
-                        rightCrosshair.setScaleY(scale * crosshairSize);
-                    }
-                }
+    private final DwellClickEngine.Listener dwellListener = new DwellClickEngine.Listener() {
+        @Override
+        public void onDwellStarted(float x, float y) {
+            isCrosshairHovering = true;
+        }
+
+        @Override
+        public void onDwellCancelled() {
+            isCrosshairHovering = false;
+            crosshairClickProgress = 0f;
+            setCrosshairScale(1f);
+        }
 
-                if (crosshairClickProgress >= 1f) {
-                    // Execute touch click
-                    performCrosshairClick();
-                    isCrosshairHovering = false;
-                    crosshairClickProgress = 0f;
+        @Override
+        public void onDwellClick(float x, float y, int targetId) {
+            onDwellCancelled();
+            performCrosshairClick(x, y);
+        }
+    };
 
-                    // Reset crosshair scale
-                    if (leftCrosshair != null) {
-                        leftCrosshair.setScaleX(crosshairSize);
-                        leftCrosshair.setScaleY(crosshairSize);
-                    }
-                    if (rightCrosshair != null) {
-                        rightCrosshair.setScaleX(crosshairSize);
-                        rightCrosshair.setScaleY(crosshairSize);
-                    }
-                } else {
-                    crosshairHandler.postDelayed(this, 50);
-                }
-            }
-        });
+    private void setCrosshairScale(float scale) {
+        if (leftCrosshair != null) {
+            leftCrosshair.setScaleX(scale * crosshairSize);
+            leftCrosshair.setScaleY(scale * crosshairSize);
+        }
+        if (rightCrosshair != null) {
+            rightCrosshair.setScaleX(scale * crosshairSize);
+            rightCrosshair.setScaleY(scale * crosshairSize);
+        }
     }
 
-    private void performCrosshairClick() {
+    private void performCrosshairClick(float x, float y) {
         try {
             runOnUiThread(() -> {
-                float webX = crosshairX * hiddenWebView.getWidth();
-                float webY = crosshairY * hiddenWebView.getHeight();
-
-                String clickScript = String.format(
-                        "(function() {"
-                        + "  var x = %f;"
-                        + "  var y = %f;"
-                        + "  var element = document.elementFromPoint(x, y);"
-                        + "  if (element) {"
-                        + "    var event = new MouseEvent('click', {"
-                        + "      view: window,"
-                        + "      bubbles: true,"
-                        + "      cancelable: true,"
-                        + "      clientX: x,"
-                        + "      clientY: y"
-                        + "    });"
-                        + "    element.dispatchEvent(event);"
-                        + "    if (element.click) element.click();"
-                        + "    if (element.href && element.tagName === 'A') {"
-                        + "      window.location.href = element.href;"
-                        + "    }"
-                        + "    return 'clicked';"
-                        + "  }"
-                        + "  return 'none';"
-                        + "})();", webX, webY);
-
-                hiddenWebView.evaluateJavascript(clickScript, null);
+                if (useNativeInput) {
+                    mapEyeToWebView(x * eyeWidth, y * eyeHeight, inputPoint);
+                    nativeInput.tap(inputPoint[0], inputPoint[1]);
+                } else {
+                    float webX = x * hiddenWebView.getWidth();
+                    float webY = y * hiddenWebView.getHeight();
+                    inputRuntime.click(webX, webY);
+                }
                 performHapticFeedback();
             });
         } catch (Exception e) {
@@ -715,6 +963,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
             return;
         }
         isCapturing = true;
+        pagePerf.setCaptureFps(captureFps);
 
         Runnable captureRunnable = new Runnable() {
             @Override
@@ -735,7 +984,9 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         }
 
         try {
+            long drawStart = System.nanoTime();
             hiddenWebView.draw(captureCanvas);
+            captureCost.record(renderProfileOn, (System.nanoTime() - drawStart) / 1000);
 
             backgroundExecutor.execute(() -> {
                 try {
@@ -743,7 +994,10 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
                     runOnUiThread(() -> {
                         leftEyeView.setImageBitmap(leftDistortedBitmap);
                         rightEyeView.setImageBitmap(rightDistortedBitmap);
-                        updateCrosshairPositions();
+                        pagePerf.recordNativeFrame(SystemClock.uptimeMillis());
+                        if (firstFrameMillis < 0) {
+                            recordFirstFrame();
+                        }
                         updateDebugInfo();
                     });
                 } catch (Exception e) {
@@ -755,30 +1009,79 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         }
     }
 
+    // Capture starts at onPageFinished, so this is time until the loaded page is on screen
+    private void recordFirstFrame() {
+        firstFrameMillis = SystemClock.elapsedRealtime() - createdAt;
+        if (webViewLease == WebViewPool.NO_LEASE && !OfflineSnapshots.isSnapshotUrl(websiteUrl)) {
+            // Handed-off and snapshot pages don't touch the network and would skew the cold/warm comparison
+            DestinationPrefetcher.getInstance(this).recordFirstFrame(websiteUrl, firstFrameMillis);
+        }
+    }
+
+    // Page telemetry next to our own capture numbers, so slow frames can be attributed
+    private void writeSessionReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("VR session: ").append(websiteUrl).append('\n');
+        report.append(pagePerf.report()).append('\n');
+        if (captureCost != null) {
+            report.append(String.format("Capture draw: %.1f ms profile off, %.1f ms profile on (profile %s)\n",
+                    captureCost.getOffMeanMillis(), captureCost.getOnMeanMillis(), renderProfileOn ? "on" : "off"));
+        }
+        report.append("First frame: ").append(firstFrameMillis).append(" ms\n");
+        if (requestFilter != null) {
+            report.append(requestFilter.getSummary()).append('\n');
+        }
+        Log.i(TAG, report.toString());
+
+        if (!vrSettings.getShowDebug()) {
+            return;
+        }
+        // External files/reports/ beside the sensor traces; off the UI thread since this runs from onDestroy
+        String name = "vr-" + System.currentTimeMillis() + ".txt";
+        String text = report.toString();
+        new Thread(() -> {
+            File dir = getExternalFilesDir("reports");
+            if (dir == null || (!dir.isDirectory() && !dir.mkdirs())) {
+                return;
+            }
+            File file = new File(dir, name);
+            try (OutputStream out = new FileOutputStream(file)) {
+                out.write(text.getBytes("UTF-8"));
+            } catch (IOException e) {
+                Log.e(TAG, "Session report not written", e);
+            }
+        }, "SessionReport").start();
+    }
+
     private void renderVRFrames() {
-        // Calculate viewport with crosshair centering and zoom
-        float viewportX = (crosshairX - 0.5f) * webViewWidth * 0.6f;
-        float viewportY = (crosshairY - 0.5f) * webViewHeight * 0.6f;
+        updateViewTransform(renderTransform);
 
         // Render both eyes identically (no stereoscopic offset for simplicity)
-        renderEye(leftCanvas, leftDistortedBitmap, viewportX, viewportY, zoom);
-        renderEye(rightCanvas, rightDistortedBitmap, viewportX, viewportY, zoom);
+        renderEye(leftCanvas, leftDistortedBitmap, renderTransform);
+        renderEye(rightCanvas, rightDistortedBitmap, renderTransform);
     }
 
-    private void renderEye(Canvas canvas, Bitmap bitmap, float offsetX, float offsetY, float scale) {
+    // Viewport follows the crosshair and is scaled by zoom, centered in the eye
+    private void updateViewTransform(EyeViewTransform transform) {
+        float viewportX = (crosshairX - 0.5f) * webViewWidth * 0.6f;
+        float viewportY = (crosshairY - 0.5f) * webViewHeight * 0.6f;
+        transform.set(eyeWidth, eyeHeight, webViewWidth, webViewHeight, viewportX, viewportY, zoom);
+    }
+
+    private void renderEye(Canvas canvas, Bitmap bitmap, EyeViewTransform transform) {
         canvas.drawColor(Color.BLACK);
 
         Matrix matrix = new Matrix();
-        matrix.postTranslate(-offsetX, -offsetY);
-        matrix.postScale(scale, scale);
-
-        // Center in eye view
-        float centerX = (eyeWidth - webViewWidth * scale) / 2f;
-        float centerY = (eyeHeight - webViewHeight * scale) / 2f;
-        matrix.postTranslate(centerX, centerY);
+        matrix.postTranslate(-transform.getOffsetX(), -transform.getOffsetY());
+        matrix.postScale(transform.getScale(), transform.getScale());
+        matrix.postTranslate(transform.getCenterX(), transform.getCenterY());
 
         canvas.drawBitmap(captureBitmap, matrix, null);
 
+        if (snapVisible) {
+            canvas.drawRoundRect(snapHighlight, 6f, 6f, snapPaint);
+        }
+
         // Draw crosshair click progress if hovering
         if (isCrosshairHovering && crosshairClickProgress > 0) {
             drawCrosshairProgress(canvas);
@@ -803,37 +1106,37 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     }
 
     @Override
-    public void onSensorChanged(SensorEvent event) {
-        if (event == null || event.values == null) {
-            return;
-        }
-
+    public void onSensorSample(int sensorType, long timestampNanos, float[] values, int count) {
         try {
-            switch (event.sensor.getType()) {
+            SensorTraceRecorder recorder = traceRecorder;
+            if (recorder != null) {
+                recorder.record(sensorType, timestampNanos, values, count);
+            }
+
+            switch (sensorType) {
                 case Sensor.TYPE_GYROSCOPE:
-                    if (gyroValues == null) {
-                        gyroValues = new float[3];
+                    System.arraycopy(values, 0, gyroValues, 0, Math.min(3, count));
+                    if (biasEstimator.onGyroscope(timestampNanos, gyroValues[0], gyroValues[1], gyroValues[2])) {
+                        biasEstimator.getBias(biasScratch);
+                        headTracker.setBias(biasScratch[0], biasScratch[1], biasScratch[2]);
                     }
-                    System.arraycopy(event.values, 0, gyroValues, 0, Math.min(3, event.values.length));
                     if (isVRCalibrated || isCalibrationTutorial) {
                         processGyroMovement();
+                        processHeadGesture(timestampNanos);
                     }
+                    lastSensorTimestamp = timestampNanos;
+                    publishPose(timestampNanos);
                     break;
                 case Sensor.TYPE_ACCELEROMETER:
-                    if (accelValues == null) {
-                        accelValues = new float[3];
-                    }
-                    System.arraycopy(event.values, 0, accelValues, 0, Math.min(3, event.values.length));
+                    System.arraycopy(values, 0, accelValues, 0, Math.min(3, count));
+                    biasEstimator.onAccelerometer(timestampNanos, accelValues[0], accelValues[1], accelValues[2]);
                     break;
                 case Sensor.TYPE_MAGNETIC_FIELD:
-                    if (magnetValues == null) {
-                        magnetValues = new float[3];
-                    }
-                    System.arraycopy(event.values, 0, magnetValues, 0, Math.min(3, event.values.length));
+                    System.arraycopy(values, 0, magnetValues, 0, Math.min(3, count));
                     break;
             }
         } catch (Exception e) {
-            Log.e(TAG, "Error in onSensorChanged", e);
+            Log.e(TAG, "Error in onSensorSample", e);
         }
     }
 
@@ -844,38 +1147,80 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         }
 
         try {
-            if (gyroValues != null && calibrationOffset != null) {
-                float rollRate = gyroValues[0] - calibrationOffset[0];
-                float pitchRate = gyroValues[1] - calibrationOffset[1];
-
-                // Increased dead zone to prevent drift
-                if (Math.abs(rollRate) < 0.002f) rollRate = 0;
-                if (Math.abs(pitchRate) < 0.002f) pitchRate = 0;
-
-                // Apply drift compensation
-                rollRate *= 0.98f;
-                pitchRate *= 0.98f;
-
-                float deltaX = -rollRate * sensitivity * 0.08f;
-                float deltaY = pitchRate * sensitivity * 0.08f;
-
-                // Limit movement speed
-                float maxDelta = 0.02f;
-                deltaX = Math.max(-maxDelta, Math.min(maxDelta, deltaX));
-                deltaY = Math.max(-maxDelta, Math.min(maxDelta, deltaY));
-
-                if (Math.abs(deltaX) > 0.001f || Math.abs(deltaY) > 0.001f) {
-                    targetX += deltaX;
-                    targetY += deltaY;
-                    targetX = Math.max(0.1f, Math.min(0.9f, targetX));
-                    targetY = Math.max(0.1f, Math.min(0.9f, targetY));
-                }
-            }
+            headTracker.onGyro(gyroValues[0], gyroValues[1], gyroValues[2]);
         } catch (Exception e) {
             Log.e(TAG, "Error in processGyroMovement", e);
         }
     }
 
+    // Sensor thread: faster alternative to dwelling - double nod clicks, shake goes back
+    private void processHeadGesture(long timestampNanos) {
+        if (isHardwareMode || !headGesturesEnabled) {
+            return;
+        }
+
+        headTracker.getBias(biasScratch);
+        int gesture = gestureRecognizer.onGyro(timestampNanos,
+                gyroValues[1] - biasScratch[1], gyroValues[0] - biasScratch[0]);
+        if (gesture == HeadGestureRecognizer.GESTURE_DOUBLE_NOD) {
+            uiHandler.post(() -> {
+                if (!isCalibrationTutorial) {
+                    dwellEngine.reset();
+                    dwellListener.onDwellCancelled();
+                    performCrosshairClick(crosshairX, crosshairY);
+                }
+            });
+        } else if (gesture == HeadGestureRecognizer.GESTURE_SHAKE) {
+            uiHandler.post(() -> {
+                if (!isCalibrationTutorial && hiddenWebView != null && hiddenWebView.canGoBack()) {
+                    hiddenWebView.goBack();
+                    performHapticFeedback();
+                }
+            });
+        }
+    }
+
+    // Sensor thread: hand the latest rates and pointer target to the UI
+    private void publishPose(long timestampNanos) {
+        posePublish[POSE_GYRO_X] = gyroValues[0];
+        posePublish[POSE_GYRO_Y] = gyroValues[1];
+        posePublish[POSE_GYRO_Z] = gyroValues[2];
+        posePublish[POSE_TARGET_X] = headTracker.getTargetX();
+        posePublish[POSE_TARGET_Y] = headTracker.getTargetY();
+        poseSnapshot.publish(timestampNanos, posePublish);
+    }
+
+    private void runOnSensorThread(Runnable action) {
+        if (sensorHub != null) {
+            sensorHub.post(action);
+        } else {
+            action.run();
+        }
+    }
+
+    // Gyro bias is read by the sensor thread, so UI callers hand it over a copy.
+    // It also seeds the streaming estimator, which refines it from then on.
+    private void setCalibrationOffset(float[] offset) {
+        final float x = offset[0], y = offset[1], z = offset[2];
+        runOnSensorThread(() -> {
+            biasEstimator.setBias(x, y, z);
+            headTracker.setBias(x, y, z);
+        });
+    }
+
+    // Drawn crosshair is UI state, its target is sensor state - reset both
+    private void centerCrosshair() {
+        crosshairX = 0.5f;
+        crosshairY = 0.5f;
+        long now = System.nanoTime();
+        crosshairFilterX.reset(crosshairX, now);
+        crosshairFilterY.reset(crosshairY, now);
+        runOnSensorThread(() -> {
+            headTracker.center();
+            publishPose(lastSensorTimestamp);
+        });
+    }
+
     private float normalizeAngle(float angle) {
         while (angle > Math.PI) {
             angle -= 2 * Math.PI;
@@ -888,17 +1233,10 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
     private void recenterCrosshair() {
         try {
-            // Reset calibration with current gyro position
-            if (gyroValues != null) {
-                if (calibrationOffset == null) calibrationOffset = new float[3];
-                System.arraycopy(gyroValues, 0, calibrationOffset, 0, 3);
-            }
+            runOnSensorThread(this::seedBiasFromCurrentSample);
             
             // Force center position
-            targetX = 0.5f;
-            targetY = 0.5f;
-            crosshairX = 0.5f;
-            crosshairY = 0.5f;
+            centerCrosshair();
             
             showToast("Crosshair recentered");
         } catch (Exception e) {
@@ -906,30 +1244,36 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         }
     }
 
+    // Sensor thread. The instantaneous rate is only a fallback until the estimator has seen
+    // stillness; after that it would overwrite a better estimate and fight its next update.
+    private void seedBiasFromCurrentSample() {
+        if (!biasEstimator.hasEstimate()) {
+            biasEstimator.setBias(gyroValues[0], gyroValues[1], gyroValues[2]);
+            headTracker.setBias(gyroValues[0], gyroValues[1], gyroValues[2]);
+        }
+    }
+
     private void calibrateVR() {
         try {
             if (gyroValues == null) gyroValues = new float[3];
-            if (calibrationOffset == null) calibrationOffset = new float[3];
             if (accelValues == null) accelValues = new float[3];
             if (magnetValues == null) magnetValues = new float[3];
             if (baseOrientation == null) baseOrientation = new float[3];
 
             uiHandler.postDelayed(() -> {
-                if (gyroValues != null && calibrationOffset != null) {
-                    System.arraycopy(gyroValues, 0, calibrationOffset, 0, 3);
-                }
+                // Raw sensor arrays are owned by the sensor thread
+                runOnSensorThread(() -> {
+                    seedBiasFromCurrentSample();
 
-                if (accelValues != null && magnetValues != null) {
                     float[] remappedMatrix = new float[9];
                     if (SensorManager.getRotationMatrix(rotationMatrix, null, accelValues, magnetValues)) {
                         SensorManager.remapCoordinateSystem(rotationMatrix,
                                 SensorManager.AXIS_Z, SensorManager.AXIS_X, remappedMatrix);
                         SensorManager.getOrientation(remappedMatrix, baseOrientation);
                     }
-                }
+                });
 
-                targetX = crosshairX = 0.5f;
-                targetY = crosshairY = 0.5f;
+                centerCrosshair();
                 isVRCalibrated = true;
                 showToast("VR Calibrated");
             }, 500);
@@ -950,16 +1294,11 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     private void startCalibrationTutorial() {
         isCalibrationTutorial = true;
         calibrationStep = 0;
-        
-        // Initialize calibration offset for movement during tutorial
-        if (calibrationOffset == null) calibrationOffset = new float[3];
+        applySamplingMode();
+        runOnSensorThread(gestureRecognizer::startLearning);
         
         // Wait for gyro values then set current position as baseline
-        uiHandler.postDelayed(() -> {
-            if (gyroValues != null) {
-                System.arraycopy(gyroValues, 0, calibrationOffset, 0, 3);
-            }
-        }, 500);
+        uiHandler.postDelayed(() -> runOnSensorThread(this::seedBiasFromCurrentSample), 500);
         
         showNextCalibrationStep();
     }
@@ -1063,8 +1402,11 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     }
 
     private void captureCalibrationPoint() {
-        if (gyroValues != null && calibrationStep < calibrationPoints.length) {
-            System.arraycopy(gyroValues, 0, calibrationPoints[calibrationStep], 0, 3);
+        if (calibrationStep < calibrationPoints.length) {
+            poseSnapshot.read(poseRead);
+            calibrationPoints[calibrationStep][0] = poseRead[POSE_GYRO_X];
+            calibrationPoints[calibrationStep][1] = poseRead[POSE_GYRO_Y];
+            calibrationPoints[calibrationStep][2] = poseRead[POSE_GYRO_Z];
 
             // Show capture feedback
             calibrationOverlay.setText(String.format("Position %d captured!\n\nProcessing...", calibrationStep + 1));
@@ -1072,7 +1414,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
             // If this is the center position (step 0), immediately set as calibration offset
             if (calibrationStep == 0) {
-                System.arraycopy(gyroValues, 0, calibrationOffset, 0, 3);
+                setCalibrationOffset(calibrationPoints[0]);
                 isVRCalibrated = true; // Enable movement immediately after center capture
             }
 
@@ -1088,6 +1430,14 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
     private void completeCalibrationTutorial() {
         isCalibrationTutorial = false;
+        applySamplingMode();
+
+        // Gestures have to be faster than the looking speed just observed
+        runOnSensorThread(() -> {
+            gestureRecognizer.finishLearning();
+            vrSettings.setGestureThresholds(gestureRecognizer.getVerticalThreshold(),
+                    gestureRecognizer.getHorizontalThreshold());
+        });
 
         // Validate calibration data
         boolean calibrationValid = true;
@@ -1102,7 +1452,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
         if (calibrationValid) {
             // Set center as calibration offset
-            System.arraycopy(calibrationPoints[0], 0, calibrationOffset, 0, 3);
+            setCalibrationOffset(calibrationPoints[0]);
             
             // Save calibration data
             saveCalibrationData();
@@ -1111,8 +1461,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
             isVRCalibrated = true;
             
             // Reset crosshair to center
-            targetX = crosshairX = 0.5f;
-            targetY = crosshairY = 0.5f;
+            centerCrosshair();
 
             if (calibrationMode) {
                 // Show success message and return to home
@@ -1156,10 +1505,11 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         if (savedPoints != null && savedPoints.length == 5) {
             calibrationPoints = savedPoints;
             if (calibrationPoints[0] != null) {
-                System.arraycopy(calibrationPoints[0], 0, calibrationOffset, 0, 3);
+                // Prefer the bias refined during the last session over the calibration sample
+                float[] savedBias = vrSettings.getGyroBias();
+                setCalibrationOffset(savedBias != null ? savedBias : calibrationPoints[0]);
                 isVRCalibrated = true;
-                targetX = crosshairX = 0.5f;
-                targetY = crosshairY = 0.5f;
+                centerCrosshair();
             }
         }
     }
@@ -1171,7 +1521,8 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
 
         float centerValue = calibrationPoints[0][1];
         float directionValue = calibrationPoints[direction][1];
-        float currentValue = gyroValues[1];
+        poseSnapshot.read(poseRead);
+        float currentValue = poseRead[POSE_GYRO_Y];
 
         float directionRange = Math.abs(directionValue - centerValue);
         float currentOffset = currentValue - centerValue;
@@ -1199,26 +1550,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
             float webX = (x / eyeWidth) * hiddenWebView.getWidth();
             float webY = (y / eyeHeight) * hiddenWebView.getHeight();
 
-            String script = String.format(
-                    "(function() {"
-                    + "  var element = document.elementFromPoint(%f, %f);"
-                    + "  if (element) {"
-                    + "    var event = new MouseEvent('click', {"
-                    + "      view: window,"
-                    + "      bubbles: true,"
-                    + "      cancelable: true,"
-                    + "      clientX: %f,"
-                    + "      clientY: %f"
-                    + "    });"
-                    + "    element.dispatchEvent(event);"
-                    + "    if (element.click) element.click();"
-                    + "    if (element.href && element.tagName === 'A') {"
-                    + "      window.location.href = element.href;"
-                    + "    }"
-                    + "  }"
-                    + "})();", webX, webY, webX, webY);
-
-            hiddenWebView.evaluateJavascript(script, null);
+            inputRuntime.click(webX, webY);
             performHapticFeedback();
         } catch (Exception e) {
             Log.e(TAG, "Error in performClick", e);
@@ -1271,6 +1603,15 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
                 });
             }
 
+            View profile = findViewById(R.id.menu_render_profile);
+            if (profile != null) {
+                profile.setOnClickListener(v -> {
+                    toggleRenderProfile();
+                    performHapticFeedback();
+                    hideMenu();
+                });
+            }
+
             View settings = findViewById(R.id.menu_settings);
             if (settings != null) {
                 settings.setOnClickListener(v -> {
@@ -1293,9 +1634,35 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         }
     }
 
+    // Live switch so the site's capture cost can be compared with and without its profile
+    private void toggleRenderProfile() {
+        renderProfileOn = !renderProfileOn;
+        vrSettings.setRenderProfileEnabled(renderProfile.origin, renderProfileOn);
+        hiddenWebView.evaluateJavascript(RenderProfile.toggleScript(renderProfileOn), null);
+        // Later documents start in the new state
+        documentScripts.attach(hiddenWebView.getUrl(), renderProfile.script(renderProfileOn));
+        showToast(String.format("Render profile %s (draw %.1fms off / %.1fms on)",
+                renderProfileOn ? "on" : "off", captureCost.getOffMeanMillis(), captureCost.getOnMeanMillis()));
+    }
+
+    // Switches profile and capture-cost stats when the page's origin changes, saving the old stats
+    private void useRenderProfileFor(String url) {
+        String origin = VrDocumentScripts.originOf(url);
+        if (origin == null ? renderProfile.origin == null : origin.equals(renderProfile.origin)) {
+            return;
+        }
+        vrSettings.setRenderCost(renderProfile.origin, captureCost.encode());
+        renderProfile = RenderProfile.forOrigin(origin);
+        renderProfileOn = vrSettings.getRenderProfileEnabled(renderProfile.origin);
+        captureCost = CaptureCostStats.decode(vrSettings.getRenderCost(renderProfile.origin));
+        documentScripts.attach(url, renderProfile.script(renderProfileOn));
+        inputRuntime.attach(url);
+    }
+
     private void refreshSettings() {
         try {
             loadSettings();
+            applySamplingMode();
             if (crosshairPaint != null) {
                 crosshairPaint.setStrokeWidth(2f * crosshairSize);
                 crosshairPaint.setColor(vrSettings.getCrosshairColor());
@@ -1313,8 +1680,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     }
 
     private void setupHardwareMode() {
-        targetX = crosshairX = 0.5f;
-        targetY = crosshairY = 0.5f;
+        centerCrosshair();
         isVRCalibrated = true;
         
         showToast("Hardware Controller Mode - Use ESP32 controller for navigation");
@@ -1327,7 +1693,8 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         if (hiddenWebView != null) {
             hiddenWebView.setVisibility(View.VISIBLE);
             hiddenWebView.setAlpha(0f); // Invisible but interactive
-            hiddenWebView.bringToFront();
+            // The WebView lives in its layout slot, so raise the slot above the eye views
+            webViewSlot.bringToFront();
             hiddenWebView.requestFocus();
         }
     }
@@ -1336,11 +1703,6 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
         runOnUiThread(() -> android.widget.Toast.makeText(this, message, android.widget.Toast.LENGTH_SHORT).show());
     }
 
-    @Override
-    public void onAccuracyChanged(Sensor sensor, int accuracy) {
-        // Handle sensor accuracy changes
-    }
-
     private void updateDebugInfo() {
         if (!vrSettings.getShowFps() && !vrSettings.getShowDebug()) {
             debugOverlay.setVisibility(View.GONE);
@@ -1363,6 +1725,31 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
                 }
                 debugText.append(String.format("Zoom: %.1fx | Click: %.1f | Sens: %.1f",
                         zoom, crosshairClickProgress, sensitivity));
+                if (inputRuntime != null && inputRuntime.getLastRoundTripMs() >= 0) {
+                    debugText.append(String.format("\nInput: %dms (page %.1fms) %s",
+                            inputRuntime.getLastRoundTripMs(), inputRuntime.getLastPageMs(), inputRuntime.getLastHit()));
+                }
+                if (pagePerf.hasSamples()) {
+                    debugText.append("\n").append(pagePerf.overlayLine());
+                }
+                if (captureCost != null) {
+                    debugText.append(String.format("\nDraw: %.1fms off / %.1fms on (profile %s)",
+                            captureCost.getOffMeanMillis(), captureCost.getOnMeanMillis(), renderProfileOn ? "on" : "off"));
+                }
+                if (requestFilter != null) {
+                    debugText.append(String.format("\nBlocked: %d/%d requests, ~%dKB",
+                            requestFilter.getBlockedRequests(), requestFilter.getCheckedRequests(),
+                            requestFilter.getBlockedBytes() / 1024));
+                }
+                if (imageDownsampler != null) {
+                    debugText.append(String.format("\nImages: %d downsampled, %d cached, %.1fMB saved",
+                            imageDownsampler.getDownsampledCount(), imageDownsampler.getHits(),
+                            imageDownsampler.getBytesSaved() / (1024f * 1024f)));
+                }
+                if (firstFrameMillis >= 0) {
+                    debugText.append(String.format("\nFirst frame: %dms (prefetch saves ~%dms)",
+                            firstFrameMillis, DestinationPrefetcher.getInstance(this).getStats().getSavedMillis()));
+                }
             }
 
             debugOverlay.setText(debugText.toString());
@@ -1392,8 +1779,35 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
     protected void onPause() {
         super.onPause();
         isCapturing = false;
-        if (sensorManager != null) {
-            sensorManager.unregisterListener(this);
+        stopCrosshairLoop();
+        if (nativeInput != null) {
+            nativeInput.cancel();
+        }
+        saveGyroBias();
+        stopSensors();
+        closeTraceRecorder();
+    }
+
+    // Call before stopSensors(): the read is queued behind pending samples on the sensor
+    // thread, which quitSafely() drains, so it never races the estimator
+    private void saveGyroBias() {
+        runOnSensorThread(() -> {
+            if (biasEstimator.hasEstimate()) {
+                float[] bias = new float[3];
+                biasEstimator.getBias(bias);
+                vrSettings.setGyroBias(bias);
+            }
+        });
+    }
+
+    private void closeTraceRecorder() {
+        if (traceRecorder != null) {
+            try {
+                traceRecorder.close();
+            } catch (IOException e) {
+                Log.e(TAG, "Trace recorder close failed", e);
+            }
+            traceRecorder = null;
         }
     }
 
@@ -1404,6 +1818,7 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
             startCapture();
         }
         setupSensors();
+        startCrosshairLoop();
         enterImmersiveMode();
     }
 
@@ -1421,17 +1836,42 @@ public class VrActivity extends AppCompatActivity implements SensorEventListener
             if (uiHandler != null) {
                 uiHandler.removeCallbacksAndMessages(null);
             }
-            if (crosshairHandler != null) {
-                crosshairHandler.removeCallbacksAndMessages(null);
-            }
             if (backgroundExecutor != null) {
                 backgroundExecutor.shutdown();
             }
-            if (sensorManager != null) {
-                sensorManager.unregisterListener(this);
-            }
+            stopSensors();
             if (hiddenWebView != null) {
-                hiddenWebView.destroy();
+                if (inputRuntime != null) {
+                    inputRuntime.detach();
+                }
+                if (documentScripts != null) {
+                    if (webViewLease != WebViewPool.NO_LEASE) {
+                        documentScripts.restorePage();
+                    } else {
+                        documentScripts.detach();
+                    }
+                }
+                if (captureCost != null) {
+                    vrSettings.setRenderCost(renderProfile.origin, captureCost.encode());
+                }
+                if (pageTelemetry != null) {
+                    pageTelemetry.stop();
+                }
+                if (gazeTargets != null) {
+                    gazeTargets.stop();
+                }
+                writeSessionReport();
+                if (webViewLease != WebViewPool.NO_LEASE) {
+                    // Hand the page back the way WebsiteActivity lent it
+                    hiddenWebView.setAlpha(1f);
+                    hiddenWebView.setVisibility(View.VISIBLE);
+                    hiddenWebView.setFocusable(true);
+                    hiddenWebView.setFocusableInTouchMode(true);
+                    hiddenWebView.setLayerType(View.LAYER_TYPE_NONE, null);
+                    WebViewPool.getInstance(this).giveBack(webViewLease);
+                } else {
+                    WebViewPool.getInstance(this).release(hiddenWebView);
+                }
             }
 
             // Clean up bitmaps safely
@@ -0,0 +1,145 @@
+// VR DOCUMENT SCRIPTS - VR styles and input runtime injected at document start
+package com.example.vrwebviewer;
+
+import android.util.Log;
+import android.webkit.WebView;
+import androidx.webkit.ScriptHandler;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Registers the VR stylesheet, WebInputRuntime and the PageTelemetry and GazeTargets
+ * collectors as a document-start script for the destination's origin, so the page's
+ * first layout is already the VR layout instead of being restyled once onPageFinished
+ * fires. Documents the script can't reach (other origins, WebViews without
+ * DOCUMENT_START_SCRIPT, a page that was already loaded) fall back to applyNow().
+ * Main thread only.
+ */
+public class VrDocumentScripts {
+    
+    private static final String TAG = "VrDocumentScripts";
+    private static final String STYLE_ID = "__stardust_vr_style";
+    
+    static final String VR_CSS = "body { font-size: 16px !important; line-height: 1.5 !important; }"
+            + "a, button { min-height: 40px !important; padding: 10px !important; }"
+            + "input, select { font-size: 16px !important; padding: 10px !important; }";
+    
+    // Runs before the parser has built <head>, so it may have to wait for the root element
+    public static final String STYLE_JS = "(function() {"
+            + "  if (document.getElementById('" + STYLE_ID + "')) return;"
+            + "  var style = document.createElement('style');"
+            + "  style.id = '" + STYLE_ID + "';"
+            + "  style.textContent = '" + VR_CSS + "';"
+            + "  var root = document.head || document.documentElement;"
+            + "  if (root) { root.appendChild(style); return; }"
+            + "  new MutationObserver(function(m, observer) {"
+            + "    if (document.documentElement) {"
+            + "      observer.disconnect();"
+            + "      document.documentElement.appendChild(style);"
+            + "    }"
+            + "  }).observe(document, { childList: true });"
+            + "})();";
+    
+    // Undoes applyNow() in a document going back to a normal browser view: drops the VR
+    // sheet, reverts the render profile and stops the collectors. Returns true when clean.
+    static final String TEARDOWN_JS = "(function() {"
+            + "  var style = document.getElementById('" + STYLE_ID + "');"
+            + "  if (style && style.parentNode) style.parentNode.removeChild(style);"
+            + "  if (window.__stardustProfile) __stardustProfile.set(false);"
+            + "  if (window.__stardustPerf && __stardustPerf.stop) __stardustPerf.stop();"
+            + "  if (window.__stardustTargets && __stardustTargets.stop) __stardustTargets.stop();"
+            + "  return !document.getElementById('" + STYLE_ID + "');"
+            + "})();";
+    
+    private final WebView webView;
+    private ScriptHandler handler;
+    private String origin;
+    private String profileScript = "";
+    
+    public VrDocumentScripts(WebView webView) {
+        this.webView = webView;
+    }
+    
+    // Call before loadUrl; returns false when the page will need applyNow() instead.
+    // profileScript (RenderProfile.script) rides along in the same document-start script
+    public boolean attach(String pageUrl, String profileScript) {
+        detach();
+        this.profileScript = profileScript != null ? profileScript : "";
+        origin = originOf(pageUrl);
+        if (origin == null || !WebViewFeature.isFeatureSupported(WebViewFeature.DOCUMENT_START_SCRIPT)) {
+            return false;
+        }
+        try {
+            handler = WebViewCompat.addDocumentStartJavaScript(webView,
+                    pageScripts(), Collections.singleton(origin));
+            return handler != null;
+        } catch (Exception e) {
+            Log.e(TAG, "Document start script error: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    // True if documents at url already got the scripts before they ran
+    public boolean covers(String url) {
+        return handler != null && origin != null && origin.equals(originOf(url));
+    }
+    
+    // Post-load fallback; both scripts ignore a second run in the same document
+    public void applyNow() {
+        webView.evaluateJavascript(pageScripts(), null);
+    }
+    
+    private String pageScripts() {
+        return STYLE_JS + WebInputRuntime.RUNTIME_JS + PageTelemetry.COLLECTOR_JS + GazeTargets.COLLECTOR_JS
+                + profileScript;
+    }
+    
+    // Call before the WebView is handed on so its next owner loads pages unstyled
+    public void detach() {
+        if (handler != null) {
+            handler.remove();
+            handler = null;
+        }
+    }
+    
+    // detach() plus undoing the scripts in the live document, for a WebView handed back to
+    // WebsiteActivity. If the teardown doesn't report success the page is reloaded instead.
+    public void restorePage() {
+        detach();
+        webView.evaluateJavascript(TEARDOWN_JS, value -> {
+            if (!"true".equals(value)) {
+                Log.e(TAG, "Teardown failed, reloading");
+                webView.reload();
+            }
+        });
+    }
+    
+    // Origin rule for addDocumentStartJavaScript: scheme://host[:port], http(s) only
+    static String originOf(String url) {
+        if (url == null) {
+            return null;
+        }
+        try {
+            URI uri = new URI(url);
+            String scheme = uri.getScheme();
+            String host = uri.getHost();
+            if (scheme == null || host == null) {
+                return null;
+            }
+            scheme = scheme.toLowerCase(Locale.US);
+            if (!scheme.equals("http") && !scheme.equals("https")) {
+                return null;
+            }
+            int port = uri.getPort();
+            boolean defaultPort = port == -1
+                    || (port == 80 && scheme.equals("http"))
+                    || (port == 443 && scheme.equals("https"));
+            return scheme + "://" + host.toLowerCase(Locale.US) + (defaultPort ? "" : ":" + port);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
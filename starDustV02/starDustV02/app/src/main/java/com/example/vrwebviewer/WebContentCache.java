@@ -0,0 +1,116 @@
+// WEB CONTENT CACHE - ContentCache wired into WebViewClient.shouldInterceptRequest
+package com.example.vrwebviewer;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process-wide cache for the heavy static parts of the planet sites: scripts, styles,
+ * textures, models and fonts. Pages, and requests that carry Cookie or Authorization,
+ * still go through WebView's own network stack; ContentCache itself refuses responses
+ * that set cookies or are private or no-store. Call intercept() from
+ * shouldInterceptRequest; a null result means "let WebView load it".
+ */
+public final class WebContentCache {
+    
+    private static final String TAG = "WebContentCache";
+    private static final long MAX_BYTES = 128L * 1024 * 1024;
+    private static WebContentCache instance;
+    
+    private static final Set<String> CACHEABLE_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "js", "mjs", "css", "png", "jpg", "jpeg", "webp", "gif", "svg", "avif",
+            "woff", "woff2", "ttf", "otf", "glb", "gltf", "bin", "ktx2", "basis", "wasm",
+            "hdr", "mp3", "ogg"));
+    
+    // Forwarded so the origin answers as it would for the WebView; cookies deliberately are not
+    private static final Set<String> FORWARDED_HEADERS = new HashSet<>(Arrays.asList(
+            "user-agent", "accept", "accept-language", "referer", "origin"));
+    
+    private final ContentCache cache;
+    
+    public static synchronized WebContentCache getInstance(Context context) {
+        if (instance == null) {
+            File dir = new File(context.getApplicationContext().getCacheDir(), "web-content");
+            instance = new WebContentCache(new ContentCache(dir, MAX_BYTES));
+        }
+        return instance;
+    }
+    
+    private WebContentCache(ContentCache cache) {
+        this.cache = cache;
+    }
+    
+    // Called on a WebView network thread
+    public WebResourceResponse intercept(WebResourceRequest request) {
+        if (!isCacheable(request)) {
+            return null;
+        }
+        
+        try {
+            ContentCache.Response response = cache.fetch(request.getUrl().toString(), forwardedHeaders(request));
+            if (response.status < 200 || response.status >= 300) {
+                // Errors and redirects are better handled by WebView itself
+                response.body.close();
+                return null;
+            }
+            return new WebResourceResponse(response.mimeType, response.encoding, response.status,
+                    "OK", response.headers, response.body);
+        } catch (Exception e) {
+            Log.e(TAG, "Cache fetch failed, falling back to network: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    public ContentCache getCache() {
+        return cache;
+    }
+    
+    static Map<String, String> forwardedHeaders(WebResourceRequest request) {
+        Map<String, String> headers = new HashMap<>();
+        for (Map.Entry<String, String> header : request.getRequestHeaders().entrySet()) {
+            if (FORWARDED_HEADERS.contains(header.getKey().toLowerCase(Locale.US))) {
+                headers.put(header.getKey(), header.getValue());
+            }
+        }
+        return headers;
+    }
+    
+    private static boolean isCacheable(WebResourceRequest request) {
+        if (request.isForMainFrame() || !"GET".equals(request.getMethod())) {
+            return false;
+        }
+        for (String name : request.getRequestHeaders().keySet()) {
+            // Partial or credentialed responses must not be replayed to other requests
+            String lower = name.toLowerCase(Locale.US);
+            if (lower.equals("range") || lower.equals("cookie") || lower.equals("authorization")) {
+                return false;
+            }
+        }
+        Uri url = request.getUrl();
+        String scheme = url.getScheme();
+        if (!"https".equals(scheme) && !"http".equals(scheme)) {
+            return false;
+        }
+        return isCacheablePath(url.getPath());
+    }
+    
+    // Static sub-resources only, judged by file extension
+    public static boolean isCacheablePath(String path) {
+        if (path == null) {
+            return false;
+        }
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/')
+                && CACHEABLE_EXTENSIONS.contains(path.substring(dot + 1).toLowerCase(Locale.US));
+    }
+}
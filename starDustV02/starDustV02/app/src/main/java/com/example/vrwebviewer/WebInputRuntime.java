@@ -0,0 +1,191 @@
+// WEB INPUT RUNTIME - Page-side input helpers installed once per document
+package com.example.vrwebviewer;
+
+import android.os.SystemClock;
+import android.util.Log;
+import android.webkit.WebView;
+import androidx.webkit.WebMessageCompat;
+import androidx.webkit.WebViewCompat;
+import androidx.webkit.WebViewFeature;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.json.JSONObject;
+
+/**
+ * Page side is window.__stardust (click / move / scroll), installed once per document
+ * by VrDocumentScripts, so each interaction is a one-line call instead of a freshly
+ * compiled IIFE. Hit-test results and in-page timings come back over a
+ * WebMessageListener when the WebView supports it, exposed only to the destination's
+ * origin (the same rule as the document-start script) so other sites and their frames
+ * never see the bridge. Main thread only.
+ */
+public class WebInputRuntime {
+    
+    // Receives bridge messages other than click results: PageTelemetry samples, GazeTargets rects
+    public interface PageMessageListener {
+        void onPageMessage(JSONObject msg);
+    }
+    
+    private static final String TAG = "WebInputRuntime";
+    public static final String BRIDGE_NAME = "__stardustNative";
+    
+    public static final String RUNTIME_JS = "(function() {"
+            + "  if (window.__stardust) return;"
+            + "  var bridge = window." + BRIDGE_NAME + ";"
+            + "  var hover = null;"
+            + "  function report(msg) { if (bridge) bridge.postMessage(JSON.stringify(msg)); }"
+            + "  function mouse(el, type, x, y) {"
+            + "    el.dispatchEvent(new MouseEvent(type, { view: window, bubbles: true, cancelable: true, clientX: x, clientY: y }));"
+            + "  }"
+            + "  function click(x, y, seq) {"
+            + "    var t0 = performance.now();"
+            + "    var el = document.elementFromPoint(x, y);"
+            + "    if (el) {"
+            + "      mouse(el, 'mousedown', x, y);"
+            + "      mouse(el, 'mouseup', x, y);"
+            + "      if (el.click) { el.click(); } else { mouse(el, 'click', x, y); }"
+            + "      if (el.href && el.tagName === 'A') { window.location.href = el.href; }"
+            + "    }"
+            + "    var hit = el ? el.tagName : '';"
+            + "    report({ t: 'click', seq: seq, hit: hit, ms: performance.now() - t0 });"
+            + "    return hit;"
+            + "  }"
+            + "  function move(x, y) {"
+            + "    var el = document.elementFromPoint(x, y);"
+            + "    if (el !== hover) {"
+            + "      if (hover) mouse(hover, 'mouseout', x, y);"
+            + "      if (el) mouse(el, 'mouseover', x, y);"
+            + "      hover = el;"
+            + "    }"
+            + "    if (el) mouse(el, 'mousemove', x, y);"
+            + "  }"
+            + "  function scroll(dx, dy) { window.scrollBy(dx, dy); }"
+            + "  window.__stardust = { version: 1, click: click, move: move, scroll: scroll };"
+            + "})();";
+    
+    private static final int PENDING_SLOTS = 16;
+    
+    private final WebView webView;
+    private final boolean bridgeSupported;
+    private boolean hasBridge = false;
+    
+    // Click round-trip bookkeeping, indexed by seq
+    private final long[] sentAt = new long[PENDING_SLOTS];
+    private int nextSeq = 1;
+    private int clicksSent = 0;
+    private int clicksReported = 0;
+    private long lastRoundTripMs = -1;
+    private float lastPageMs = -1f;
+    private String lastHit = "";
+    private final List<PageMessageListener> pageMessageListeners = new ArrayList<>();
+    
+    public WebInputRuntime(WebView webView) {
+        this.webView = webView;
+        this.bridgeSupported = WebViewFeature.isFeatureSupported(WebViewFeature.WEB_MESSAGE_LISTENER);
+    }
+    
+    // Call before loadUrl, and again when navigation moves to another origin: the bridge
+    // object only exists in documents loaded after it was added. Without an http(s)
+    // origin there is no bridge and clicks fall back to evaluateJavascript results.
+    public void attach(String pageUrl) {
+        detach();
+        String origin = VrDocumentScripts.originOf(pageUrl);
+        if (origin == null || !bridgeSupported) {
+            return;
+        }
+        try {
+            WebViewCompat.addWebMessageListener(webView, BRIDGE_NAME, Collections.singleton(origin),
+                    (view, message, sourceOrigin, isMainFrame, replyProxy) -> {
+                        if (isMainFrame) {
+                            onPageMessage(message);
+                        }
+                    });
+            hasBridge = true;
+        } catch (Exception e) {
+            Log.e(TAG, "Message listener error: " + e.getMessage());
+        }
+    }
+    
+    public void addPageMessageListener(PageMessageListener listener) {
+        pageMessageListeners.add(listener);
+    }
+    
+    // Call before the WebView is handed on, so the next owner can install its own bridge
+    public void detach() {
+        if (hasBridge) {
+            WebViewCompat.removeWebMessageListener(webView, BRIDGE_NAME);
+            hasBridge = false;
+        }
+    }
+    
+    // Coordinates are CSS pixels in the page viewport
+    public void click(float x, float y) {
+        int seq = nextSeq++;
+        sentAt[seq % PENDING_SLOTS] = SystemClock.uptimeMillis();
+        clicksSent++;
+        String call = "window.__stardust && __stardust.click(" + x + "," + y + "," + seq + ")";
+        if (hasBridge) {
+            webView.evaluateJavascript(call, null);
+        } else {
+            // No bridge: the return value is the only result we get
+            webView.evaluateJavascript(call, value -> onClickResult(seq, value, -1f));
+        }
+    }
+    
+    public void move(float x, float y) {
+        webView.evaluateJavascript("window.__stardust && __stardust.move(" + x + "," + y + ")", null);
+    }
+    
+    public void scroll(float dx, float dy) {
+        webView.evaluateJavascript("window.__stardust && __stardust.scroll(" + dx + "," + dy + ")", null);
+    }
+    
+    private void onPageMessage(WebMessageCompat message) {
+        try {
+            JSONObject msg = new JSONObject(message.getData());
+            if ("click".equals(msg.optString("t"))) {
+                onClickResult(msg.optInt("seq"), msg.optString("hit"), (float) msg.optDouble("ms", -1));
+            } else {
+                for (PageMessageListener listener : pageMessageListeners) {
+                    listener.onPageMessage(msg);
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Bad page message: " + e.getMessage());
+        }
+    }
+    
+    private void onClickResult(int seq, String hit, float pageMs) {
+        clicksReported++;
+        lastRoundTripMs = SystemClock.uptimeMillis() - sentAt[seq % PENDING_SLOTS];
+        lastPageMs = pageMs;
+        lastHit = hit != null ? hit.replace("\"", "") : "";
+    }
+    
+    public boolean hasBridge() {
+        return hasBridge;
+    }
+    
+    public int getClicksSent() {
+        return clicksSent;
+    }
+    
+    public int getClicksReported() {
+        return clicksReported;
+    }
+    
+    // Native send to result delivery, or -1 before the first result
+    public long getLastRoundTripMs() {
+        return lastRoundTripMs;
+    }
+    
+    // Time spent inside __stardust.click, or -1 when unknown
+    public float getLastPageMs() {
+        return lastPageMs;
+    }
+    
+    public String getLastHit() {
+        return lastHit;
+    }
+}
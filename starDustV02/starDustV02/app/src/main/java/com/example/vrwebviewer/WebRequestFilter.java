@@ -0,0 +1,117 @@
+// WEB REQUEST FILTER - Blocks analytics, ads and social embeds during a VR session
+package com.example.vrwebviewer;
+
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RequestFilter wired into shouldInterceptRequest, with counts for one VR session.
+ * Blocked requests get an empty 204 so pages see a quick, harmless failure instead
+ * of a hang. Main-frame navigations are never blocked.
+ */
+public class WebRequestFilter {
+    
+    // Tuned for the planet destinations; sizes are typical transfer KB for the estimate
+    static final String[] VR_RULES = {
+        "# Google analytics and ads",
+        "||google-analytics.com 50",
+        "||googletagmanager.com 90",
+        "||doubleclick.net 60",
+        "||googlesyndication.com 120",
+        "||googleadservices.com 20",
+        "||adservice.google.com 10",
+        "# US government analytics and feedback widgets on nasa.gov",
+        "||dap.digitalgov.gov 40",
+        "||touchpoints.app.cloud.gov 30",
+        "||siteimproveanalytics.com 30",
+        "# Vercel analytics on the planet tours",
+        "||va.vercel-scripts.com 5",
+        "/_vercel/insights/ 5",
+        "/_vercel/speed-insights/ 5",
+        "# Ad networks and trackers on constellation-guide.com",
+        "||amazon-adsystem.com 80",
+        "||adnxs.com 30",
+        "||quantserve.com 20",
+        "||scorecardresearch.com 15",
+        "||hotjar.com 60",
+        "||clarity.ms 40",
+        "# Social embeds and share widgets",
+        "||connect.facebook.net 80",
+        "||platform.twitter.com 100",
+        "||addthis.com 70",
+        "||sharethis.com 60",
+        "||disqus.com 150",
+        "# Generic beacons",
+        "/collect?v= 1",
+        "/pixel.gif 1",
+    };
+    
+    private static RequestFilter sharedFilter;
+    
+    private final RequestFilter filter;
+    private final AtomicIntegerArray blockedByRule;
+    private final AtomicInteger blockedRequests = new AtomicInteger();
+    private final AtomicInteger checkedRequests = new AtomicInteger();
+    private final AtomicLong blockedBytes = new AtomicLong();
+    
+    // Compiled once per process; each session only allocates its counters
+    private static synchronized RequestFilter shared() {
+        if (sharedFilter == null) {
+            sharedFilter = RequestFilter.compile(VR_RULES);
+        }
+        return sharedFilter;
+    }
+    
+    public WebRequestFilter() {
+        this.filter = shared();
+        this.blockedByRule = new AtomicIntegerArray(filter.getRuleCount());
+    }
+    
+    // Called on a WebView network thread; null means "not blocked"
+    public WebResourceResponse intercept(WebResourceRequest request) {
+        if (request.isForMainFrame()) {
+            return null;
+        }
+        checkedRequests.incrementAndGet();
+        int rule = filter.match(request.getUrl().toString());
+        if (rule == RequestFilter.NO_MATCH) {
+            return null;
+        }
+        blockedByRule.incrementAndGet(rule);
+        blockedRequests.incrementAndGet();
+        blockedBytes.addAndGet(filter.getEstimatedBytes(rule));
+        return new WebResourceResponse("text/plain", "utf-8", 204, "No Content", null,
+                new ByteArrayInputStream(new byte[0]));
+    }
+    
+    public int getBlockedRequests() {
+        return blockedRequests.get();
+    }
+    
+    public int getCheckedRequests() {
+        return checkedRequests.get();
+    }
+    
+    // Estimated from the rule sizes; blocked responses are never downloaded
+    public long getBlockedBytes() {
+        return blockedBytes.get();
+    }
+    
+    // One line per rule that fired, for the session log
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Blocked ").append(blockedRequests.get()).append(" of ").append(checkedRequests.get())
+                .append(" requests, ~").append(blockedBytes.get() / 1024).append(" KB");
+        for (int i = 0; i < blockedByRule.length(); i++) {
+            int count = blockedByRule.get(i);
+            if (count > 0) {
+                summary.append("\n  ").append(filter.getRule(i)).append(": ").append(count);
+            }
+        }
+        return summary.toString();
+    }
+}
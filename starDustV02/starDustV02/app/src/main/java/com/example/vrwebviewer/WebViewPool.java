@@ -0,0 +1,200 @@
+// WEBVIEW POOL - Process-wide pre-warmed WebViews and live page hand-off
+package com.example.vrwebviewer;
+
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.SparseArray;
+import android.view.View;
+import android.view.ViewGroup;
+import android.webkit.WebChromeClient;
+import android.webkit.WebView;
+import android.webkit.WebViewClient;
+import java.util.ArrayDeque;
+
+/**
+ * Keeps a spare WebView ready so activities don't pay Chromium start-up on their
+ * critical path, and lets one activity lend its live WebView (page, scroll and JS
+ * state) to another. Every pooled WebView is built on a MutableContextWrapper so it
+ * can be moved between activities without leaking the previous one. Main thread only.
+ */
+public final class WebViewPool {
+    
+    public interface ReturnListener {
+        // The borrower is done; the WebView is detached and ready to be re-inserted
+        void onWebViewReturned(WebView webView);
+    }
+    
+    public static final String EXTRA_LEASE = "webview_lease";
+    public static final int NO_LEASE = -1;
+    
+    private static final String TAG = "WebViewPool";
+    private static final int MAX_SPARE = 1;
+    private static WebViewPool instance;
+    
+    private static final class Lease {
+        final WebView webView;
+        ReturnListener owner;
+        boolean borrowed = false;
+        
+        Lease(WebView webView, ReturnListener owner) {
+            this.webView = webView;
+            this.owner = owner;
+        }
+    }
+    
+    private final Context appContext;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final ArrayDeque<WebView> spares = new ArrayDeque<>();
+    private final SparseArray<Lease> leases = new SparseArray<>();
+    private int nextLeaseId = 1;
+    // Released WebViews still loading about:blank; they join spares once it has committed
+    private int scrubbing = 0;
+    private boolean prewarmScheduled = false;
+    
+    public static synchronized WebViewPool getInstance(Context context) {
+        if (instance == null) {
+            instance = new WebViewPool(context.getApplicationContext());
+        }
+        return instance;
+    }
+    
+    private WebViewPool(Context appContext) {
+        this.appContext = appContext;
+    }
+    
+    // Builds a spare the next time the main thread is idle
+    public void prewarm() {
+        if (prewarmScheduled || spares.size() >= MAX_SPARE) {
+            return;
+        }
+        prewarmScheduled = true;
+        Looper.myQueue().addIdleHandler(() -> {
+            prewarmScheduled = false;
+            if (spares.size() < MAX_SPARE) {
+                try {
+                    spares.add(new WebView(new MutableContextWrapper(appContext)));
+                } catch (Exception e) {
+                    // WebView provider missing or updating; activities will create their own
+                    Log.e(TAG, "Prewarm failed: " + e.getMessage());
+                }
+            }
+            return false;
+        });
+    }
+    
+    public WebView acquire(Context context) {
+        WebView webView = spares.poll();
+        if (webView == null) {
+            webView = new WebView(new MutableContextWrapper(context));
+        } else {
+            setContext(webView, context);
+        }
+        prewarm();
+        return webView;
+    }
+    
+    // Returns a WebView to the pool, or destroys it if the pool is full
+    public void release(WebView webView) {
+        detach(webView);
+        if (spares.size() + scrubbing >= MAX_SPARE || !(webView.getContext() instanceof MutableContextWrapper)) {
+            webView.destroy();
+            return;
+        }
+        webView.stopLoading();
+        webView.setWebChromeClient(new WebChromeClient());
+        webView.getSettings().setUserAgentString(null);
+        setContext(webView, appContext);
+        scrubbing++;
+        webView.setWebViewClient(new WebViewClient() {
+            @Override
+            public void onPageFinished(WebView view, String url) {
+                if (!"about:blank".equals(url)) {
+                    return;
+                }
+                // loadUrl is async: clearing any earlier would keep the previous site in history
+                view.clearHistory();
+                view.setWebViewClient(new WebViewClient());
+                scrubbing--;
+                if (spares.size() < MAX_SPARE) {
+                    spares.add(view);
+                } else {
+                    view.destroy();
+                }
+            }
+        });
+        webView.loadUrl("about:blank");
+    }
+    
+    // Lends a live WebView; pass the returned id to the borrower in EXTRA_LEASE
+    public int lend(WebView webView, ReturnListener owner) {
+        detach(webView);
+        setContext(webView, appContext);
+        int id = nextLeaseId++;
+        leases.put(id, new Lease(webView, owner));
+        return id;
+    }
+    
+    // Null if the lease is unknown or already taken
+    public WebView borrow(int leaseId, Context context) {
+        Lease lease = leases.get(leaseId);
+        if (lease == null || lease.borrowed) {
+            return null;
+        }
+        lease.borrowed = true;
+        setContext(lease.webView, context);
+        return lease.webView;
+    }
+    
+    // Borrower is finished with it; the owner gets it back, or the pool does if the owner is gone
+    public void giveBack(int leaseId) {
+        Lease lease = leases.get(leaseId);
+        if (lease == null) {
+            return;
+        }
+        leases.remove(leaseId);
+        detach(lease.webView);
+        setContext(lease.webView, appContext);
+        ReturnListener owner = lease.owner;
+        if (owner != null) {
+            // Posted so the owner isn't re-entered from the borrower's onDestroy
+            handler.post(() -> owner.onWebViewReturned(lease.webView));
+        } else {
+            release(lease.webView);
+        }
+    }
+    
+    // Owner is going away; an outstanding WebView is recycled when it comes back
+    public void cancelLease(int leaseId) {
+        Lease lease = leases.get(leaseId);
+        if (lease == null) {
+            return;
+        }
+        lease.owner = null;
+        if (!lease.borrowed) {
+            leases.remove(leaseId);
+            release(lease.webView);
+        }
+    }
+    
+    // Fills a layout slot (a FrameLayout in the activity's XML) with the WebView
+    public static void attach(ViewGroup slot, WebView webView) {
+        detach(webView);
+        slot.addView(webView, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+    }
+    
+    private static void detach(View view) {
+        if (view.getParent() instanceof ViewGroup) {
+            ((ViewGroup) view.getParent()).removeView(view);
+        }
+    }
+    
+    private static void setContext(WebView webView, Context context) {
+        if (webView.getContext() instanceof MutableContextWrapper) {
+            ((MutableContextWrapper) webView.getContext()).setBaseContext(context);
+        }
+    }
+}
@@ -7,7 +7,10 @@ import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewGroup;
 import android.webkit.WebChromeClient;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebView;
 import android.webkit.WebViewClient;
 import android.widget.Button;
@@ -21,6 +24,9 @@ public class WebsiteActivity extends AppCompatActivity {
     private static final String TAG = "WebsiteActivity";
     
     private WebView webView;
+    private ViewGroup webViewSlot;
+    private int lentLease = WebViewPool.NO_LEASE;
+    private WebContentCache contentCache;
     private TextView urlDisplay;
     private Button backButton, forwardButton, reloadButton, vrButton;
     private ProgressBar progressBar;
@@ -79,7 +85,9 @@ public class WebsiteActivity extends AppCompatActivity {
         setSupportActionBar(toolbar);
         getSupportActionBar().setDisplayHomeAsUpEnabled(true);
         
-        webView = findViewById(R.id.webview);
+        webViewSlot = findViewById(R.id.webview);
+        webView = WebViewPool.getInstance(this).acquire(this);
+        WebViewPool.attach(webViewSlot, webView);
         urlDisplay = findViewById(R.id.url_display);
         backButton = findViewById(R.id.btn_back);
         forwardButton = findViewById(R.id.btn_forward);
@@ -95,7 +103,11 @@ public class WebsiteActivity extends AppCompatActivity {
         webView.getSettings().setUseWideViewPort(true);
         webView.getSettings().setBuiltInZoomControls(true);
         webView.getSettings().setDisplayZoomControls(false);
+        // Undo anything VR changed while it had this WebView
+        webView.getSettings().setUserAgentString(null);
+        webView.getSettings().setTextZoom(100);
         
+        contentCache = WebContentCache.getInstance(this);
         webView.setWebViewClient(new WebViewClient() {
             @Override
             public void onPageStarted(WebView view, String url, android.graphics.Bitmap favicon) {
@@ -116,6 +128,11 @@ public class WebsiteActivity extends AppCompatActivity {
                 progressBar.setVisibility(View.GONE);
                 Toast.makeText(WebsiteActivity.this, "Failed to load: " + description, Toast.LENGTH_LONG).show();
             }
+            
+            @Override
+            public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+                return contentCache.intercept(request);
+            }
         });
         
         webView.setWebChromeClient(new WebChromeClient() {
@@ -143,13 +160,29 @@ public class WebsiteActivity extends AppCompatActivity {
             } else if ("constellations".equals(mode)) {
                 intent.putExtra("destination", "constellations");
             } else {
+                // Hand the live page over so VR doesn't reload it
                 intent.putExtra("url", currentUrl);
+                lentLease = WebViewPool.getInstance(this).lend(webView, this::onWebViewReturned);
+                intent.putExtra(WebViewPool.EXTRA_LEASE, lentLease);
             }
             startActivity(intent);
         });
         updateNavigationButtons();
     }
     
+    private void onWebViewReturned(WebView returned) {
+        lentLease = WebViewPool.NO_LEASE;
+        if (isFinishing() || isDestroyed()) {
+            WebViewPool.getInstance(this).release(returned);
+            return;
+        }
+        webView = returned;
+        WebViewPool.attach(webViewSlot, webView);
+        setupWebView();
+        urlDisplay.setText(webView.getUrl());
+        updateNavigationButtons();
+    }
+    
     private void updateNavigationButtons() {
         backButton.setEnabled(webView.canGoBack());
         forwardButton.setEnabled(webView.canGoForward());
@@ -210,7 +243,11 @@ public class WebsiteActivity extends AppCompatActivity {
     
     @Override
     protected void onDestroy() {
-        if (webView != null) webView.destroy();
+        if (lentLease != WebViewPool.NO_LEASE) {
+            WebViewPool.getInstance(this).cancelLease(lentLease);
+        } else if (webView != null) {
+            WebViewPool.getInstance(this).release(webView);
+        }
         super.onDestroy();
     }
 }
\ No newline at end of file
@@ -0,0 +1,260 @@
+package com.example.vrwebviewer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs ContentCache against a local HTTP server standing in for the planet sites and
+ * checks hits, validator-based revalidation, no-store, private and cookie-setting
+ * responses and LRU eviction.
+ */
+public class ContentCacheTest {
+
+    private HttpServer server;
+    private String base;
+    private File dir;
+    private long now = 1_700_000_000_000L;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("content-cache").toFile();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+
+        // max-age=60 with an ETag; answers 304 when the ETag matches
+        server.createContext("/fresh.js", exchange -> {
+            requests.incrementAndGet();
+            String etag = "\"v1\"";
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                respond(exchange, "application/javascript; charset=utf-8", "console.log(1);".getBytes("UTF-8"));
+            }
+            exchange.close();
+        });
+        server.createContext("/private.js", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            respond(exchange, "application/javascript", "secret".getBytes("UTF-8"));
+            exchange.close();
+        });
+        server.createContext("/account.js", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "private, max-age=60");
+            respond(exchange, "application/javascript", "user".getBytes("UTF-8"));
+            exchange.close();
+        });
+        server.createContext("/session.js", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=60");
+            exchange.getResponseHeaders().set("Set-Cookie", "sid=1");
+            respond(exchange, "application/javascript", "session".getBytes("UTF-8"));
+            exchange.close();
+        });
+        // /tex/<n>.png: 1000-byte immutable textures
+        server.createContext("/tex/", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+            respond(exchange, "image/png", new byte[1000]);
+            exchange.close();
+        });
+        // Same texture for everyone, but a header echoes the requester (like CORS on Origin,
+        // which the JDK client won't send)
+        server.createContext("/cors.png", exchange -> {
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().set("Cache-Control", "max-age=3600");
+            exchange.getResponseHeaders().set("Vary", "X-Requester, Accept-Encoding");
+            exchange.getResponseHeaders().set("X-Allowed",
+                    exchange.getRequestHeaders().getFirst("X-Requester"));
+            respond(exchange, "image/png", new byte[100]);
+            exchange.close();
+        });
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                f.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, String type, byte[] body)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", type);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private ContentCache newCache(long maxBytes) {
+        return new ContentCache(dir, maxBytes, () -> now);
+    }
+
+    private static String read(ContentCache.Response response) throws IOException {
+        try (InputStream in = response.body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[512];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+            return out.toString("UTF-8");
+        }
+    }
+
+    @Test
+    public void freshEntryServedFromDisk() throws IOException {
+        ContentCache cache = newCache(1 << 20);
+        ContentCache.Response first = cache.fetch(base + "/fresh.js", null);
+        assertFalse(first.fromCache);
+        assertEquals("console.log(1);", read(first));
+        assertEquals("application/javascript", first.mimeType);
+        assertEquals("utf-8", first.encoding);
+
+        ContentCache.Response second = cache.fetch(base + "/fresh.js", null);
+        assertTrue(second.fromCache);
+        assertEquals("console.log(1);", read(second));
+        assertEquals("*", second.headers.get("access-control-allow-origin"));
+        assertEquals(1, requests.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void staleEntryRevalidatedWithEtag() throws IOException {
+        ContentCache cache = newCache(1 << 20);
+        read(cache.fetch(base + "/fresh.js", null));
+        now += 61_000;
+
+        ContentCache.Response response = cache.fetch(base + "/fresh.js", null);
+        assertTrue(response.fromCache);
+        assertEquals("console.log(1);", read(response));
+        assertEquals(1, notModified.get());
+        assertEquals(1, cache.getRevalidated());
+
+        // The 304 renewed freshness, so no request this time
+        read(cache.fetch(base + "/fresh.js", null));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void noStoreIsNotCached() throws IOException {
+        ContentCache cache = newCache(1 << 20);
+        assertEquals("secret", read(cache.fetch(base + "/private.js", null)));
+        assertEquals("secret", read(cache.fetch(base + "/private.js", null)));
+        assertFalse(cache.contains(base + "/private.js"));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void privateAndCookieSettingResponsesAreNotStored() throws IOException {
+        ContentCache cache = newCache(1 << 20);
+        assertEquals("user", read(cache.fetch(base + "/account.js", null)));
+        assertEquals("session", read(cache.fetch(base + "/session.js", null)));
+        assertFalse(cache.contains(base + "/account.js"));
+        assertFalse(cache.contains(base + "/session.js"));
+        assertEquals(0, cache.getEntryCount());
+    }
+
+    @Test
+    public void entryCommittedOnlyOnceBodyIsFullyRead() throws IOException {
+        ContentCache cache = newCache(1 << 20);
+        ContentCache.Response partial = cache.fetch(base + "/tex/8.png", null);
+        partial.body.read(new byte[10]);
+        partial.body.close();
+        assertFalse(cache.contains(base + "/tex/8.png"));
+
+        ContentCache.Response full = cache.fetch(base + "/tex/8.png", null);
+        assertFalse(cache.contains(base + "/tex/8.png"));
+        read(full);
+        assertTrue(cache.contains(base + "/tex/8.png"));
+        assertEquals(1000, cache.getSizeBytes());
+        ContentCache.Response cached = cache.fetch(base + "/tex/8.png", null);
+        assertTrue(cached.fromCache);
+        read(cached);
+
+        // Only the entry's file is left; the abandoned copy was removed
+        cache.flush();
+        assertEquals(2, dir.listFiles().length);
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws IOException {
+        ContentCache cache = newCache(4000);
+        read(cache.fetch(base + "/tex/0.png", null));
+        read(cache.fetch(base + "/tex/1.png", null));
+        read(cache.fetch(base + "/tex/2.png", null));
+        read(cache.fetch(base + "/tex/3.png", null));
+        // Touch 0 so 1 becomes the eldest
+        read(cache.fetch(base + "/tex/0.png", null));
+        read(cache.fetch(base + "/tex/4.png", null));
+
+        assertTrue(cache.contains(base + "/tex/0.png"));
+        assertFalse(cache.contains(base + "/tex/1.png"));
+        assertTrue(cache.contains(base + "/tex/4.png"));
+        assertTrue(cache.getSizeBytes() <= 4000);
+        assertEquals(4, cache.getEntryCount());
+    }
+
+    @Test
+    public void indexSurvivesRestart() throws IOException {
+        ContentCache cache = newCache(1 << 20);
+        read(cache.fetch(base + "/tex/7.png", null));
+        cache.flush();
+
+        ContentCache reopened = newCache(1 << 20);
+        assertTrue(reopened.contains(base + "/tex/7.png"));
+        ContentCache.Response response = reopened.fetch(base + "/tex/7.png", Collections.<String, String>emptyMap());
+        assertTrue(response.fromCache);
+        read(response);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void responsesVaryingOnRequestHeadersAreNotStored() throws IOException {
+        ContentCache cache = newCache(1 << 20);
+        read(cache.fetch(base + "/cors.png", Collections.singletonMap("X-Requester", "a")));
+        ContentCache.Response second = cache.fetch(base + "/cors.png",
+                Collections.singletonMap("X-Requester", "b"));
+        read(second);
+
+        assertFalse(second.fromCache);
+        assertEquals("b", second.headers.get("x-allowed"));
+        assertFalse(cache.contains(base + "/cors.png"));
+    }
+
+    @Test
+    public void varyOnAcceptEncodingOnlyIsUrlKeyed() {
+        assertTrue(ContentCache.isUrlKeyed(null));
+        assertTrue(ContentCache.isUrlKeyed("Accept-Encoding"));
+        assertTrue(ContentCache.isUrlKeyed("accept-encoding, "));
+        assertFalse(ContentCache.isUrlKeyed("Origin"));
+        assertFalse(ContentCache.isUrlKeyed("Accept-Encoding, *"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the decode sample size and output size ImageDownsampler uses.
+ */
+public class DownsamplePlanTest {
+
+    @Test
+    public void smallImagesLeftAlone() {
+        assertFalse(DownsamplePlan.needsDownsample(2000, 1200, 2000));
+        assertFalse(DownsamplePlan.needsDownsample(2400, 1200, 2000));
+        assertTrue(DownsamplePlan.needsDownsample(2600, 1200, 2000));
+        assertFalse(DownsamplePlan.needsDownsample(0, 0, 2000));
+    }
+
+    @Test
+    public void sampleSizeNeverDecodesBelowTarget() {
+        assertEquals(1, DownsamplePlan.sampleSize(3000, 2000, 2000));
+        assertEquals(4, DownsamplePlan.sampleSize(8192, 4096, 2000));
+        assertEquals(8, DownsamplePlan.sampleSize(4000, 16000, 2000));
+        int sample = DownsamplePlan.sampleSize(12000, 9000, 2000);
+        assertTrue(12000 / sample >= 2000);
+        assertTrue(12000 / (sample * 2) < 2000);
+    }
+
+    @Test
+    public void targetKeepsAspectRatio() {
+        assertArrayEquals(new int[]{2000, 1000}, DownsamplePlan.targetSize(4096, 2048, 2000));
+        assertArrayEquals(new int[]{500, 2000}, DownsamplePlan.targetSize(1024, 4096, 2000));
+        assertArrayEquals(new int[]{800, 600}, DownsamplePlan.targetSize(800, 600, 2000));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.vrwebviewer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs DwellClickEngine against a virtual clock at 60 Hz and checks that the listener
+ * only fires on state changes.
+ */
+public class DwellClickEngineTest {
+
+    private static final long FRAME_MS = 16;
+
+    private long now;
+    private DwellClickEngine engine;
+    private final StringBuilder events = new StringBuilder();
+    private int clicks;
+
+    @Before
+    public void setUp() {
+        now = 1000;
+        clicks = 0;
+        events.setLength(0);
+        engine = new DwellClickEngine(() -> now);
+        engine.setDwellMillis(1000);
+        engine.setStabilityRadius(0.01f);
+        engine.setCooldownMillis(500);
+        engine.setListener(new DwellClickEngine.Listener() {
+            @Override
+            public void onDwellStarted(float x, float y) {
+                events.append('S');
+            }
+
+            @Override
+            public void onDwellCancelled() {
+                events.append('C');
+            }
+
+            @Override
+            public void onDwellClick(float x, float y, int targetId) {
+                events.append('K');
+                clicks++;
+            }
+        });
+    }
+
+    private void run(long millis, float x, float y, int target) {
+        for (long end = now + millis; now < end; now += FRAME_MS) {
+            engine.update(x, y, target);
+        }
+    }
+
+    @Test
+    public void steadyGazeClicksOnceAfterDwell() {
+        run(900, 0.5f, 0.5f, 1);
+        assertEquals("S", events.toString());
+        assertTrue(engine.getProgress() > 0.8f && engine.getProgress() < 1f);
+
+        run(150, 0.505f, 0.5f, 1);
+        assertEquals("SK", events.toString());
+        assertEquals(DwellClickEngine.STATE_COOLDOWN, engine.getState());
+        assertEquals(0f, engine.getProgress(), 0f);
+    }
+
+    @Test
+    public void cooldownBlocksImmediateRepeat() {
+        run(1100, 0.5f, 0.5f, 1);
+        assertEquals(1, clicks);
+
+        // Cooldown plus a full dwell must pass before the next click
+        run(1400, 0.5f, 0.5f, 1);
+        assertEquals(1, clicks);
+        run(300, 0.5f, 0.5f, 1);
+        assertEquals(2, clicks);
+    }
+
+    @Test
+    public void movingOutsideRadiusCancels() {
+        run(500, 0.5f, 0.5f, 1);
+        run(FRAME_MS, 0.6f, 0.5f, 1);
+        assertEquals("SC", events.toString());
+        assertFalse(engine.isDwelling());
+
+        // Dwell restarts from the new anchor
+        run(1100, 0.6f, 0.5f, 1);
+        assertEquals("SCSK", events.toString());
+    }
+
+    @Test
+    public void targetChangeResetsDwell() {
+        run(800, 0.5f, 0.5f, 1);
+        run(800, 0.5f, 0.5f, 2);
+        assertEquals(0, clicks);
+        assertEquals("SCS", events.toString());
+    }
+
+    @Test
+    public void continuousMotionNeverNotifies() {
+        float x = 0.2f;
+        for (int i = 0; i < 300; i++) {
+            x += 0.02f;
+            if (x > 0.8f) x = 0.2f;
+            engine.update(x, 0.5f, DwellClickEngine.NO_TARGET);
+            now += FRAME_MS;
+        }
+        assertEquals("", events.toString());
+        assertEquals(DwellClickEngine.STATE_IDLE, engine.getState());
+    }
+
+    @Test
+    public void resetIsSilent() {
+        run(500, 0.5f, 0.5f, 1);
+        engine.reset();
+        assertEquals("S", events.toString());
+        assertEquals(DwellClickEngine.STATE_IDLE, engine.getState());
+    }
+}
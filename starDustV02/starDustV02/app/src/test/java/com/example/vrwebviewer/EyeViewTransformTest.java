@@ -0,0 +1,61 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that EyeViewTransform inverts the pan/zoom renderEye() draws with, so input
+ * lands on the page pixel shown under it.
+ */
+public class EyeViewTransformTest {
+
+    private static final float EPS = 1e-3f;
+
+    @Test
+    public void identityWhenContentFillsEye() {
+        EyeViewTransform t = new EyeViewTransform();
+        t.set(960, 1080, 960, 1080, 0, 0, 1f);
+        float[] out = new float[2];
+        t.toContent(123, 456, out);
+        assertEquals(123, out[0], EPS);
+        assertEquals(456, out[1], EPS);
+    }
+
+    @Test
+    public void eyeCenterMapsToPannedContentCenter() {
+        EyeViewTransform t = new EyeViewTransform();
+        t.set(960, 1080, 960, 1080, 100, -50, 2f);
+        float[] out = new float[2];
+        t.toContent(480, 540, out);
+        assertEquals(480 + 100, out[0], EPS);
+        assertEquals(540 - 50, out[1], EPS);
+    }
+
+    @Test
+    public void zoomShrinksEyeDistancesInContent() {
+        EyeViewTransform t = new EyeViewTransform();
+        t.set(960, 1080, 960, 1080, 0, 0, 2f);
+        float[] a = new float[2];
+        float[] b = new float[2];
+        t.toContent(480, 540, a);
+        t.toContent(580, 540, b);
+        assertEquals(50, b[0] - a[0], EPS);
+    }
+
+    @Test
+    public void roundTrip() {
+        EyeViewTransform t = new EyeViewTransform();
+        t.set(1170, 1080, 1024, 576, -37.5f, 12f, 0.7f);
+        float[] eye = new float[2];
+        float[] back = new float[2];
+        for (float x = 0; x <= 1024; x += 128) {
+            for (float y = 0; y <= 576; y += 96) {
+                t.toEye(x, y, eye);
+                t.toContent(eye[0], eye[1], back);
+                assertEquals(x, back[0], EPS);
+                assertEquals(y, back[1], EPS);
+            }
+        }
+    }
+}
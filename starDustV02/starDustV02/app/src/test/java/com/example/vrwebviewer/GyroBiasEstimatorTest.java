@@ -0,0 +1,126 @@
+package com.example.vrwebviewer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Feeds GyroBiasEstimator synthetic 200 Hz gyro/accel streams with a known bias and
+ * checks that only stationary stretches move the estimate.
+ */
+public class GyroBiasEstimatorTest {
+
+    private static final long PERIOD_NS = 5_000_000L;   // 200 Hz
+    private static final float[] TRUE_BIAS = {0.012f, -0.008f, 0.004f};
+    private static final float GRAVITY = 9.81f;
+
+    private GyroBiasEstimator estimator;
+    private Random noise;
+    private long timestamp;
+    private final float[] bias = new float[3];
+
+    @Before
+    public void setUp() {
+        estimator = new GyroBiasEstimator();
+        noise = new Random(42);
+        timestamp = 0;
+    }
+
+    // Device at rest: gyro reads bias plus noise, accel reads gravity plus noise
+    private void still(double seconds) {
+        for (int i = 0; i < seconds * 200; i++) {
+            estimator.onAccelerometer(timestamp, n(0.02f), n(0.02f), GRAVITY + n(0.02f));
+            estimator.onGyroscope(timestamp, TRUE_BIAS[0] + n(0.003f),
+                    TRUE_BIAS[1] + n(0.003f), TRUE_BIAS[2] + n(0.003f));
+            timestamp += PERIOD_NS;
+        }
+    }
+
+    // Head movement: large oscillating rates, gravity sweeping across the axes
+    private void moving(double seconds) {
+        for (int i = 0; i < seconds * 200; i++) {
+            double t = timestamp / 1e9;
+            float rate = (float) (1.5 * Math.sin(t * 6));
+            float angle = (float) (0.6 * Math.cos(t * 6));
+            estimator.onAccelerometer(timestamp, GRAVITY * (float) Math.sin(angle), 0f, GRAVITY * (float) Math.cos(angle) + n(0.5f));
+            estimator.onGyroscope(timestamp, TRUE_BIAS[0] + rate, TRUE_BIAS[1] + rate * 0.5f, TRUE_BIAS[2]);
+            timestamp += PERIOD_NS;
+        }
+    }
+
+    private float n(float sigma) {
+        return (float) noise.nextGaussian() * sigma;
+    }
+
+    private void assertBias(float tolerance) {
+        estimator.getBias(bias);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("axis " + i, TRUE_BIAS[i], bias[i], tolerance);
+        }
+    }
+
+    @Test
+    public void convergesWhileStill() {
+        assertFalse(estimator.hasEstimate());
+        still(5);
+        assertTrue(estimator.hasEstimate());
+        assertTrue(estimator.isStationary());
+        assertBias(0.001f);
+    }
+
+    @Test
+    public void motionDoesNotCorruptEstimate() {
+        still(3);
+        moving(10);
+        assertFalse(estimator.isStationary());
+        assertBias(0.001f);
+    }
+
+    @Test
+    public void rejectsSlowSteadyTurn() {
+        for (int i = 0; i < 2000; i++) {
+            estimator.onGyroscope(timestamp, 0.2f + n(0.003f), TRUE_BIAS[1], TRUE_BIAS[2]);
+            timestamp += PERIOD_NS;
+        }
+        assertFalse(estimator.hasEstimate());
+    }
+
+    @Test
+    public void warmStartIsRefined() {
+        estimator.setBias(0.03f, 0.01f, -0.01f);
+        assertTrue(estimator.hasEstimate());
+        still(30);
+        assertBias(0.001f);
+    }
+
+    @Test
+    public void onlyStationaryWindowsReportUpdates() {
+        int updates = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (estimator.onGyroscope(timestamp, TRUE_BIAS[0], TRUE_BIAS[1], TRUE_BIAS[2])) {
+                updates++;
+            }
+            timestamp += PERIOD_NS;
+        }
+        // 5 s of samples in 0.5 s windows
+        assertEquals(9, updates);
+        assertEquals(updates, estimator.getStationaryWindows());
+    }
+
+    @Test
+    public void lateAccelerometerBurstIgnoredInStillWindow() {
+        still(2);
+        long motionStart = timestamp - 1_500_000_000L;
+        // Gyro is still; a batched burst recorded during earlier motion arrives now
+        for (int i = 0; i < 200; i++) {
+            estimator.onAccelerometer(motionStart + i * PERIOD_NS, GRAVITY * 0.5f, 0f, GRAVITY * (i % 2));
+            estimator.onGyroscope(timestamp, TRUE_BIAS[0] + n(0.003f),
+                    TRUE_BIAS[1] + n(0.003f), TRUE_BIAS[2] + n(0.003f));
+            timestamp += PERIOD_NS;
+        }
+        assertTrue(estimator.isStationary());
+    }
+}
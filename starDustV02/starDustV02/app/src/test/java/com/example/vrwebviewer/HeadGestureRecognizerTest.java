@@ -0,0 +1,148 @@
+package com.example.vrwebviewer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Synthesises 200 Hz head-rate traces for nods, shakes and ordinary looking around and
+ * runs them through HeadGestureRecognizer.
+ */
+public class HeadGestureRecognizerTest {
+
+    private static final long PERIOD_NS = 5_000_000L; // 200 Hz
+
+    private HeadGestureRecognizer recognizer;
+    private Random noise;
+    private long timestamp;
+
+    @Before
+    public void setUp() {
+        recognizer = new HeadGestureRecognizer();
+        noise = new Random(3);
+        timestamp = 0;
+    }
+
+    // Feeds a half-sine lobe per entry in `signs` on one axis; returns the first gesture seen
+    private int swing(boolean vertical, float peak, double lobeSeconds, int... signs) {
+        int result = HeadGestureRecognizer.GESTURE_NONE;
+        int samplesPerLobe = (int) (lobeSeconds * 200);
+        for (int sign : signs) {
+            for (int i = 0; i < samplesPerLobe; i++) {
+                float rate = sign * peak * (float) Math.sin(Math.PI * i / samplesPerLobe);
+                result = first(result, feed(vertical ? rate : 0f, vertical ? 0f : rate));
+            }
+        }
+        return result;
+    }
+
+    private int still(double seconds) {
+        int result = HeadGestureRecognizer.GESTURE_NONE;
+        for (int i = 0; i < seconds * 200; i++) {
+            result = first(result, feed(0f, 0f));
+        }
+        return result;
+    }
+
+    private int feed(float vertical, float horizontal) {
+        timestamp += PERIOD_NS;
+        float jitter = (float) noise.nextGaussian() * 0.02f;
+        return recognizer.onGyro(timestamp, vertical + jitter, horizontal + jitter);
+    }
+
+    private static int first(int current, int next) {
+        return current != HeadGestureRecognizer.GESTURE_NONE ? current : next;
+    }
+
+    @Test
+    public void doubleNodIsRecognised() {
+        still(0.5);
+        int gesture = swing(true, 3f, 0.15, 1, -1, 1, -1);
+        gesture = first(gesture, still(0.5));
+        assertEquals(HeadGestureRecognizer.GESTURE_DOUBLE_NOD, gesture);
+    }
+
+    @Test
+    public void singleNodWaitsForQuiet() {
+        still(0.5);
+        assertEquals(HeadGestureRecognizer.GESTURE_NONE, swing(true, 3f, 0.15, 1, -1));
+        assertEquals(HeadGestureRecognizer.GESTURE_NOD, still(0.5));
+    }
+
+    @Test
+    public void doubleNodWithPauseIsNotSplit() {
+        still(0.5);
+        int gesture = swing(true, 3f, 0.15, 1, -1);
+        gesture = first(gesture, still(0.3));
+        gesture = first(gesture, swing(true, 3f, 0.15, 1, -1));
+        gesture = first(gesture, still(0.5));
+        assertEquals(HeadGestureRecognizer.GESTURE_DOUBLE_NOD, gesture);
+    }
+
+    @Test
+    public void singleNodIsReportedOnce() {
+        still(0.5);
+        swing(true, 3f, 0.15, 1, -1);
+        assertEquals(HeadGestureRecognizer.GESTURE_NOD, still(0.5));
+        assertEquals(HeadGestureRecognizer.GESTURE_NONE, still(1));
+    }
+
+    @Test
+    public void shakeIsRecognised() {
+        still(0.5);
+        int gesture = swing(false, 3f, 0.15, 1, -1, 1, -1);
+        gesture = first(gesture, still(0.5));
+        assertEquals(HeadGestureRecognizer.GESTURE_SHAKE, gesture);
+    }
+
+    @Test
+    public void slowLookingAroundIsIgnored() {
+        still(0.5);
+        int gesture = swing(true, 1f, 0.5, 1, -1, 1, -1);
+        gesture = first(gesture, swing(false, 1f, 0.5, 1, -1, 1));
+        gesture = first(gesture, still(1));
+        assertEquals(HeadGestureRecognizer.GESTURE_NONE, gesture);
+    }
+
+    @Test
+    public void diagonalMotionIsNotAGesture() {
+        still(0.5);
+        int gesture = HeadGestureRecognizer.GESTURE_NONE;
+        for (int sign : new int[]{1, -1, 1, -1}) {
+            for (int i = 0; i < 30; i++) {
+                float rate = sign * 3f * (float) Math.sin(Math.PI * i / 30);
+                gesture = first(gesture, feed(rate, rate));
+            }
+        }
+        gesture = first(gesture, still(0.5));
+        assertEquals(HeadGestureRecognizer.GESTURE_NONE, gesture);
+    }
+
+    @Test
+    public void learnedThresholdsTrackLookingSpeed() {
+        recognizer.startLearning();
+        swing(true, 2f, 0.5, 1, -1);
+        swing(false, 1f, 0.5, 1, -1);
+        recognizer.finishLearning();
+        assertFalse(recognizer.isLearning());
+        assertEquals(3f, recognizer.getVerticalThreshold(), 0.2f);
+        assertEquals(1.5f, recognizer.getHorizontalThreshold(), 0.2f);
+
+        // A nod at the old default speed no longer clears this user's vertical threshold
+        still(0.5);
+        int gesture = swing(true, 2.5f, 0.15, 1, -1, 1, -1);
+        assertEquals(HeadGestureRecognizer.GESTURE_NONE, first(gesture, still(0.5)));
+    }
+
+    @Test
+    public void refractoryPreventsRepeats() {
+        still(0.5);
+        assertEquals(HeadGestureRecognizer.GESTURE_DOUBLE_NOD,
+                first(swing(true, 3f, 0.15, 1, -1, 1, -1), still(0.1)));
+        // The tail of the same motion must not fire again
+        assertEquals(HeadGestureRecognizer.GESTURE_NONE, swing(true, 3f, 0.1, 1));
+    }
+}
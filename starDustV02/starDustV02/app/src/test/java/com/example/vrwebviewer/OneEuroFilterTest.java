@@ -0,0 +1,86 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that OneEuroFilter output depends on elapsed time rather than call rate, and
+ * that it trades jitter for lag according to pointer speed.
+ */
+public class OneEuroFilterTest {
+
+    private static final float MIN_CUTOFF = OneEuroFilter.cutoffForLerp(0.92f, 30f);
+
+    // Runs a 0.5 s step from 0.3 to 0.7 at the given rate and returns the value at t = 0.5 s
+    private static float stepResponse(float rateHz) {
+        OneEuroFilter filter = new OneEuroFilter(MIN_CUTOFF, 4f, 1f);
+        long period = (long) (1e9 / rateHz);
+        filter.filter(0.3f, 0);
+        float out = 0f;
+        for (long t = period; t <= 500_000_000L; t += period) {
+            out = filter.filter(0.7f, t);
+        }
+        return out;
+    }
+
+    @Test
+    public void responseIndependentOfFrameRate() {
+        float at15 = stepResponse(15f);
+        float at60 = stepResponse(60f);
+        float at120 = stepResponse(120f);
+        assertEquals(at60, at120, 0.02f);
+        assertEquals(at60, at15, 0.05f);
+    }
+
+    @Test
+    public void stillPointerIsSteady() {
+        OneEuroFilter filter = new OneEuroFilter(MIN_CUTOFF, 4f, 1f);
+        Random noise = new Random(7);
+        float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+        for (int i = 0; i < 600; i++) {
+            float out = filter.filter(0.5f + (float) noise.nextGaussian() * 0.003f, i * 16_666_667L);
+            if (i > 120) {
+                min = Math.min(min, out);
+                max = Math.max(max, out);
+            }
+        }
+        // Raw jitter spans ~0.02; filtered should be a fraction of that
+        assertTrue("jitter " + (max - min), max - min < 0.004f);
+    }
+
+    @Test
+    public void movingPointerHasLowLag() {
+        OneEuroFilter adaptive = new OneEuroFilter(MIN_CUTOFF, 4f, 1f);
+        OneEuroFilter fixed = new OneEuroFilter(MIN_CUTOFF, 0f, 1f);
+        float target = 0f, outAdaptive = 0f, outFixed = 0f;
+        for (int i = 0; i <= 30; i++) {
+            target = 0.2f + i * 0.01f; // 0.6 screen widths per second
+            long t = i * 16_666_667L;
+            outAdaptive = adaptive.filter(target, t);
+            outFixed = fixed.filter(target, t);
+        }
+        assertTrue(target - outAdaptive < (target - outFixed) / 2f);
+        assertTrue(adaptive.getSpeed() > 0.3f);
+    }
+
+    @Test
+    public void resetSnapsAndRepeatedTimestampIsIgnored() {
+        OneEuroFilter filter = new OneEuroFilter(MIN_CUTOFF, 4f, 1f);
+        filter.filter(0.2f, 0);
+        filter.reset(0.5f, 1_000_000L);
+        assertEquals(0.5f, filter.filter(0.9f, 1_000_000L), 0f);
+        assertEquals(0f, filter.getSpeed(), 0f);
+    }
+
+    @Test
+    public void lerpCutoffMatchesSmoothingSetting() {
+        // One 30 Hz step of the matching cutoff keeps ~92% of the old value
+        float dt = 1f / 30f;
+        float tau = (float) (1 / (2 * Math.PI * MIN_CUTOFF));
+        float alpha = 1f / (1f + tau / dt);
+        assertEquals(0.08f, alpha, 0.01f);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks how PagePerfStats attributes slow VR frames to the page or the capture path.
+ */
+public class PagePerfStatsTest {
+
+    // 30 frames a second apart from `slow` frames that arrive 80 ms late
+    private static void frames(PagePerfStats stats, long[] clock, int count, int slow) {
+        for (int i = 0; i < count; i++) {
+            clock[0] += i >= count - slow ? 113 : 33;
+            stats.recordNativeFrame(clock[0]);
+        }
+    }
+
+    @Test
+    public void slowFramesDuringLongTasksBlameThePage() {
+        PagePerfStats stats = new PagePerfStats();
+        stats.setCaptureFps(30);
+        long[] clock = {0};
+
+        frames(stats, clock, 30, 3);
+        stats.addPageSample(2, 180f, 120f, 48f, 130f, 0.02f, 900f, 1f);
+        assertEquals(3, stats.getPageJankFrames());
+        assertEquals(0, stats.getCaptureJankFrames());
+
+        frames(stats, clock, 30, 2);
+        stats.addPageSample(0, 0f, 0f, 60f, 17f, 0.02f, -1f, 1f);
+        assertEquals(3, stats.getPageJankFrames());
+        assertEquals(2, stats.getCaptureJankFrames());
+        assertEquals(2, stats.getLongTasks());
+    }
+
+    @Test
+    public void rafGapAloneMarksAPageStall() {
+        PagePerfStats stats = new PagePerfStats();
+        stats.setCaptureFps(30);
+        long[] clock = {0};
+        frames(stats, clock, 30, 1);
+        stats.addPageSample(0, 0f, 0f, 55f, 70f, 0.3f, -1f, 1f);
+        assertEquals(1, stats.getPageJankFrames());
+        assertEquals(0.3f, stats.getLayoutShift(), 0f);
+        assertTrue(stats.report().contains("Slow VR frames: 1 (page 1, capture 0)"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.vrwebviewer;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Drives PoseDispatcher with a synthetic 400 Hz sensor stream against a 60 Hz display
+ * and checks callback coalescing and steady-state allocation.
+ */
+public class PoseDispatcherTest {
+
+    private static final long SENSOR_PERIOD_NS = 2_500_000L;   // 400 Hz
+    private static final long FRAME_PERIOD_NS = 16_666_667L;   // 60 Hz
+
+    private static class FakeFrames implements PoseDispatcher.FrameScheduler {
+        int requests;
+        boolean pending;
+
+        @Override
+        public void scheduleFrame() {
+            requests++;
+            pending = true;
+        }
+    }
+
+    private static class CountingListener implements VRManager.VRListener {
+        int callbacks;
+        VRPose lastPose;
+        boolean sameInstance = true;
+
+        @Override
+        public void onPoseUpdated(VRPose pose) {
+            if (lastPose != null && lastPose != pose) {
+                sameInstance = false;
+            }
+            lastPose = pose;
+            callbacks++;
+        }
+    }
+
+    // Runs the stream for the given duration and returns the number of vsyncs that fired
+    private static int run(PoseDispatcher dispatcher, FakeFrames frames, long startNs, long durationNs) {
+        int vsyncs = 0;
+        long nextFrame = startNs + FRAME_PERIOD_NS;
+        for (long t = startNs; t < startNs + durationNs; t += SENSOR_PERIOD_NS) {
+            while (t >= nextFrame) {
+                vsyncs++;
+                if (frames.pending) {
+                    frames.pending = false;
+                    dispatcher.onFrame(nextFrame);
+                }
+                nextFrame += FRAME_PERIOD_NS;
+            }
+            float phase = t / 1e9f;
+            dispatcher.onOrientation(t, (float) Math.sin(phase), (float) Math.cos(phase) * 0.5f, 0.1f);
+        }
+        return vsyncs;
+    }
+
+    @Test
+    public void coalescesToAtMostOneCallbackPerFrame() {
+        FakeFrames frames = new FakeFrames();
+        PoseDispatcher dispatcher = new PoseDispatcher(frames);
+        CountingListener listener = new CountingListener();
+        dispatcher.setListener(listener);
+
+        int vsyncs = run(dispatcher, frames, 0, 2_000_000_000L);
+
+        assertEquals(800, dispatcher.getSamplesReceived());
+        assertTrue("callbacks " + listener.callbacks + " > vsyncs " + vsyncs, listener.callbacks <= vsyncs);
+        assertTrue("too few callbacks: " + listener.callbacks, listener.callbacks >= vsyncs - 1);
+        assertEquals(listener.callbacks, frames.requests - (frames.pending ? 1 : 0));
+        assertTrue("pose buffers must be reused", listener.sameInstance);
+    }
+
+    @Test
+    public void steadyStateDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(threads.isThreadAllocatedMemorySupported());
+
+        FakeFrames frames = new FakeFrames();
+        PoseDispatcher dispatcher = new PoseDispatcher(frames);
+        CountingListener listener = new CountingListener();
+        dispatcher.setListener(listener);
+
+        // Warm up so class loading and JIT don't count against the measurement
+        run(dispatcher, frames, 0, 5_000_000_000L);
+        long threadId = Thread.currentThread().getId();
+        threads.getThreadAllocatedBytes(threadId);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(dispatcher, frames, 5_000_000_000L, 5_000_000_000L);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // 2000 samples and ~300 frames; anything per-event would be tens of kilobytes
+        assertTrue("allocated " + allocated + " bytes in steady state", allocated < 1024);
+    }
+
+    @Test
+    public void skipsFramesWithoutNewSamples() {
+        FakeFrames frames = new FakeFrames();
+        PoseDispatcher dispatcher = new PoseDispatcher(frames);
+        CountingListener listener = new CountingListener();
+        dispatcher.setListener(listener);
+
+        dispatcher.onOrientation(1L, 0.2f, 0.1f, 0f);
+        dispatcher.onFrame(10L);
+        dispatcher.onFrame(20L);
+
+        assertEquals(1, listener.callbacks);
+        assertEquals(1L, listener.lastPose.timestampNanos);
+        assertEquals(10L, listener.lastPose.frameTimeNanos);
+    }
+
+    @Test
+    public void poseMatchesRotationOrderAndEyeOffset() {
+        VRPose pose = new VRPose();
+        float yaw = 0.4f, pitch = -0.3f, roll = 0.2f;
+        pose.set(yaw, pitch, roll);
+
+        float[] expected = multiply(multiply(rotX(pitch), rotY(yaw)), rotZ(roll));
+        for (int i = 0; i < 16; i++) {
+            assertEquals("head[" + i + "]", expected[i], pose.headMatrix[i], 1e-5f);
+        }
+
+        float half = VRPose.EYE_SEPARATION / 2f;
+        float[] left = multiply(expected, translate(-half));
+        float[] right = multiply(expected, translate(half));
+        for (int i = 0; i < 16; i++) {
+            assertEquals("left[" + i + "]", left[i], pose.leftEye[i], 1e-5f);
+            assertEquals("right[" + i + "]", right[i], pose.rightEye[i], 1e-5f);
+        }
+    }
+
+    // Column-major reference helpers mirroring android.opengl.Matrix
+    private static float[] identity() {
+        float[] m = new float[16];
+        m[0] = m[5] = m[10] = m[15] = 1f;
+        return m;
+    }
+
+    private static float[] rotX(float a) {
+        float[] m = identity();
+        m[5] = (float) Math.cos(a); m[6] = (float) Math.sin(a);
+        m[9] = -(float) Math.sin(a); m[10] = (float) Math.cos(a);
+        return m;
+    }
+
+    private static float[] rotY(float a) {
+        float[] m = identity();
+        m[0] = (float) Math.cos(a); m[2] = -(float) Math.sin(a);
+        m[8] = (float) Math.sin(a); m[10] = (float) Math.cos(a);
+        return m;
+    }
+
+    private static float[] rotZ(float a) {
+        float[] m = identity();
+        m[0] = (float) Math.cos(a); m[1] = (float) Math.sin(a);
+        m[4] = -(float) Math.sin(a); m[5] = (float) Math.cos(a);
+        return m;
+    }
+
+    private static float[] translate(float x) {
+        float[] m = identity();
+        m[12] = x;
+        return m;
+    }
+
+    private static float[] multiply(float[] a, float[] b) {
+        float[] r = new float[16];
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                float sum = 0f;
+                for (int k = 0; k < 4; k++) {
+                    sum += a[k * 4 + row] * b[col * 4 + k];
+                }
+                r[col * 4 + row] = sum;
+            }
+        }
+        return r;
+    }
+}
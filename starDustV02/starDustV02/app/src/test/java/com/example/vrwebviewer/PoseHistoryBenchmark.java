@@ -0,0 +1,47 @@
+package com.example.vrwebviewer;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Microbenchmark for PoseHistory.sample(): interpolated lookups against a full 512-slot
+ * ring, as VRManager keeps it. Too slow for the unit suite, so run it by hand; the bound
+ * only catches a regression to linear search, not machine-to-machine noise.
+ */
+public class PoseHistoryBenchmark {
+
+    private static final long PERIOD_NS = 2_500_000L; // 400 Hz
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    @Ignore("Benchmark; run by hand")
+    @Test
+    public void interpolatedLookup() {
+        PoseHistory history = new PoseHistory(512);
+        for (int i = 0; i < 2048; i++) {
+            float angle = i * 0.001f;
+            history.add(i * PERIOD_NS, 0f, 0f, (float) Math.sin(angle), (float) Math.cos(angle));
+        }
+        long oldest = (2048 - 511) * PERIOD_NS;
+        long span = 510 * PERIOD_NS;
+
+        float[] out = new float[4];
+        float sink = 0f;
+        for (int i = 0; i < WARMUP; i++) {
+            history.sample(oldest + (i * 7919L) % span, out);
+            sink += out[3];
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            history.sample(oldest + (i * 7919L) % span + 1_000, out);
+            sink += out[3];
+        }
+        double nsPerLookup = (System.nanoTime() - start) / (double) ITERATIONS;
+
+        assertFalse(Float.isNaN(sink));
+        assertTrue("lookup too slow: " + nsPerLookup, nsPerLookup < 5_000);
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * PoseHistory lookups, interpolation and one-writer/many-reader consistency.
+ */
+public class PoseHistoryTest {
+
+    private static final long PERIOD_NS = 5_000_000L; // 200 Hz
+
+    // Rotation about Z by `angle`, as x, y, z, w
+    private static void yaw(float angle, float[] out) {
+        out[0] = 0f;
+        out[1] = 0f;
+        out[2] = (float) Math.sin(angle / 2);
+        out[3] = (float) Math.cos(angle / 2);
+    }
+
+    private static float yawOf(float[] q) {
+        return (float) (2 * Math.atan2(q[2], q[3]));
+    }
+
+    // Yaw sweeps at 1 rad/s so the timestamp can be read back from the pose
+    private static void fill(PoseHistory history, int samples) {
+        float[] q = new float[4];
+        for (int i = 0; i < samples; i++) {
+            long t = i * PERIOD_NS;
+            yaw(t / 1e9f, q);
+            history.add(t, q[0], q[1], q[2], q[3]);
+        }
+    }
+
+    @Test
+    public void capacityRoundsToPowerOfTwo() {
+        assertEquals(128, new PoseHistory(100).getCapacity());
+        assertEquals(128, new PoseHistory(128).getCapacity());
+        assertEquals(0, new PoseHistory(16).size());
+    }
+
+    @Test
+    public void emptyHistoryReportsMissing() {
+        assertEquals(-1, new PoseHistory(16).sample(0, new float[4]));
+    }
+
+    @Test
+    public void interpolatesBetweenSamples() {
+        PoseHistory history = new PoseHistory(64);
+        fill(history, 40);
+        float[] q = new float[4];
+
+        // Halfway between the samples at 50 ms and 55 ms
+        assertEquals(0, history.sample(52_500_000L, q));
+        assertEquals(0.0525f, yawOf(q), 1e-5f);
+
+        assertEquals(0, history.sample(100_000_000L, q));
+        assertEquals(0.1f, yawOf(q), 1e-5f);
+        assertEquals(1f, q[0] * q[0] + q[1] * q[1] + q[2] * q[2] + q[3] * q[3], 1e-5f);
+    }
+
+    @Test
+    public void clampsOutsideRange() {
+        PoseHistory history = new PoseHistory(16);
+        fill(history, 40); // keeps samples 24..39; 24 is the slot the next write reuses
+        float[] q = new float[4];
+
+        assertEquals(16, history.size());
+        assertEquals(10 * PERIOD_NS, history.sample(15 * PERIOD_NS, q));
+        assertEquals(25 * PERIOD_NS / 1e9f, yawOf(q), 1e-5f);
+        assertEquals(PERIOD_NS, history.sample(40 * PERIOD_NS, q));
+        assertEquals(39 * PERIOD_NS / 1e9f, yawOf(q), 1e-5f);
+    }
+
+    @Test
+    public void dropsOutOfOrderSamples() {
+        PoseHistory history = new PoseHistory(16);
+        history.add(100, 0, 0, 0, 1);
+        history.add(100, 0, 0, 1, 0);
+        history.add(50, 0, 0, 1, 0);
+        assertEquals(1, history.size());
+    }
+
+    @Test
+    public void slerpTakesShortestPath() {
+        float[] a = new float[4];
+        float[] b = new float[4];
+        float[] expected = new float[4];
+        float[] out = new float[4];
+        yaw(0.2f, a);
+        yaw(0.4f, b);
+        yaw(0.3f, expected);
+        // Same rotation with the opposite sign must not send us the long way round
+        for (int i = 0; i < 4; i++) b[i] = -b[i];
+        PoseHistory.slerp(a, 0, b, 0, 0.5f, out);
+        float dot = 0f;
+        for (int i = 0; i < 4; i++) dot += out[i] * expected[i];
+        assertEquals(1f, Math.abs(dot), 1e-6f);
+    }
+
+    @Test
+    public void concurrentReadersSeeConsistentPoses() throws Exception {
+        final PoseHistory history = new PoseHistory(64);
+        final AtomicLong latest = new AtomicLong(-1);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final AtomicLong checked = new AtomicLong();
+
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            final long lag = (r * 25 + 1) * PERIOD_NS / 2; // from just behind "now" to past the oldest slot
+            readers[r] = new Thread(() -> {
+                float[] q = new float[4];
+                while (running.get()) {
+                    long query = latest.get() - lag;
+                    if (query < 0) continue;
+                    if (history.sample(query, q) != 0) continue;
+
+                    // Yaw encodes time; a torn or lapped read would land elsewhere
+                    double expected = (query / 1e9) % 6.0;
+                    if (expected < 0.01 || expected > 5.99) continue;
+                    float angle = yawOf(q);
+                    if (angle < 0) angle += 2 * Math.PI;
+                    if (Math.abs(angle - expected) > 1e-3) {
+                        failure.compareAndSet(null, "at " + query + " expected " + expected + " got " + angle);
+                    }
+                    checked.incrementAndGet();
+                }
+            });
+            readers[r].start();
+        }
+
+        float[] q = new float[4];
+        for (int i = 0; i < 400_000; i++) {
+            long t = i * PERIOD_NS;
+            yaw((float) ((t / 1e9) % 6.0), q);
+            history.add(t, q[0], q[1], q[2], q[3]);
+            latest.set(t);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertTrue(checked.get() > 0);
+    }
+}
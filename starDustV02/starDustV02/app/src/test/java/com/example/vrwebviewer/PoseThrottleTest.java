@@ -0,0 +1,80 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the rate cap and dead band PoseThrottle applies to poses bound for the page.
+ */
+public class PoseThrottleTest {
+
+    private static final long FRAME_120 = 8_333_333L;
+    private static final long FRAME_60 = 16_666_667L;
+
+    @Test
+    public void firstPoseAlwaysSent() {
+        PoseThrottle throttle = new PoseThrottle(60f, 0.05f);
+        assertTrue(throttle.accept(0, new float[]{0f, 0f, 0f}));
+    }
+
+    @Test
+    public void stillHeadSendsNothing() {
+        PoseThrottle throttle = new PoseThrottle(60f, 0.05f);
+        float[] angles = {10f, 20f, 0f};
+        throttle.accept(0, angles);
+        for (int i = 1; i <= 60; i++) {
+            angles[1] = 20f + (i % 2 == 0 ? 0.02f : -0.02f);
+            assertFalse(throttle.accept(i * FRAME_60, angles));
+        }
+        assertEquals(1, throttle.getAccepted());
+        assertEquals(60, throttle.getRejected());
+    }
+
+    @Test
+    public void capsRateOnFastDisplay() {
+        PoseThrottle throttle = new PoseThrottle(60f, 0.05f);
+        float[] angles = new float[3];
+        for (int i = 0; i < 120; i++) {
+            angles[1] = i;
+            throttle.accept(i * FRAME_120, angles);
+        }
+        assertEquals(60, throttle.getAccepted());
+    }
+
+    @Test
+    public void keepsEveryFrameAtCapRate() {
+        PoseThrottle throttle = new PoseThrottle(60f, 0.05f);
+        float[] angles = new float[3];
+        for (int i = 0; i < 60; i++) {
+            angles[0] = i;
+            // Vsync jitter of a millisecond either way
+            long jitter = (i % 2 == 0 ? 1 : -1) * 1_000_000L;
+            assertTrue(throttle.accept(i * FRAME_60 + jitter, angles));
+        }
+    }
+
+    @Test
+    public void deadBandWrapsAround180() {
+        PoseThrottle throttle = new PoseThrottle(60f, 0.05f);
+        throttle.accept(0, new float[]{0f, 179.99f, 0f});
+        assertFalse(throttle.accept(FRAME_60, new float[]{0f, -179.99f, 0f}));
+        assertTrue(throttle.accept(2 * FRAME_60, new float[]{0f, -179.9f, 0f}));
+    }
+
+    @Test
+    public void resetForcesNextPose() {
+        PoseThrottle throttle = new PoseThrottle(60f, 0.05f);
+        float[] angles = {1f, 2f, 3f};
+        throttle.accept(0, angles);
+        assertFalse(throttle.accept(FRAME_60, angles));
+        throttle.reset();
+        assertTrue(throttle.accept(FRAME_60 + 1, angles));
+    }
+
+    @Test
+    public void encodesTwoDecimals() {
+        StringBuilder sb = new StringBuilder();
+        assertEquals("12.35,-0.5,0.0", PoseChannel.encode(new float[]{12.3456f, -0.5f, 0.0001f}, sb));
+    }
+}
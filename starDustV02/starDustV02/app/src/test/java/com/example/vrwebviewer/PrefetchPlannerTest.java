@@ -0,0 +1,63 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the connectivity/battery gate and critical resource extraction behind
+ * DestinationPrefetcher, plus the first-frame bookkeeping it reports with.
+ */
+public class PrefetchPlannerTest {
+
+    @Test
+    public void levelFollowsNetworkAndBattery() {
+        assertEquals(PrefetchPlanner.LEVEL_NONE, PrefetchPlanner.allowedLevel(false, false, 90, false, false));
+        assertEquals(PrefetchPlanner.LEVEL_NONE, PrefetchPlanner.allowedLevel(true, false, 90, false, true));
+        assertEquals(PrefetchPlanner.LEVEL_CONNECT, PrefetchPlanner.allowedLevel(true, true, 90, false, false));
+        assertEquals(PrefetchPlanner.LEVEL_CONNECT, PrefetchPlanner.allowedLevel(true, false, 10, false, false));
+        assertEquals(PrefetchPlanner.LEVEL_FULL, PrefetchPlanner.allowedLevel(true, false, 10, true, false));
+        assertEquals(PrefetchPlanner.LEVEL_FULL, PrefetchPlanner.allowedLevel(true, false, -1, false, false));
+    }
+
+    @Test
+    public void criticalResourcesInDocumentOrder() {
+        String html = "<html><head>"
+                + "<link rel=\"icon\" href=\"/favicon.ico\">"
+                + "<link rel='stylesheet' href='css/main.css'>"
+                + "<script src=\"https://cdn.example.com/three.min.js\"></script>"
+                + "<link href=\"/fonts/space.woff2\" rel=\"preload\" as=\"font\">"
+                + "<script>inline()</script>"
+                + "<script type=\"module\" src=\"/app.js\"></script>"
+                + "<script src=\"/app.js\"></script>"
+                + "<script src=\"data:text/javascript,1\"></script>"
+                + "</head></html>";
+        List<String> resources = PrefetchPlanner.criticalResources(html, "https://mars.example.com/tour/", 12);
+        assertEquals(Arrays.asList(
+                "https://mars.example.com/tour/css/main.css",
+                "https://cdn.example.com/three.min.js",
+                "https://mars.example.com/fonts/space.woff2",
+                "https://mars.example.com/app.js"), resources);
+
+        assertEquals(2, PrefetchPlanner.criticalResources(html, "https://mars.example.com/", 2).size());
+    }
+
+    @Test
+    public void firstFrameSavingsRoundTrip() {
+        FirstFrameStats stats = new FirstFrameStats();
+        assertEquals(-1, stats.getSavedMillis());
+        stats.record(false, 3000);
+        stats.record(false, 2000);
+        stats.record(true, 1200);
+        assertEquals(1300, stats.getSavedMillis());
+
+        FirstFrameStats restored = FirstFrameStats.decode(stats.encode());
+        assertEquals(2, restored.getColdCount());
+        assertEquals(1, restored.getWarmCount());
+        assertEquals(1300, restored.getSavedMillis());
+        assertEquals(0, FirstFrameStats.decode("garbage").getColdCount());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks profile lookup by origin, the generated page config, and the on/off capture
+ * cost bookkeeping.
+ */
+public class RenderProfileTest {
+
+    @Test
+    public void builtInProfilesMatchDestinationOrigins() {
+        String origin = VrDocumentScripts.originOf(
+                "https://vr-git-main-mohammad-kasims-projects.vercel.app?_vercel_share=U9Uj7doFmcCeN6TkbQEt2GclFMvyMQfj");
+        RenderProfile profile = RenderProfile.forOrigin(origin);
+        assertEquals(1f, profile.maxDevicePixelRatio, 0f);
+        assertFalse(profile.contentVisibility);
+
+        RenderProfile unknown = RenderProfile.forOrigin("https://example.com");
+        assertEquals("https://example.com", unknown.origin);
+        assertEquals(0f, unknown.maxDevicePixelRatio, 0f);
+        assertTrue(unknown.pauseOffscreenAnimations);
+    }
+
+    @Test
+    public void scriptCarriesConfig() {
+        RenderProfile profile = new RenderProfile("https://www.nasa.gov", true, true, 1.5f, false);
+        String on = profile.script(true);
+        assertTrue(on.contains("enabled: true, pause: true, dpr: 1.5"));
+        assertTrue(on.contains("content-visibility: auto"));
+        assertFalse(on.contains("scroll-behavior"));
+        assertTrue(profile.script(false).contains("enabled: false"));
+    }
+
+    @Test
+    public void captureCostSplitsByProfileState() {
+        CaptureCostStats stats = new CaptureCostStats();
+        assertEquals(-1f, stats.getOnMeanMillis(), 0f);
+        stats.record(false, 12_000);
+        stats.record(false, 14_000);
+        stats.record(true, 5_000);
+        assertEquals(13f, stats.getOffMeanMillis(), 0.001f);
+        assertEquals(5f, stats.getOnMeanMillis(), 0.001f);
+
+        CaptureCostStats restored = CaptureCostStats.decode(stats.encode());
+        assertEquals(2, restored.getOffCount());
+        assertEquals(5f, restored.getOnMeanMillis(), 0.001f);
+    }
+}
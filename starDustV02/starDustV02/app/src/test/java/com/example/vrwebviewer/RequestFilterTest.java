@@ -0,0 +1,55 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks host and path matching in the compiled RequestFilter, including the shipped
+ * VR rule set.
+ */
+public class RequestFilterTest {
+
+    private static final RequestFilter FILTER = RequestFilter.compile(new String[]{
+        "# comment",
+        "||doubleclick.net 60",
+        "||ads.example.com",
+        "/_vercel/insights/ 5",
+        "/track",
+        "/tracker.js",
+    });
+
+    @Test
+    public void hostRulesMatchSubdomainsAtLabelBoundaries() {
+        assertEquals(0, FILTER.match("https://doubleclick.net/x"));
+        assertEquals(0, FILTER.match("https://stats.g.DoubleClick.net:443/pagead?id=1"));
+        assertEquals(RequestFilter.NO_MATCH, FILTER.match("https://notdoubleclick.net/x"));
+        assertEquals(1, FILTER.match("http://cdn.ads.example.com/banner.png"));
+        assertEquals(RequestFilter.NO_MATCH, FILTER.match("https://example.com/index.html"));
+        assertEquals(60 * 1024, FILTER.getEstimatedBytes(0));
+    }
+
+    @Test
+    public void pathRulesMatchAnywhereInPathAndQuery() {
+        assertEquals(2, FILTER.match("https://nasa2.vercel.app/_vercel/insights/script.js"));
+        assertEquals(3, FILTER.match("https://site.com/api/TRACK?event=view"));
+        // Overlapping fragments resolve through failure links
+        assertEquals(3, FILTER.match("https://site.com/t/track"));
+        assertEquals(3, FILTER.match("https://site.com/?next=/tracker.js"));
+        assertEquals(RequestFilter.NO_MATCH, FILTER.match("https://site.com/trac/k"));
+        assertEquals(RequestFilter.NO_MATCH, FILTER.match("https://track.com/index.html"));
+        assertEquals(RequestFilter.NO_MATCH, FILTER.match("https://site.com/page#/track"));
+        assertEquals(RequestFilter.NO_MATCH, FILTER.match("about:blank"));
+    }
+
+    @Test
+    public void shippedRulesBlockTrackersButNotDestinations() {
+        RequestFilter vr = RequestFilter.compile(WebRequestFilter.VR_RULES);
+        assertNotEquals(RequestFilter.NO_MATCH, vr.match("https://www.googletagmanager.com/gtag/js?id=G-1"));
+        assertNotEquals(RequestFilter.NO_MATCH, vr.match("https://dap.digitalgov.gov/Universal-Federated-Analytics-Min.js"));
+        assertEquals(RequestFilter.NO_MATCH, vr.match("https://www.nasa.gov/wp-content/themes/nasa/assets/js/main.js"));
+        assertEquals(RequestFilter.NO_MATCH, vr.match("https://trek.nasa.gov/moon/TrekWS/rest/tiles/1/2/3.png"));
+        assertEquals(RequestFilter.NO_MATCH, vr.match(
+                "https://vr-git-main-mohammad-kasims-projects.vercel.app/assets/index-4f2a.js"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fans a synthetic 400 Hz stream out through SensorChannel to full-rate and decimated
+ * subscribers, as SensorHub does for fusion and the calibration visualiser.
+ */
+public class SensorChannelTest {
+
+    private static final int GYRO = 4;
+    private static final long PERIOD_NS = 2_500_000L; // 400 Hz
+
+    private static class Recorder implements SensorHub.Subscriber {
+        int samples;
+        long lastTimestamp;
+        final float[] last = new float[3];
+
+        @Override
+        public void onSensorSample(int sensorType, long timestampNanos, float[] values, int count) {
+            assertEquals(GYRO, sensorType);
+            assertEquals(3, count);
+            samples++;
+            lastTimestamp = timestampNanos;
+            System.arraycopy(values, 0, last, 0, 3);
+        }
+    }
+
+    private static SensorHub.Subscription subscribe(SensorChannel channel, float hz, Recorder recorder) {
+        SensorHub.Subscription sub = new SensorHub.Subscription(GYRO, SensorSamplingPolicy.MODE_VR_TRACKING, hz, recorder);
+        channel.add(sub);
+        return sub;
+    }
+
+    private static void feed(SensorChannel channel, long fromNs, int count, float value) {
+        float[] values = new float[3];
+        for (int i = 0; i < count; i++) {
+            values[0] = value;
+            values[1] = -value;
+            values[2] = i;
+            channel.dispatch(fromNs + i * PERIOD_NS, values, 3);
+        }
+    }
+
+    @Test
+    public void decimatesToRequestedRate() {
+        SensorChannel channel = new SensorChannel(GYRO, true);
+        Recorder full = new Recorder();
+        Recorder visualiser = new Recorder();
+        subscribe(channel, 0, full);
+        SensorHub.Subscription decimated = subscribe(channel, 60f, visualiser);
+
+        feed(channel, 0, 4000, 1f); // 10 s
+        assertEquals(4000, full.samples);
+        assertEquals(4000, channel.getSamplesReceived());
+        assertEquals(600, visualiser.samples, 2);
+        assertEquals(visualiser.samples, decimated.getDelivered());
+    }
+
+    @Test
+    public void decimatedSamplesAreAveraged() {
+        SensorChannel channel = new SensorChannel(GYRO, true);
+        Recorder visualiser = new Recorder();
+        subscribe(channel, 10f, visualiser);
+
+        // Constant channels average to themselves; the ramp averages to its window midpoint
+        feed(channel, 0, 41, 0.5f);
+        assertEquals(2, visualiser.samples);
+        assertEquals(0.5f, visualiser.last[0], 1e-6f);
+        assertEquals(-0.5f, visualiser.last[1], 1e-6f);
+        assertEquals(20.5f, visualiser.last[2], 1e-4f);
+    }
+
+    @Test
+    public void latestSampleWhenNotAveraging() {
+        SensorChannel channel = new SensorChannel(GYRO, false);
+        Recorder recorder = new Recorder();
+        subscribe(channel, 10f, recorder);
+        feed(channel, 0, 41, 0.5f);
+        assertEquals(40f, recorder.last[2], 0f);
+    }
+
+    @Test
+    public void removingSubscriberStopsDelivery() {
+        SensorChannel channel = new SensorChannel(GYRO, true);
+        Recorder a = new Recorder();
+        Recorder b = new Recorder();
+        SensorHub.Subscription subA = subscribe(channel, 0, a);
+        subscribe(channel, 0, b);
+
+        feed(channel, 0, 10, 1f);
+        assertTrue(channel.remove(subA));
+        assertFalse(channel.remove(subA));
+        feed(channel, 10 * PERIOD_NS, 10, 1f);
+        assertEquals(10, a.samples);
+        assertEquals(20, b.samples);
+        assertEquals(1, channel.getSubscriptions().length);
+    }
+
+    @Test
+    public void lateSubscriberAveragesOnlyNewSamples() {
+        SensorChannel channel = new SensorChannel(GYRO, true);
+        feed(channel, 0, 1000, 5f);
+
+        Recorder late = new Recorder();
+        subscribe(channel, 20f, late);
+        feed(channel, 1000 * PERIOD_NS, 100, 1f);
+        assertEquals(1f, late.last[0], 1e-6f);
+    }
+}
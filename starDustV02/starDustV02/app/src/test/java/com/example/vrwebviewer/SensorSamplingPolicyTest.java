@@ -0,0 +1,76 @@
+package com.example.vrwebviewer;
+
+import android.hardware.Sensor;
+
+import org.junit.Test;
+
+import static com.example.vrwebviewer.SensorSamplingPolicy.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks SensorSamplingPolicy's rate and batching table against 60 and 120 Hz displays.
+ */
+public class SensorSamplingPolicyTest {
+
+    private final SensorSamplingPolicy policy60 = new SensorSamplingPolicy(60f);
+    private final SensorSamplingPolicy policy120 = new SensorSamplingPolicy(120f);
+
+    @Test
+    public void trackingFollowsDisplayRate() {
+        assertEquals(8_333, policy60.getSamplingPeriodUs(MODE_VR_TRACKING, Sensor.TYPE_GYROSCOPE));
+        assertEquals(4_166, policy120.getSamplingPeriodUs(MODE_VR_TRACKING, Sensor.TYPE_GYROSCOPE));
+        assertEquals(0, policy120.getMaxReportLatencyUs(MODE_VR_TRACKING, Sensor.TYPE_ROTATION_VECTOR));
+        assertEquals(0, policy60.getMaxReportLatencyUs(MODE_BATTERY_SAVER, Sensor.TYPE_GYROSCOPE));
+    }
+
+    @Test
+    public void trackingRateIsBounded() {
+        SensorSamplingPolicy fast = new SensorSamplingPolicy(500f);
+        SensorSamplingPolicy slow = new SensorSamplingPolicy(20f);
+        assertEquals(2_500, fast.getSamplingPeriodUs(MODE_VR_TRACKING, Sensor.TYPE_GYROSCOPE));
+        assertEquals(20_000, slow.getSamplingPeriodUs(MODE_VR_TRACKING, Sensor.TYPE_GYROSCOPE));
+        // Battery saver never exceeds 60 Hz even on a 120 Hz panel
+        assertEquals(16_667, policy120.getSamplingPeriodUs(MODE_BATTERY_SAVER, Sensor.TYPE_GYROSCOPE));
+    }
+
+    @Test
+    public void auxiliarySensorsAreBatchedInWholeFrames() {
+        int frame = policy60.getFramePeriodUs();
+        int latency = policy60.getMaxReportLatencyUs(MODE_VR_TRACKING, Sensor.TYPE_ACCELEROMETER);
+        assertTrue(latency > 0);
+        assertEquals(0, latency % frame);
+        assertEquals(policy60.getBatchFrames(MODE_VR_TRACKING) * frame, latency);
+        assertTrue(policy60.getSamplingPeriodUs(MODE_VR_TRACKING, Sensor.TYPE_ACCELEROMETER)
+                > policy60.getSamplingPeriodUs(MODE_VR_TRACKING, Sensor.TYPE_GYROSCOPE));
+    }
+
+    @Test
+    public void idleAndSaverDropMagnetometer() {
+        assertEquals(SENSOR_OFF, policy60.getSamplingPeriodUs(MODE_IDLE, Sensor.TYPE_MAGNETIC_FIELD));
+        assertEquals(SENSOR_OFF, policy60.getSamplingPeriodUs(MODE_BATTERY_SAVER, Sensor.TYPE_MAGNETIC_FIELD));
+        assertNotEquals(SENSOR_OFF, policy60.getSamplingPeriodUs(MODE_CALIBRATION, Sensor.TYPE_MAGNETIC_FIELD));
+    }
+
+    @Test
+    public void idleBatchesEverything() {
+        assertTrue(policy60.getMaxReportLatencyUs(MODE_IDLE, Sensor.TYPE_GYROSCOPE) > 0);
+        assertTrue(policy60.getSamplingPeriodUs(MODE_IDLE, Sensor.TYPE_GYROSCOPE)
+                > policy60.getSamplingPeriodUs(MODE_VR_TRACKING, Sensor.TYPE_GYROSCOPE));
+    }
+
+    @Test
+    public void flushIntervalEndsOnBatchBoundary() {
+        // postFrameCallbackDelayed fires on the first vsync after the delay
+        assertEquals(83, policy60.getFlushIntervalMillis(MODE_VR_TRACKING));
+        assertEquals(41, policy120.getFlushIntervalMillis(MODE_VR_TRACKING));
+    }
+
+    @Test
+    public void modeSelection() {
+        assertEquals(MODE_CALIBRATION, selectMode(true, true, true));
+        assertEquals(MODE_IDLE, selectMode(false, false, false));
+        assertEquals(MODE_BATTERY_SAVER, selectMode(true, false, true));
+        assertEquals(MODE_VR_TRACKING, selectMode(true, false, false));
+        assertEquals(60, Math.round(1_000_000f / new SensorSamplingPolicy(0f).getFramePeriodUs()));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Round-trips traces through the recorder and replayer and uses them as
+ * deterministic inputs for the head-tracking pipelines.
+ */
+public class SensorTraceTest {
+
+    private static final long PERIOD_NS = 5_000_000L; // 200 Hz
+
+    // Stationary head with a constant gyro bias plus seeded noise
+    private static byte[] stationaryGyroTrace(float biasX, float biasY, int samples) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SensorTraceRecorder recorder = new SensorTraceRecorder(out, 256);
+        Random noise = new Random(42);
+        float[] gyro = new float[3];
+        for (int i = 0; i < samples; i++) {
+            gyro[0] = biasX + (float) noise.nextGaussian() * 0.0005f;
+            gyro[1] = biasY + (float) noise.nextGaussian() * 0.0005f;
+            gyro[2] = 0f;
+            recorder.record(SensorTrace.TYPE_GYROSCOPE, 1_000_000_000L + i * PERIOD_NS, gyro);
+        }
+        recorder.close();
+        return out.toByteArray();
+    }
+
+    @Test
+    public void roundTripPreservesSamplesAndTimestamps() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SensorTraceRecorder recorder = new SensorTraceRecorder(out, 64);
+        recorder.record(SensorTrace.TYPE_GYROSCOPE, 100L, new float[]{0.1f, -0.2f, 0.3f});
+        recorder.record(SensorTrace.TYPE_ACCELEROMETER, 2_600_000L, new float[]{0f, 9.81f, 0.5f});
+        recorder.record(SensorTrace.TYPE_ROTATION_VECTOR, 10_000_000_000L, new float[]{0.1f, 0.2f, 0.3f, 0.9f, 0f});
+        recorder.record(SensorTrace.TYPE_MAGNETIC_FIELD, 10_000_000_001L, new float[]{20f, -5f, 40f});
+        recorder.close();
+
+        // 4 samples, one resync for the 10 s gap, and the header
+        assertEquals(SensorTrace.HEADER_BYTES + 18 + 18 + 26 + 10 + 18, out.size());
+
+        final List<String> seen = new ArrayList<>();
+        int count = new SensorTraceReplayer(out.toByteArray()).replay((type, ts, values, n) -> {
+            StringBuilder line = new StringBuilder().append(type).append('@').append(ts);
+            for (int i = 0; i < n; i++) {
+                line.append(' ').append(values[i]);
+            }
+            seen.add(line.toString());
+        });
+
+        assertEquals(4, count);
+        assertEquals("4@100 0.1 -0.2 0.3", seen.get(0));
+        assertEquals("1@2600000 0.0 9.81 0.5", seen.get(1));
+        assertEquals("11@10000000000 0.1 0.2 0.3 0.9 0.0", seen.get(2));
+        assertEquals("2@10000000001 20.0 -5.0 40.0", seen.get(3));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsForeignFiles() throws IOException {
+        new SensorTraceReplayer(new byte[32]);
+    }
+
+    @Test
+    public void headTrackerReplayIsDeterministicAndDriftFreeOnceBiasIsRemoved() throws IOException {
+        byte[] trace = stationaryGyroTrace(0.01f, -0.008f, 2000);
+
+        float[] uncorrected = replayHeadTracker(trace, 0f, 0f);
+        float[] again = replayHeadTracker(trace, 0f, 0f);
+        assertEquals(uncorrected[0], again[0], 0f);
+        assertEquals(uncorrected[1], again[1], 0f);
+        assertEquals(uncorrected[2], again[2], 0f);
+
+        // Uncorrected bias walks the pointer into the clamp; removing it keeps it centred
+        assertTrue("expected drift, got " + uncorrected[2], uncorrected[2] > 0.3f);
+        float[] corrected = replayHeadTracker(trace, 0.01f, -0.008f);
+        assertTrue("residual drift " + corrected[2], corrected[2] < 0.01f);
+    }
+
+    // Returns final targetX, targetY and distance from centre
+    private static float[] replayHeadTracker(byte[] trace, float biasX, float biasY) throws IOException {
+        final HeadTracker tracker = new HeadTracker();
+        tracker.setSensitivity(2.5f);
+        tracker.setBias(biasX, biasY, 0f);
+        new SensorTraceReplayer(trace).replay((type, ts, values, n) -> {
+            if (type == SensorTrace.TYPE_GYROSCOPE) {
+                tracker.onGyro(values[0], values[1], values[2]);
+            }
+        });
+        float dx = tracker.getTargetX() - 0.5f;
+        float dy = tracker.getTargetY() - 0.5f;
+        return new float[]{tracker.getTargetX(), tracker.getTargetY(), (float) Math.sqrt(dx * dx + dy * dy)};
+    }
+
+    @Test
+    public void rotationVectorReplayDrivesVRManagerPipeline() throws IOException {
+        // Slow yaw sweep as a rotation vector about the z axis
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SensorTraceRecorder recorder = new SensorTraceRecorder(out);
+        float[] rv = new float[4];
+        for (int i = 0; i <= 200; i++) {
+            double angle = -0.5 + i * 0.005; // -0.5 .. 0.5 rad
+            rv[0] = 0f;
+            rv[1] = 0f;
+            rv[2] = (float) Math.sin(angle / 2);
+            rv[3] = (float) Math.cos(angle / 2);
+            recorder.record(SensorTrace.TYPE_ROTATION_VECTOR, i * PERIOD_NS, rv);
+        }
+        recorder.close();
+
+        final OrientationTracker tracker = new OrientationTracker();
+        tracker.configure(1f, 0f, Float.MAX_VALUE, Float.MAX_VALUE);
+        final boolean[] framePending = new boolean[1];
+        final PoseDispatcher dispatcher = new PoseDispatcher(() -> framePending[0] = true);
+        final List<float[]> poses = new ArrayList<>();
+        dispatcher.setListener(pose -> poses.add(new float[]{pose.yaw, pose.frameTimeNanos - pose.timestampNanos}));
+
+        new SensorTraceReplayer(out.toByteArray()).replay((type, ts, values, n) -> {
+            tracker.onSample(type, ts, values, n);
+            dispatcher.onOrientation(ts, tracker.getYaw(), tracker.getPitch(), tracker.getRoll());
+            // 60 Hz display: deliver a frame whenever one is due
+            if (framePending[0] && ts % 16_666_667L < PERIOD_NS) {
+                framePending[0] = false;
+                dispatcher.onFrame(ts);
+            }
+        });
+
+        assertFalse(poses.isEmpty());
+        for (float[] pose : poses) {
+            assertTrue("yaw out of range " + pose[0], pose[0] >= -0.5001f && pose[0] <= 0.5001f);
+            assertEquals("frame must carry the newest sample", 0f, pose[1], 0f);
+        }
+        // Positive rotation about z reads as negative azimuth
+        assertEquals(0.5f, poses.get(0)[0], 0.02f);
+        assertEquals(-0.5f, tracker.getYaw(), 1e-4f);
+    }
+
+    @Test
+    public void threeComponentRotationVectorDerivesW() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SensorTraceRecorder recorder = new SensorTraceRecorder(out);
+        // A full quaternion first leaves a stale w in the replayer's buffer
+        recorder.record(SensorTrace.TYPE_ROTATION_VECTOR, 0, new float[]{0f, 0f, 0f, -1f});
+        recorder.record(SensorTrace.TYPE_ROTATION_VECTOR, PERIOD_NS,
+                new float[]{0f, 0f, (float) Math.sin(0.2)});
+        recorder.close();
+
+        final OrientationTracker tracker = new OrientationTracker();
+        new SensorTraceReplayer(out.toByteArray()).replay((type, ts, values, n) ->
+                tracker.onSample(type, ts, values, n));
+
+        float[] q = new float[4];
+        tracker.getQuaternion(q);
+        assertEquals((float) Math.cos(0.2), q[3], 1e-5f);
+        assertEquals(-0.4f, tracker.getYaw(), 1e-4f);
+    }
+}
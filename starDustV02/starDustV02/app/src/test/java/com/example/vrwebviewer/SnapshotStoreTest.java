@@ -0,0 +1,158 @@
+package com.example.vrwebviewer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Installs in-memory snapshot archives and checks versioning, path resolution,
+ * rejection of unsafe archives and update signature checks.
+ */
+public class SnapshotStoreTest {
+
+    private File root;
+
+    @Before
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("snapshots").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        delete(root);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static InputStream archive(String site, int version, String... files) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry(SnapshotStore.MANIFEST));
+            zip.write(("site=" + site + "\nversion=" + version + "\nupdate=https://example.com/" + site + ".zip\n")
+                    .getBytes("UTF-8"));
+            for (String name : files) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(("v" + version + ":" + name).getBytes("UTF-8"));
+            }
+        }
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+
+    @Test
+    public void installsAndResolvesPaths() throws IOException {
+        SnapshotStore store = new SnapshotStore(root);
+        assertNull(store.entryUrl("mars"));
+
+        SnapshotStore.Manifest manifest = store.install("mars", archive("mars", 1, "index.html", "assets/app.js"));
+        assertEquals(1, manifest.version);
+        assertEquals("https://example.com/mars.zip", manifest.updateUrl);
+        assertEquals("https://mars.stardust.invalid/index.html", store.entryUrl("mars"));
+        assertEquals("v1:index.html", read(store.resolve("mars", "/")));
+        assertEquals("v1:assets/app.js", read(store.resolve("mars", "assets/app.js")));
+        assertNull(store.resolve("mars", "missing.js"));
+        assertNull(store.resolve("mars", "assets/../../mars/current"));
+
+        // A fresh store finds the installed version on disk
+        assertEquals(1, new SnapshotStore(root).getManifest("mars").version);
+    }
+
+    @Test
+    public void onlyNewerVersionsReplace() throws IOException {
+        SnapshotStore store = new SnapshotStore(root);
+        store.install("moon", archive("moon", 2, "index.html"));
+        assertNull(store.install("moon", archive("moon", 1, "index.html")));
+        assertEquals("v2:index.html", read(store.resolve("moon", "index.html")));
+
+        store.install("moon", archive("moon", 3, "index.html"));
+        assertEquals("v3:index.html", read(store.resolve("moon", "index.html")));
+        assertFalse(new File(root, "moon/v2").exists());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsEntriesOutsideTheSnapshot() throws IOException {
+        new SnapshotStore(root).install("venus", archive("venus", 1, "../../escape.txt"));
+    }
+
+    @Test
+    public void onlyArchivesSignedWithThePinnedKeyVerify() throws IOException, GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(256);
+        KeyPair pinned = generator.generateKeyPair();
+        KeyPair other = generator.generateKeyPair();
+
+        byte[] bytes = toBytes(archive("moon", 4, "index.html"));
+        File file = new File(root, "moon.zip");
+        Files.write(file.toPath(), bytes);
+        String keyHex = hex(pinned.getPublic().getEncoded());
+
+        String signature = hex(sign(pinned, bytes));
+
+        assertTrue(SnapshotStore.verify(file, keyHex, signature + "\n"));
+        assertFalse(SnapshotStore.verify(file, keyHex, hex(sign(other, bytes))));
+        assertFalse(SnapshotStore.verify(file, keyHex, "not hex"));
+
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(file.toPath(), bytes);
+        assertFalse(SnapshotStore.verify(file, keyHex, signature));
+    }
+
+    private static byte[] sign(KeyPair keys, byte[] data) throws GeneralSecurityException {
+        Signature signature = Signature.getInstance("SHA256withECDSA");
+        signature.initSign(keys.getPrivate());
+        signature.update(data);
+        return signature.sign();
+    }
+
+    private static byte[] toBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder out = new StringBuilder();
+        for (byte b : bytes) {
+            out.append(String.format("%02x", b));
+        }
+        return out.toString();
+    }
+
+    @Test
+    public void virtualOriginsMapBackToSites() {
+        assertEquals("venus", SnapshotStore.siteForHost("venus.stardust.invalid"));
+        assertNull(SnapshotStore.siteForHost("a.venus.stardust.invalid"));
+        assertNull(SnapshotStore.siteForHost("www.nasa.gov"));
+        assertEquals("text/javascript", SnapshotStore.mimeTypeFor("assets/App.JS"));
+    }
+}
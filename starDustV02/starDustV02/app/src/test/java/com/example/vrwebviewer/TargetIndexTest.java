@@ -0,0 +1,92 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the nearest-target queries the gaze crosshair snaps with.
+ */
+public class TargetIndexTest {
+
+    @Test
+    public void findsNearestWithinRadius() {
+        TargetIndex index = new TargetIndex(64f);
+        index.put(1, 100, 100, 80, 20);
+        index.put(2, 300, 100, 80, 20);
+        float[] rect = new float[4];
+
+        assertEquals(1, index.nearest(190, 110, 20, rect));
+        assertArrayEquals(new float[] {100, 100, 80, 20}, rect, 0f);
+        assertEquals(2, index.nearest(290, 110, 20, rect));
+        assertEquals(TargetIndex.NONE, index.nearest(240, 110, 20, rect));
+    }
+
+    @Test
+    public void insideBeatsNearbyAndSmallerWinsTies() {
+        TargetIndex index = new TargetIndex(64f);
+        index.put(1, 0, 0, 400, 200);
+        index.put(2, 50, 50, 40, 20);
+        index.put(3, 120, 50, 40, 20);
+        float[] rect = new float[4];
+
+        // Both 1 and 2 contain the point; the button wins over its container
+        assertEquals(2, index.nearest(60, 60, 30, rect));
+        assertEquals(1, index.nearest(300, 150, 30, rect));
+    }
+
+    @Test
+    public void removeAndClear() {
+        TargetIndex index = new TargetIndex(64f);
+        index.put(1, 10, 10, 20, 20);
+        index.put(2, 40, 10, 20, 20);
+        float[] rect = new float[4];
+
+        index.remove(1);
+        assertEquals(1, index.size());
+        assertEquals(2, index.nearest(20, 20, 30, rect));
+
+        // Re-putting an id moves it
+        index.put(2, 500, 500, 20, 20);
+        assertEquals(TargetIndex.NONE, index.nearest(20, 20, 30, rect));
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertEquals(TargetIndex.NONE, index.nearest(510, 510, 30, rect));
+    }
+
+    @Test
+    public void longPageMatchesLinearScan() {
+        TargetIndex index = new TargetIndex(96f);
+        float[][] boxes = new float[2000][];
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = new float[] {random.nextFloat() * 1200, random.nextFloat() * 40000,
+                    20 + random.nextFloat() * 200, 16 + random.nextFloat() * 30};
+            index.put(i, boxes[i][0], boxes[i][1], boxes[i][2], boxes[i][3]);
+        }
+        float[] rect = new float[4];
+
+        for (int q = 0; q < 500; q++) {
+            float x = random.nextFloat() * 1400;
+            float y = random.nextFloat() * 40000;
+            int found = index.nearest(x, y, 40, rect);
+            if (found == TargetIndex.NONE) {
+                for (float[] b : boxes) {
+                    assertTrue(distance(b, x, y) > 40);
+                }
+            } else {
+                float best = distance(boxes[found], x, y);
+                for (float[] b : boxes) {
+                    assertTrue(distance(b, x, y) >= best);
+                }
+            }
+        }
+    }
+
+    private static float distance(float[] b, float x, float y) {
+        float dx = Math.max(0, Math.max(b[0] - x, x - b[0] - b[2]));
+        float dy = Math.max(0, Math.max(b[1] - y, y - b[1] - b[3]));
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+}
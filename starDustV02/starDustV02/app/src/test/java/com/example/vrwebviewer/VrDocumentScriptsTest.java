@@ -0,0 +1,26 @@
+package com.example.vrwebviewer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the origin rules VrDocumentScripts registers its document-start script under.
+ */
+public class VrDocumentScriptsTest {
+
+    @Test
+    public void originDropsPathQueryAndDefaultPort() {
+        assertEquals("https://vr-git-main.vercel.app",
+                VrDocumentScripts.originOf("https://vr-git-main.vercel.app?_vercel_share=abc"));
+        assertEquals("https://trek.nasa.gov", VrDocumentScripts.originOf("HTTPS://Trek.NASA.gov:443/moon/"));
+        assertEquals("http://localhost:8080", VrDocumentScripts.originOf("http://localhost:8080/index.html"));
+    }
+
+    @Test
+    public void nonWebUrlsHaveNoOrigin() {
+        assertNull(VrDocumentScripts.originOf("about:blank"));
+        assertNull(VrDocumentScripts.originOf("file:///android_asset/index.html"));
+        assertNull(VrDocumentScripts.originOf(null));
+    }
+}